@@ -0,0 +1,32 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.Main;
+
+/**
+ * The BenchmarkMain class starts the JMH benchmarks of the simulator. It takes the usual JMH
+ * command line, but unless a result format is given it writes the results as JSON to
+ * jmh-result.json, so runs can be kept and compared. For example:
+ * <pre>
+ *   java -jar jmh/target/benchmarks.jar BuildingStep -p elevators=1000
+ * </pre>
+ */
+public class BenchmarkMain {
+
+  /**
+   * The entry point of the benchmarks.
+   *
+   * @param args the JMH command line
+   * @throws Exception if the benchmarks cannot be run
+   */
+  public static void main(String[] args) throws Exception {
+    List<String> arguments = new ArrayList<>(Arrays.asList(args));
+    if (!arguments.contains("-rf")) {
+      arguments.addAll(0, Arrays.asList("-rf", "json"));
+      if (!arguments.contains("-rff")) {
+        arguments.addAll(2, Arrays.asList("-rff", "jmh-result.json"));
+      }
+    }
+    Main.main(arguments.toArray(new String[0]));
+  }
+}
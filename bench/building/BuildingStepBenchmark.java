@@ -0,0 +1,80 @@
+package building;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * A JMH benchmark of Building.stepElevatorSystem() for several fleet sizes and backlogs.
+ * <p>
+ * Before every step the waiting requests are topped up to the backlog from a fixed pool of
+ * random requests, so the building stays under the same load for the whole run. A backlog of
+ * 0 adds nothing, and measures an idle fleet.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildingStepBenchmark {
+
+  private static final int FLOORS = 30;
+  private static final int CAPACITY = 10;
+  private static final int POOL = 1 << 16;
+
+  @Param({"10", "100", "1000", "10000"})
+  public int elevators;
+
+  @Param({"0", "1000", "100000"})
+  public int backlog;
+
+  @Param({"terminal", "collective"})
+  public String dispatch;
+
+  private Building building;
+  private final Request[] pool = new Request[POOL];
+  private int next;
+
+  /**
+   * Build and start the building, and run it under load until the elevators are spread over
+   * the floors.
+   */
+  @Setup
+  public void setUp() {
+    building = new Building(FLOORS, elevators, CAPACITY,
+        dispatch.equals("collective") ? new CollectiveDispatch() : new TerminalDispatch());
+    SplittableRandom random = new SplittableRandom(1);
+    for (int i = 0; i < POOL; i++) {
+      int start = random.nextInt(FLOORS);
+      int end = (start + 1 + random.nextInt(FLOORS - 1)) % FLOORS;
+      pool[i] = Request.of(start, end);
+    }
+    building.startElevatorSystem();
+    for (int tick = 0; tick < 200; tick++) {
+      step();
+    }
+  }
+
+  @Benchmark
+  public long step() {
+    int waiting = building.getNumUpRequests() + building.getNumDownRequests();
+    for (; waiting < backlog; waiting++) {
+      building.addRequest(pool[next++ & (POOL - 1)]);
+    }
+    building.stepElevatorSystem();
+    return building.getStateVersion();
+  }
+}
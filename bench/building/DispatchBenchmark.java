@@ -0,0 +1,81 @@
+package building;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * A JMH benchmark that compares dispatch strategies under identical load.
+ * <p>
+ * Every invocation takes a fresh building, feeds it the same seeded stream of requests for a
+ * number of steps, and then runs it until every request is served. It returns the number of
+ * steps that took, which is the same for every invocation of a strategy, so the time covers
+ * both how fast a strategy dispatches and how many steps it needs.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+  private static final int FLOORS = 20;
+  private static final int CAPACITY = 10;
+  private static final int STEPS = 5000;
+
+  @Param({"4", "64"})
+  public int elevators;
+
+  @Param({"terminal", "collective"})
+  public String dispatch;
+
+  /**
+   * The requests added before every loaded step, in order.
+   */
+  private Request[][] arrivals;
+
+  /**
+   * Draw the seeded requests once, so every invocation sees the same load.
+   */
+  @Setup
+  public void setUp() {
+    SplittableRandom random = new SplittableRandom(1);
+    arrivals = new Request[STEPS][];
+    for (int tick = 0; tick < STEPS; tick++) {
+      // The load grows with the fleet.
+      Request[] step = new Request[random.nextInt(elevators / 4 + 2)];
+      for (int i = 0; i < step.length; i++) {
+        int start = random.nextInt(FLOORS);
+        step[i] = Request.of(start, (start + 1 + random.nextInt(FLOORS - 1)) % FLOORS);
+      }
+      arrivals[tick] = step;
+    }
+  }
+
+  @Benchmark
+  public long serveWorkload() {
+    Building building = new Building(FLOORS, elevators, CAPACITY,
+        dispatch.equals("collective") ? new CollectiveDispatch() : new TerminalDispatch());
+    building.startElevatorSystem();
+    for (Request[] step : arrivals) {
+      for (Request request : step) {
+        building.addRequest(request);
+      }
+      building.stepElevatorSystem();
+    }
+    return STEPS + building.runUntil(BuildingInterface::allRequestsServed, Long.MAX_VALUE);
+  }
+}
@@ -0,0 +1,129 @@
+package building;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * A JMH benchmark of Building.distributeRequests() under deep queues.
+ * <p>
+ * The building runs under a light load until its elevators are spread over the floors, then
+ * the queues are filled to exactly the depth and the building is checkpointed. Before every
+ * iteration a batch of buildings is restored from the checkpoint, outside of the measurement,
+ * and the iteration hands out requests once in each of them, so every dispatch sees the same
+ * queues and the same elevators. The score is the time of a whole batch of BATCH dispatches.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = DistributeRequestsBenchmark.BATCH)
+@Measurement(iterations = 20, batchSize = DistributeRequestsBenchmark.BATCH)
+@Fork(1)
+public class DistributeRequestsBenchmark {
+
+  /**
+   * The number of dispatches timed together, one per restored building.
+   */
+  static final int BATCH = 16;
+
+  private static final int FLOORS = 30;
+  private static final int CAPACITY = 10;
+
+  @Param({"16", "1024"})
+  public int elevators;
+
+  @Param({"1000", "100000"})
+  public int depth;
+
+  @Param({"terminal", "collective"})
+  public String dispatch;
+
+  private byte[] checkpoint;
+  private final Building[] buildings = new Building[BATCH];
+  private int next;
+
+  private DispatchStrategy newStrategy() {
+    return dispatch.equals("collective") ? new CollectiveDispatch() : new TerminalDispatch();
+  }
+
+  /**
+   * Run the building for a while, fill the queues to the depth and checkpoint it.
+   *
+   * @throws IOException if the checkpoint cannot be written.
+   */
+  @Setup(Level.Trial)
+  public void setUpTrial() throws IOException {
+    Building loaded = new Building(FLOORS, elevators, CAPACITY, newStrategy());
+    SplittableRandom random = new SplittableRandom(1);
+    loaded.startElevatorSystem();
+    // Keep the queues below the depth while warming up, so the fill sets the depth alone.
+    int backlog = Math.min(depth, elevators);
+    for (int tick = 0; tick < 200; tick++) {
+      while (waiting(loaded) < backlog) {
+        loaded.addRequest(randomRequest(random));
+      }
+      loaded.stepElevatorSystem();
+    }
+    while (waiting(loaded) < depth) {
+      loaded.addRequest(randomRequest(random));
+    }
+    if (waiting(loaded) != depth) {
+      throw new IllegalStateException("The queues hold " + waiting(loaded)
+          + " requests instead of " + depth + ".");
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      loaded.writeCheckpoint(out);
+    }
+    checkpoint = bytes.toByteArray();
+  }
+
+  private static int waiting(Building building) {
+    return building.getNumUpRequests() + building.getNumDownRequests();
+  }
+
+  private static Request randomRequest(SplittableRandom random) {
+    int start = random.nextInt(FLOORS);
+    return Request.of(start, (start + 1 + random.nextInt(FLOORS - 1)) % FLOORS);
+  }
+
+  /**
+   * Restore a batch of loaded buildings, one for every dispatch of the iteration.
+   *
+   * @throws IOException if the checkpoint cannot be read.
+   */
+  @Setup(Level.Iteration)
+  public void setUpIteration() throws IOException {
+    for (int i = 0; i < BATCH; i++) {
+      buildings[i] = Building.readCheckpoint(
+          new DataInputStream(new ByteArrayInputStream(checkpoint)), newStrategy());
+    }
+    next = 0;
+  }
+
+  @Benchmark
+  public long distributeRequests() {
+    Building building = buildings[next++];
+    building.distributeRequests();
+    return building.getRequestsDistributed();
+  }
+}
@@ -0,0 +1,79 @@
+package building;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * A JMH benchmark of Building.getElevatorSystemStatus().
+ * <p>
+ * cached asks for the report again without a step in between, which returns the cached report.
+ * afterStep steps a building under light load and then builds the report, and step steps it
+ * alone, to subtract from afterStep.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElevatorSystemStatusBenchmark {
+
+  private static final int FLOORS = 30;
+  private static final int POOL = 1 << 12;
+
+  @Param({"10", "1000"})
+  public int elevators;
+
+  private Building building;
+  private final Request[] pool = new Request[POOL];
+  private int next;
+
+  /**
+   * Build and start the building, and run it until the elevators are spread over the floors.
+   */
+  @Setup
+  public void setUp() {
+    building = new Building(FLOORS, elevators, 10);
+    SplittableRandom random = new SplittableRandom(1);
+    for (int i = 0; i < POOL; i++) {
+      int start = random.nextInt(FLOORS);
+      pool[i] = Request.of(start, (start + 1 + random.nextInt(FLOORS - 1)) % FLOORS);
+    }
+    building.startElevatorSystem();
+    for (int tick = 0; tick < 200; tick++) {
+      step();
+    }
+    building.getElevatorSystemStatus();
+  }
+
+  @Benchmark
+  public BuildingReport cached() {
+    return building.getElevatorSystemStatus();
+  }
+
+  @Benchmark
+  public long step() {
+    building.addRequest(pool[next++ & (POOL - 1)]);
+    building.stepElevatorSystem();
+    return building.getStateVersion();
+  }
+
+  @Benchmark
+  public BuildingReport afterStep() {
+    step();
+    return building.getElevatorSystemStatus();
+  }
+}
@@ -0,0 +1,81 @@
+package building;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * A JMH benchmark that compares sequential and fork-join stepping of a single building.
+ * <p>
+ * Every tenth step adds a request for every elevator, so the fleet stays busy. A grain of 0
+ * steps sequentially, any other grain steps on the common pool with pieces of at most that
+ * many elevators. Comparing the grains for each fleet size shows where parallel stepping starts
+ * to pay off. A fleet no larger than the grain is stepped sequentially either way.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelStepBenchmark {
+
+  private static final int FLOORS = 30;
+  private static final int CAPACITY = 10;
+  private static final int POOL = 1 << 16;
+
+  @Param({"64", "1024", "16384"})
+  public int elevators;
+
+  @Param({"0", "64", "1024"})
+  public int grain;
+
+  private Building building;
+  private final Request[] pool = new Request[POOL];
+  private int next;
+  private int steps;
+
+  /**
+   * Build and start the building, and run it under load until the elevators are spread over
+   * the floors.
+   */
+  @Setup
+  public void setUp() {
+    building = new Building(FLOORS, elevators, CAPACITY);
+    if (grain > 0) {
+      building.setParallelStepping(ForkJoinPool.commonPool(), grain);
+    }
+    SplittableRandom random = new SplittableRandom(1);
+    for (int i = 0; i < POOL; i++) {
+      pool[i] = Request.of(random.nextInt(FLOORS), random.nextInt(FLOORS));
+    }
+    building.startElevatorSystem();
+    for (int tick = 0; tick < 200; tick++) {
+      step();
+    }
+  }
+
+  @Benchmark
+  public long step() {
+    if (steps++ % 10 == 0) {
+      for (int i = 0; i < elevators; i++) {
+        building.addRequest(pool[next++ & (POOL - 1)]);
+      }
+    }
+    building.stepElevatorSystem();
+    return building.getStateVersion();
+  }
+}
@@ -0,0 +1,78 @@
+package elevator;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A JMH benchmark of ElevatorReport.toString(), equals() and hashCode(), over reports of
+ * elevators taken at random points of a run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElevatorReportBenchmark {
+
+  private static final int REPORTS = 64;
+
+  private final ElevatorReport[] reports = new ElevatorReport[REPORTS];
+  private final ElevatorReport[] copies = new ElevatorReport[REPORTS];
+  private int next;
+
+  /**
+   * Take the reports of elevators stepped for a random number of steps, and an equal copy of
+   * every report.
+   */
+  @Setup
+  public void setUp() {
+    SplittableRandom random = new SplittableRandom(1);
+    for (int i = 0; i < REPORTS; i++) {
+      Elevator elevator = new Elevator(i, 20, 10);
+      elevator.start();
+      for (int steps = random.nextInt(60); steps > 0; steps--) {
+        elevator.step();
+      }
+      reports[i] = elevator.getElevatorStatus();
+      copies[i] = new ElevatorReport(i, reports[i].getPackedStatus());
+    }
+  }
+
+  private int nextIndex() {
+    next = (next + 1) & (REPORTS - 1);
+    return next;
+  }
+
+  @Benchmark
+  public String toStringReport() {
+    return reports[nextIndex()].toString();
+  }
+
+  @Benchmark
+  public boolean equalsEqual() {
+    int i = nextIndex();
+    return reports[i].equals(copies[i]);
+  }
+
+  @Benchmark
+  public boolean equalsDifferent() {
+    int i = nextIndex();
+    return reports[i].equals(reports[(i + 1) & (REPORTS - 1)]);
+  }
+
+  @Benchmark
+  public int hashCodeReport() {
+    return reports[nextIndex()].hashCode();
+  }
+}
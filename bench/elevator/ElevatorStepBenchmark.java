@@ -0,0 +1,94 @@
+package elevator;
+
+import building.enums.Direction;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A JMH benchmark of Elevator.step() in each of its branches.
+ * <p>
+ * Every invocation puts the elevator back into the state of the branch with restoreStatus()
+ * and steps it once, so every step takes the same branch. restore measures putting the state
+ * back alone, to subtract from step.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElevatorStepBenchmark {
+
+  private static final int FLOORS = 20;
+
+  /**
+   * The branch of step() taken: moving between floors, arriving at a requested floor, counting
+   * down the open door, waiting at the bottom, turning around at the top, or going down out of
+   * service.
+   */
+  @Param({"moving", "arriving", "doorOpen", "endWait", "turning", "outOfService"})
+  public String branch;
+
+  private Elevator elevator;
+  private long status;
+
+  /**
+   * Create the elevator and the status of the branch.
+   */
+  @Setup
+  public void setUp() {
+    elevator = new Elevator(0, FLOORS, 10);
+    switch (branch) {
+      case "moving":
+        status = PackedElevatorStatus.pack(5, Direction.UP, true, 1 << 12, FLOORS, 0, 0,
+            false, false);
+        break;
+      case "arriving":
+        status = PackedElevatorStatus.pack(12, Direction.UP, true, 1 << 12 | 1 << 15, FLOORS,
+            0, 0, false, false);
+        break;
+      case "doorOpen":
+        status = PackedElevatorStatus.pack(12, Direction.UP, false, 1 << 15, FLOORS, 2, 0,
+            false, false);
+        break;
+      case "endWait":
+        status = PackedElevatorStatus.pack(0, Direction.STOPPED, true, 0, FLOORS, 0, 3,
+            false, true);
+        break;
+      case "turning":
+        status = PackedElevatorStatus.pack(FLOORS - 1, Direction.UP, true, 0, FLOORS, 0, 0,
+            false, false);
+        break;
+      case "outOfService":
+        status = PackedElevatorStatus.pack(8, Direction.DOWN, true, 0, FLOORS, 0, 0,
+            true, false);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown branch: " + branch);
+    }
+  }
+
+  @Benchmark
+  public long step() {
+    elevator.restoreStatus(status, 0);
+    elevator.step();
+    return elevator.getPackedStatus();
+  }
+
+  @Benchmark
+  public long restore() {
+    elevator.restoreStatus(status, 0);
+    return elevator.getPackedStatus();
+  }
+}
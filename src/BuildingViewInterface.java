@@ -1,8 +1,5 @@
-import building.BuildingReport;
 import elevator.ElevatorReport;
 import java.awt.event.ActionListener;
-import java.util.List;
-import scanerzus.Request;
 
 /**
  * This interface is used to represent a building view. A building view can update the
@@ -24,14 +21,14 @@ public interface BuildingViewInterface {
   void updateBuildingInfo(int numFloors, int numElevators, int elevatorCapacity, String string);
 
   /**
-   * Update the elevator grid display with the given building report, number of floors,
+   * Update the elevator grid display with the given elevator reports, number of floors,
    * and number of elevators.
    *
-   * @param elevatorSystemStatus the building report that contains the elevator system status.
-   * @param numFloors            the number of floors in the building.
-   * @param numElevators         the number of elevators in the building.
+   * @param elevatorReports the elevator reports.
+   * @param numFloors       the number of floors in the building.
+   * @param numElevators    the number of elevators in the building.
    */
-  void updateElevatorGrid(BuildingReport elevatorSystemStatus, int numFloors, int numElevators);
+  void updateElevatorGrid(ElevatorReport[] elevatorReports, int numFloors, int numElevators);
 
   /**
    * Update the elevator reports display with the given elevator reports.
@@ -41,12 +38,12 @@ public interface BuildingViewInterface {
   void updateElevatorReports(ElevatorReport[] elevatorReports);
 
   /**
-   * Update the request size display with the given up requests and down requests.
+   * Update the request size display with the given number of up and down requests.
    *
-   * @param upRequests   the up requests.
-   * @param downRequests the down requests.
+   * @param numUpRequests   the number of up requests.
+   * @param numDownRequests the number of down requests.
    */
-  void updateRequestSizeDisplay(List<Request> upRequests, List<Request> downRequests);
+  void updateRequestSizeDisplay(int numUpRequests, int numDownRequests);
 
   /**
    * Update the prompt message label with the message.
@@ -69,6 +66,13 @@ public interface BuildingViewInterface {
    */
   String getEndFloorInput();
 
+  /**
+   * Get the tick rate input, in ticks per second with 0 for as fast as possible.
+   *
+   * @return the tick rate input.
+   */
+  String getTickRateInput();
+
   /**
    * Clear the request fields.
    */
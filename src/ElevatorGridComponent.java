@@ -0,0 +1,284 @@
+import elevator.ElevatorReport;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.MouseWheelEvent;
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+/**
+ * The ElevatorGridComponent draws the elevators of the building as a grid, one column per
+ * elevator and one row per floor with the ground floor at the bottom.
+ * <p></p>
+ * The whole grid is a single component that paints its cells itself, so a large fleet does not
+ * need a component per cell. Only the cells inside the clip are painted, and an update only
+ * repaints the cells of the elevators that changed floor. Put in a scroll pane, the grid fills
+ * the viewport while it fits and scrolls a cell at a time when it does not. Holding Ctrl (or
+ * Command) while turning the mouse wheel zooms around the mouse pointer.
+ */
+public class ElevatorGridComponent extends JComponent implements Scrollable {
+
+  /**
+   * JComponent is Serializable, although the grid is never serialized.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private static final int BASE_CELL_WIDTH = 24;
+  private static final int BASE_CELL_HEIGHT = 18;
+  private static final double MIN_ZOOM = 0.25;
+  private static final double MAX_ZOOM = 4.0;
+  private static final double ZOOM_STEP = 1.25;
+
+  private static final Color EMPTY_COLOR = Color.WHITE;
+  private static final Color ELEVATOR_COLOR = Color.DARK_GRAY;
+  private static final Color LINE_COLOR = Color.LIGHT_GRAY;
+
+  private int numFloors;
+  private int numElevators;
+  private double zoom;
+
+  /**
+   * The floor every elevator was drawn on, by elevator.
+   */
+  private int[] elevatorFloors;
+
+  /**
+   * Construct an ElevatorGridComponent for a building with every elevator on the ground floor.
+   *
+   * @param numFloors    the number of floors in the building
+   * @param numElevators the number of elevators in the building
+   */
+  public ElevatorGridComponent(int numFloors, int numElevators) {
+    this.zoom = 1.0;
+    setOpaque(true);
+    setBuildingSize(numFloors, numElevators);
+    addMouseWheelListener(this::mouseWheelMoved);
+  }
+
+  /**
+   * Start over with a building of the given size, with every elevator on the ground floor.
+   *
+   * @param numFloors    the number of floors in the building
+   * @param numElevators the number of elevators in the building
+   */
+  public void setBuildingSize(int numFloors, int numElevators) {
+    this.numFloors = numFloors;
+    this.numElevators = numElevators;
+    this.elevatorFloors = new int[numElevators];
+    revalidate();
+    repaint();
+  }
+
+  /**
+   * Move the elevators to the floors in their reports, repainting only the cells of the
+   * elevators that changed floor.
+   *
+   * @param reports the reports of the elevators, one per elevator
+   */
+  public void updateElevators(ElevatorReport[] reports) {
+    int count = Math.min(reports.length, numElevators);
+    for (int elevator = 0; elevator < count; elevator++) {
+      int floor = reports[elevator].getCurrentFloor();
+      int previous = elevatorFloors[elevator];
+      if (floor != previous) {
+        elevatorFloors[elevator] = floor;
+        repaintCell(elevator, previous);
+        repaintCell(elevator, floor);
+      }
+    }
+  }
+
+  /**
+   * Returns the zoom factor of the grid.
+   *
+   * @return the zoom factor, 1 for the normal cell size
+   */
+  public double getZoom() {
+    return zoom;
+  }
+
+  /**
+   * Set the zoom factor of the grid, keeping it between 0.25 and 4.
+   *
+   * @param zoom the zoom factor, 1 for the normal cell size
+   */
+  public void setZoom(double zoom) {
+    double clamped = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+    if (clamped != this.zoom) {
+      this.zoom = clamped;
+      revalidate();
+      repaint();
+    }
+  }
+
+  /**
+   * Make the cells larger by one zoom step.
+   */
+  public void zoomIn() {
+    setZoom(zoom * ZOOM_STEP);
+  }
+
+  /**
+   * Make the cells smaller by one zoom step.
+   */
+  public void zoomOut() {
+    setZoom(zoom / ZOOM_STEP);
+  }
+
+  /**
+   * Zoom around the mouse pointer when Ctrl or Command is held, and otherwise hand the event
+   * to the scroll pane so the wheel still scrolls.
+   *
+   * @param e the mouse wheel event
+   */
+  private void mouseWheelMoved(MouseWheelEvent e) {
+    if (!e.isControlDown() && !e.isMetaDown()) {
+      if (getParent() != null) {
+        getParent().dispatchEvent(SwingUtilities.convertMouseEvent(this, e, getParent()));
+      }
+      return;
+    }
+
+    int oldWidth = getCellWidth();
+    int oldHeight = getCellHeight();
+    if (e.getWheelRotation() < 0) {
+      zoomIn();
+    } else {
+      zoomOut();
+    }
+    if (!(getParent() instanceof JViewport)) {
+      return;
+    }
+
+    // Keep the cell under the mouse pointer where it was.
+    JViewport viewport = (JViewport) getParent();
+    viewport.validate();
+    Point view = viewport.getViewPosition();
+    Point mouse = e.getPoint();
+    int x = mouse.x * getCellWidth() / oldWidth - (mouse.x - view.x);
+    int y = mouse.y * getCellHeight() / oldHeight - (mouse.y - view.y);
+    Dimension extent = viewport.getExtentSize();
+    x = Math.max(0, Math.min(x, getWidth() - extent.width));
+    y = Math.max(0, Math.min(y, getHeight() - extent.height));
+    viewport.setViewPosition(new Point(x, y));
+  }
+
+  /**
+   * Returns the width of a cell, which stretches to fill the width of the component.
+   *
+   * @return the width of a cell in pixels
+   */
+  private int getCellWidth() {
+    int scaled = Math.max(1, (int) Math.round(BASE_CELL_WIDTH * zoom));
+    return Math.max(scaled, getWidth() / Math.max(1, numElevators));
+  }
+
+  /**
+   * Returns the height of a cell, which stretches to fill the height of the component.
+   *
+   * @return the height of a cell in pixels
+   */
+  private int getCellHeight() {
+    int scaled = Math.max(1, (int) Math.round(BASE_CELL_HEIGHT * zoom));
+    return Math.max(scaled, getHeight() / Math.max(1, numFloors));
+  }
+
+  /**
+   * Repaint the cell of an elevator on a floor.
+   *
+   * @param elevator the elevator
+   * @param floor    the floor
+   */
+  private void repaintCell(int elevator, int floor) {
+    int width = getCellWidth();
+    int height = getCellHeight();
+    repaint(elevator * width, (numFloors - floor - 1) * height, width + 1, height + 1);
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    if (isPreferredSizeSet()) {
+      return super.getPreferredSize();
+    }
+    return new Dimension(
+        numElevators * Math.max(1, (int) Math.round(BASE_CELL_WIDTH * zoom)) + 1,
+        numFloors * Math.max(1, (int) Math.round(BASE_CELL_HEIGHT * zoom)) + 1);
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    g.setColor(EMPTY_COLOR);
+    g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+    int width = getCellWidth();
+    int height = getCellHeight();
+    int firstColumn = Math.max(0, clip.x / width);
+    int lastColumn = Math.min(numElevators - 1, (clip.x + clip.width) / width);
+    int firstRow = Math.max(0, clip.y / height);
+    int lastRow = Math.min(numFloors - 1, (clip.y + clip.height) / height);
+    if (firstColumn > lastColumn || firstRow > lastRow) {
+      return;
+    }
+
+    // Draw the elevators in the clip, then the grid lines over them.
+    g.setColor(ELEVATOR_COLOR);
+    for (int elevator = firstColumn; elevator <= lastColumn; elevator++) {
+      int row = numFloors - elevatorFloors[elevator] - 1;
+      if (row >= firstRow && row <= lastRow) {
+        g.fillRect(elevator * width, row * height, width, height);
+      }
+    }
+
+    g.setColor(LINE_COLOR);
+    int top = firstRow * height;
+    int bottom = (lastRow + 1) * height;
+    for (int elevator = firstColumn; elevator <= lastColumn + 1; elevator++) {
+      g.drawLine(elevator * width, top, elevator * width, bottom);
+    }
+    int left = firstColumn * width;
+    int right = (lastColumn + 1) * width;
+    for (int row = firstRow; row <= lastRow + 1; row++) {
+      g.drawLine(left, row * height, right, row * height);
+    }
+  }
+
+  @Override
+  public Dimension getPreferredScrollableViewportSize() {
+    return getPreferredSize();
+  }
+
+  @Override
+  public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+    return orientation == SwingConstants.VERTICAL ? getCellHeight() : getCellWidth();
+  }
+
+  @Override
+  public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation,
+      int direction) {
+    if (orientation == SwingConstants.VERTICAL) {
+      return Math.max(getCellHeight(), visibleRect.height - getCellHeight());
+    }
+    return Math.max(getCellWidth(), visibleRect.width - getCellWidth());
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportWidth() {
+    return getParent() instanceof JViewport
+        && getParent().getWidth() > getPreferredSize().width;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportHeight() {
+    return getParent() instanceof JViewport
+        && getParent().getHeight() > getPreferredSize().height;
+  }
+}
@@ -0,0 +1,196 @@
+import building.Building;
+import building.BuildingInterface;
+import building.BuildingReport;
+import building.CollectiveDispatch;
+import building.ElevatorBankBuilding;
+import building.TerminalDispatch;
+import building.TrafficGenerator;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import scanerzus.Request;
+
+/**
+ * The HeadlessRunner class runs a building without a user interface, for batch runs on
+ * machines without a display.
+ * <p></p>
+ * It builds the building described by a {@link Scenario}, feeds it random requests, uniform
+ * or from a {@link TrafficGenerator}, while stepping it as fast as it can, and prints summary
+ * statistics, one "name: value" per line.
+ * No Swing class is used, so none is loaded. For example:
+ * <pre>
+ *   java -cp out HeadlessRunner --floors=30 --elevators=100 --capacity=10 --ticks=1000000
+ * </pre>
+ */
+public class HeadlessRunner {
+
+  private long requestsGenerated;
+  private long requestsAccepted;
+  private final List<Request> batch = new ArrayList<>();
+
+  /**
+   * The entry point of the headless runner.
+   *
+   * @param args the scenario parameters, see Scenario
+   */
+  public static void main(String[] args) {
+    Scenario scenario;
+    BuildingInterface model;
+    TrafficGenerator traffic = null;
+    long setupStart = System.nanoTime();
+    try {
+      scenario = Scenario.parse(args);
+      model = buildModel(scenario);
+      if (scenario.getTrafficPattern() != null) {
+        traffic = new TrafficGenerator(scenario.getFloors(), scenario.getTrafficPattern(),
+            scenario.getRate(), scenario.getSeed());
+      }
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println("Usage: java HeadlessRunner [--scenario=file] [--floors=N] "
+          + "[--elevators=N] [--capacity=N] [--model=building|bank] "
+          + "[--dispatch=terminal|collective] [--ticks=N] [--warmup=N] [--rate=R] "
+          + "[--traffic=uniform|up-peak|down-peak|lunch|inter-floor] [--seed=N]");
+      System.exit(2);
+      return;
+    }
+    new HeadlessRunner().run(scenario, model, traffic, setupStart);
+  }
+
+  /**
+   * Build the building of a scenario.
+   *
+   * @param scenario the scenario
+   * @return the building
+   * @throws IllegalArgumentException if the building cannot be built with those parameters
+   */
+  private static BuildingInterface buildModel(Scenario scenario)
+      throws IllegalArgumentException {
+    if (scenario.getModel().equals("bank")) {
+      return new ElevatorBankBuilding(scenario.getFloors(), scenario.getElevators(),
+          scenario.getCapacity());
+    }
+    return new Building(scenario.getFloors(), scenario.getElevators(), scenario.getCapacity(),
+        scenario.getDispatch().equals("collective") ? new CollectiveDispatch()
+            : new TerminalDispatch());
+  }
+
+  /**
+   * Step the building, adding the requests that arrive before every step. The number of
+   * requests per step is the whole part of the rate, plus one more with the probability of
+   * the fraction. Both floors are drawn uniformly, and are never the same.
+   *
+   * @param model  the building
+   * @param random the request source
+   * @param rate   the mean number of requests per step
+   * @param ticks  the number of steps
+   */
+  private void runTicks(BuildingInterface model, Random random, double rate, long ticks) {
+    int floors = model.getNumFloors();
+    int whole = (int) rate;
+    double fraction = rate - whole;
+    for (long tick = 0; tick < ticks; tick++) {
+      int arrivals = whole + (random.nextDouble() < fraction ? 1 : 0);
+      for (int i = 0; i < arrivals; i++) {
+        int start = random.nextInt(floors);
+        int end = (start + 1 + random.nextInt(floors - 1)) % floors;
+        requestsGenerated++;
+        if (model.addRequest(Request.of(start, end))) {
+          requestsAccepted++;
+        }
+      }
+      model.stepElevatorSystem();
+    }
+  }
+
+  /**
+   * Step the building, adding the requests the traffic generator makes for every step.
+   *
+   * @param model   the building
+   * @param traffic the request source
+   * @param ticks   the number of steps
+   */
+  private void runTicks(BuildingInterface model, TrafficGenerator traffic, long ticks) {
+    for (long tick = 0; tick < ticks; tick++) {
+      batch.clear();
+      requestsGenerated += traffic.nextTick(batch);
+      for (int i = 0; i < batch.size(); i++) {
+        if (model.addRequest(batch.get(i))) {
+          requestsAccepted++;
+        }
+      }
+      model.stepElevatorSystem();
+    }
+  }
+
+  /**
+   * Run a scenario and print its statistics.
+   *
+   * @param scenario   the scenario
+   * @param model      the building of the scenario
+   * @param traffic    the traffic generator, or null for uniform requests
+   * @param setupStart the time the scenario started being read, from System.nanoTime()
+   */
+  private void run(Scenario scenario, BuildingInterface model, TrafficGenerator traffic,
+                   long setupStart) {
+    model.startElevatorSystem();
+    Random random = new Random(scenario.getSeed());
+    long runStart = System.nanoTime();
+    long firstTickMillis = System.currentTimeMillis();
+
+    long steadyTicks = scenario.getTicks() - scenario.getWarmup();
+    long steadyStart;
+    if (traffic == null) {
+      runTicks(model, random, scenario.getRate(), scenario.getWarmup());
+      steadyStart = System.nanoTime();
+      runTicks(model, random, scenario.getRate(), steadyTicks);
+    } else {
+      runTicks(model, traffic, scenario.getWarmup());
+      steadyStart = System.nanoTime();
+      runTicks(model, traffic, steadyTicks);
+    }
+    long runEnd = System.nanoTime();
+
+    // Asked for last, so loading the management classes is not part of the measurement.
+    long startupMillis = firstTickMillis - ManagementFactory.getRuntimeMXBean().getStartTime();
+    BuildingReport report = model.getElevatorSystemStatus();
+    long waiting = report.getUpRequests().size() + report.getDownRequests().size();
+
+    System.out.println("scenario: " + scenario);
+    System.out.println("startup ms: " + startupMillis);
+    System.out.println("setup ms: " + format((runStart - setupStart) / 1e6));
+    System.out.println("run ms: " + format((runEnd - runStart) / 1e6));
+    System.out.println("ticks: " + scenario.getTicks());
+    System.out.println("ticks per second: "
+        + format(perSecond(scenario.getTicks(), runEnd - runStart)));
+    System.out.println("steady ticks per second: "
+        + format(perSecond(steadyTicks, runEnd - steadyStart)));
+    System.out.println("requests generated: " + requestsGenerated);
+    System.out.println("requests accepted: " + requestsAccepted);
+    System.out.println("requests dispatched: " + (requestsAccepted - waiting));
+    System.out.println("requests waiting: " + waiting);
+    System.out.println("system status: " + report.getSystemStatus());
+  }
+
+  /**
+   * Returns a rate per second.
+   *
+   * @param count the number of things
+   * @param nanos the time they took
+   * @return the number per second, or 0 if no time passed
+   */
+  private static double perSecond(long count, long nanos) {
+    return nanos <= 0 ? 0 : count * 1e9 / nanos;
+  }
+
+  /**
+   * Format a number with one decimal.
+   *
+   * @param value the number
+   * @return the formatted number
+   */
+  private static String format(double value) {
+    return String.format("%.1f", value);
+  }
+}
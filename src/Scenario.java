@@ -0,0 +1,283 @@
+import building.enums.TrafficPattern;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * The Scenario class holds the parameters of a headless simulation run: the size of the
+ * building, how it dispatches, how many requests arrive and for how long it runs.
+ * <p></p>
+ * Parameters come from a scenario file in properties format, from the command line, or both,
+ * the command line winning. On the command line every parameter is written as --name=value or
+ * --name value, and --scenario names the file. The parameters are:
+ * <ul>
+ *   <li>floors, elevators, capacity: the size of the building, 8, 4 and 3 by default.</li>
+ *   <li>model: building for a {@link building.Building}, bank for a
+ *       {@link building.ElevatorBankBuilding}. The default is building.</li>
+ *   <li>dispatch: terminal or collective, the dispatch strategy of a building. The bank model
+ *       has no dispatch strategy and always dispatches at the terminals, so it only takes
+ *       terminal.</li>
+ *   <li>ticks: the number of steps to run, 100000 by default.</li>
+ *   <li>warmup: the number of steps before the steady state is measured, a tenth of the
+ *       steps by default.</li>
+ *   <li>rate: the mean number of requests arriving per step, 0.5 by default.</li>
+ *   <li>traffic: uniform for requests between any two floors, or a {@link TrafficPattern},
+ *       up-peak, down-peak, lunch or inter-floor, for Poisson arrivals from a
+ *       {@link building.TrafficGenerator}. The default is uniform.</li>
+ *   <li>seed: the seed of the request source.</li>
+ * </ul>
+ */
+public class Scenario {
+
+  private int floors = 8;
+  private int elevators = 4;
+  private int capacity = 3;
+  private String model = "building";
+  private String dispatch = "terminal";
+  private long ticks = 100_000;
+  private long warmup = -1;
+  private double rate = 0.5;
+  private String traffic = "uniform";
+  private long seed = 1;
+
+  /**
+   * Read a scenario from command line arguments, loading the scenario file first if one is
+   * named.
+   *
+   * @param args the command line arguments
+   * @return the scenario
+   * @throws IllegalArgumentException if an argument or the scenario file is not valid
+   */
+  public static Scenario parse(String[] args) throws IllegalArgumentException {
+    Properties arguments = new Properties();
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if (!arg.startsWith("--") || arg.length() == 2) {
+        throw new IllegalArgumentException("Unexpected argument: " + arg);
+      }
+      int equals = arg.indexOf('=');
+      if (equals >= 0) {
+        arguments.setProperty(arg.substring(2, equals), arg.substring(equals + 1));
+      } else if (i + 1 < args.length) {
+        arguments.setProperty(arg.substring(2), args[++i]);
+      } else {
+        throw new IllegalArgumentException("Missing value for " + arg);
+      }
+    }
+
+    Scenario scenario = new Scenario();
+    String file = arguments.getProperty("scenario");
+    if (file != null) {
+      arguments.remove("scenario");
+      Properties fromFile = new Properties();
+      try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+        fromFile.load(reader);
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Cannot read scenario file " + file + ": "
+            + e.getMessage());
+      }
+      scenario.apply(fromFile);
+    }
+    scenario.apply(arguments);
+    scenario.validate();
+    return scenario;
+  }
+
+  /**
+   * Take the parameters set in a set of properties.
+   *
+   * @param properties the parameters by name
+   * @throws IllegalArgumentException if a parameter is unknown or not a number
+   */
+  private void apply(Properties properties) throws IllegalArgumentException {
+    for (String name : properties.stringPropertyNames()) {
+      String value = properties.getProperty(name).trim();
+      try {
+        switch (name) {
+          case "floors":
+            floors = Integer.parseInt(value);
+            break;
+          case "elevators":
+            elevators = Integer.parseInt(value);
+            break;
+          case "capacity":
+            capacity = Integer.parseInt(value);
+            break;
+          case "model":
+            model = value;
+            break;
+          case "dispatch":
+            dispatch = value;
+            break;
+          case "ticks":
+            ticks = Long.parseLong(value);
+            break;
+          case "warmup":
+            warmup = Long.parseLong(value);
+            break;
+          case "rate":
+            rate = Double.parseDouble(value);
+            break;
+          case "traffic":
+            traffic = value;
+            break;
+          case "seed":
+            seed = Long.parseLong(value);
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown parameter: " + name);
+        }
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Parameter " + name + " must be a number: " + value);
+      }
+    }
+  }
+
+  /**
+   * Check the parameters that the building does not check itself.
+   *
+   * @throws IllegalArgumentException if a parameter is out of range
+   */
+  private void validate() throws IllegalArgumentException {
+    if (!model.equals("building") && !model.equals("bank")) {
+      throw new IllegalArgumentException("The model must be building or bank.");
+    }
+    if (!dispatch.equals("terminal") && !dispatch.equals("collective")) {
+      throw new IllegalArgumentException("The dispatch must be terminal or collective.");
+    }
+    if (model.equals("bank") && dispatch.equals("collective")) {
+      throw new IllegalArgumentException("The bank model only dispatches at the terminals, "
+          + "use --model=building for collective dispatch.");
+    }
+    if (ticks < 0) {
+      throw new IllegalArgumentException("The number of ticks cannot be negative.");
+    }
+    if (warmup < 0) {
+      warmup = ticks / 10;
+    }
+    if (warmup > ticks) {
+      throw new IllegalArgumentException("The warmup cannot be longer than the run.");
+    }
+    if (!traffic.equals("uniform") && getTrafficPattern() == null) {
+      throw new IllegalArgumentException("The traffic must be uniform, up-peak, down-peak, "
+          + "lunch or inter-floor.");
+    }
+    if (!(rate >= 0)) {
+      throw new IllegalArgumentException("The request rate cannot be negative.");
+    }
+  }
+
+  /**
+   * Get the number of floors.
+   *
+   * @return the number of floors
+   */
+  public int getFloors() {
+    return floors;
+  }
+
+  /**
+   * Get the number of elevators.
+   *
+   * @return the number of elevators
+   */
+  public int getElevators() {
+    return elevators;
+  }
+
+  /**
+   * Get the capacity of the elevators.
+   *
+   * @return the capacity of the elevators
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Get the kind of building, building or bank.
+   *
+   * @return the model
+   */
+  public String getModel() {
+    return model;
+  }
+
+  /**
+   * Get the dispatch strategy, terminal or collective.
+   *
+   * @return the dispatch strategy
+   */
+  public String getDispatch() {
+    return dispatch;
+  }
+
+  /**
+   * Get the number of steps to run.
+   *
+   * @return the number of steps
+   */
+  public long getTicks() {
+    return ticks;
+  }
+
+  /**
+   * Get the number of steps before the steady state is measured.
+   *
+   * @return the number of warmup steps
+   */
+  public long getWarmup() {
+    return warmup;
+  }
+
+  /**
+   * Get the mean number of requests arriving per step.
+   *
+   * @return the request rate
+   */
+  public double getRate() {
+    return rate;
+  }
+
+  /**
+   * Get the traffic, uniform or the name of a traffic pattern.
+   *
+   * @return the traffic
+   */
+  public String getTraffic() {
+    return traffic;
+  }
+
+  /**
+   * Get the traffic pattern of the requests.
+   *
+   * @return the traffic pattern, or null for uniform traffic
+   */
+  public TrafficPattern getTrafficPattern() {
+    for (TrafficPattern pattern : TrafficPattern.values()) {
+      if (pattern.toString().equals(traffic)) {
+        return pattern;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get the seed of the request source.
+   *
+   * @return the seed
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  @Override
+  public String toString() {
+    return "floors=" + floors + " elevators=" + elevators + " capacity=" + capacity
+        + " model=" + model + " dispatch=" + dispatch + " ticks=" + ticks
+        + " warmup=" + warmup + " rate=" + rate + " traffic=" + traffic + " seed=" + seed;
+  }
+}
@@ -0,0 +1,99 @@
+import building.BuildingReport;
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+
+/**
+ * The SimulationFrame class holds what the view draws of a building at one moment: its size
+ * and status, the elevator reports, and how many requests wait in each direction.
+ * <p></p>
+ * Only the number of waiting requests is kept, not the requests, so taking a frame of a
+ * building with a deep backlog costs no more than taking one of an idle building.
+ */
+public class SimulationFrame {
+
+  private final int numFloors;
+  private final int numElevators;
+  private final int elevatorCapacity;
+  private final ElevatorReport[] elevatorReports;
+  private final int numUpRequests;
+  private final int numDownRequests;
+  private final ElevatorSystemStatus systemStatus;
+
+  /**
+   * Construct a SimulationFrame from a building report.
+   *
+   * @param report the building report
+   */
+  public SimulationFrame(BuildingReport report) {
+    this.numFloors = report.getNumFloors();
+    this.numElevators = report.getNumElevators();
+    this.elevatorCapacity = report.getElevatorCapacity();
+    this.elevatorReports = report.getElevatorReports().clone();
+    this.numUpRequests = report.getUpRequests().size();
+    this.numDownRequests = report.getDownRequests().size();
+    this.systemStatus = report.getSystemStatus();
+  }
+
+  /**
+   * Get the number of floors.
+   *
+   * @return the number of floors
+   */
+  public int getNumFloors() {
+    return numFloors;
+  }
+
+  /**
+   * Get the number of elevators.
+   *
+   * @return the number of elevators
+   */
+  public int getNumElevators() {
+    return numElevators;
+  }
+
+  /**
+   * Get the capacity of the elevators.
+   *
+   * @return the capacity of the elevators
+   */
+  public int getElevatorCapacity() {
+    return elevatorCapacity;
+  }
+
+  /**
+   * Get the elevator reports.
+   *
+   * @return the elevator reports
+   */
+  public ElevatorReport[] getElevatorReports() {
+    return elevatorReports;
+  }
+
+  /**
+   * Get the number of requests waiting to go up.
+   *
+   * @return the number of up requests
+   */
+  public int getNumUpRequests() {
+    return numUpRequests;
+  }
+
+  /**
+   * Get the number of requests waiting to go down.
+   *
+   * @return the number of down requests
+   */
+  public int getNumDownRequests() {
+    return numDownRequests;
+  }
+
+  /**
+   * Get the status of the elevator system.
+   *
+   * @return the system status
+   */
+  public ElevatorSystemStatus getSystemStatus() {
+    return systemStatus;
+  }
+}
@@ -0,0 +1,284 @@
+import building.BuildingInterface;
+import building.enums.ElevatorSystemStatus;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * The SimulationRunner class steps a building on a background thread at a steady tick rate and
+ * hands frames of it to the event dispatch thread.
+ * <p></p>
+ * While the runner is running it owns the building: nothing else may touch it, and whatever
+ * the user does to the building is handed to the runner as a command and run on its thread
+ * between two steps. At most one {@link SimulationFrame} per frame time is published, and only
+ * when the building changed. A frame that is still waiting when the next one is published is
+ * dropped, so a busy event dispatch thread only ever draws the newest state and never falls
+ * behind. A frame that is still waiting when the runner stops is dropped too.
+ * <p></p>
+ * If a step or a command throws, the runner stops stepping, drops the commands that are still
+ * waiting and hands the exception to an error listener on the event dispatch thread. The
+ * building is handed back with stop() as usual.
+ */
+public class SimulationRunner {
+
+  /**
+   * The time between two published frames, sixty frames a second.
+   */
+  public static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+  private final BuildingInterface model;
+  private final Consumer<SimulationFrame> frameListener;
+  private final Consumer<RuntimeException> errorListener;
+  private final Queue<Runnable> commands;
+  private final AtomicReference<SimulationFrame> pendingFrame;
+
+  private volatile int ticksPerSecond;
+  private volatile boolean running;
+  private volatile long ticks;
+  private volatile long framesDropped;
+  private volatile RuntimeException failure;
+  private Thread thread;
+
+  /**
+   * Construct a SimulationRunner for a building.
+   *
+   * @param model          the building to step
+   * @param ticksPerSecond the number of steps a second, or 0 to step as fast as possible
+   * @param frameListener  called on the event dispatch thread with the newest frame
+   * @param errorListener  called on the event dispatch thread if a step or a command throws
+   * @throws IllegalArgumentException if the tick rate is negative
+   */
+  public SimulationRunner(BuildingInterface model, int ticksPerSecond,
+      Consumer<SimulationFrame> frameListener, Consumer<RuntimeException> errorListener)
+      throws IllegalArgumentException {
+    this.model = model;
+    this.frameListener = frameListener;
+    this.errorListener = errorListener;
+    this.commands = new ConcurrentLinkedQueue<>();
+    this.pendingFrame = new AtomicReference<>();
+    setTickRate(ticksPerSecond);
+  }
+
+  /**
+   * Set the tick rate, which takes effect from the next step.
+   *
+   * @param ticksPerSecond the number of steps a second, or 0 to step as fast as possible
+   * @throws IllegalArgumentException if the tick rate is negative
+   */
+  public void setTickRate(int ticksPerSecond) throws IllegalArgumentException {
+    if (ticksPerSecond < 0) {
+      throw new IllegalArgumentException("The tick rate cannot be negative.");
+    }
+    this.ticksPerSecond = ticksPerSecond;
+    wakeUp();
+  }
+
+  /**
+   * Get the tick rate.
+   *
+   * @return the number of steps a second, or 0 if stepping as fast as possible
+   */
+  public int getTickRate() {
+    return ticksPerSecond;
+  }
+
+  /**
+   * Get the number of steps taken since the runner was started.
+   *
+   * @return the number of steps
+   */
+  public long getTicks() {
+    return ticks;
+  }
+
+  /**
+   * Get the number of frames that were replaced by a newer one before they were drawn.
+   *
+   * @return the number of dropped frames
+   */
+  public long getFramesDropped() {
+    return framesDropped;
+  }
+
+  /**
+   * Get the exception that stopped the runner.
+   *
+   * @return the exception thrown by a step or a command, or null if there was none
+   */
+  public RuntimeException getFailure() {
+    return failure;
+  }
+
+  /**
+   * Check if the runner is running.
+   *
+   * @return true if the background thread is stepping the building
+   */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Start stepping the building on a new background thread.
+   *
+   * @throws IllegalStateException if the runner was started and not stopped since
+   */
+  public void start() throws IllegalStateException {
+    if (thread != null) {
+      throw new IllegalStateException("The simulation is already running.");
+    }
+    failure = null;
+    running = true;
+    thread = new Thread(this::run, "elevator-simulation");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stop stepping and wait for the background thread to finish. Commands that were submitted
+   * before are run first. A frame that was published but not drawn yet is dropped, so nothing
+   * older than the building is drawn after the runner stops. Afterwards the building may be
+   * used directly again. This is also how the building is handed back after a failure.
+   */
+  public void stop() {
+    if (thread == null) {
+      return;
+    }
+    running = false;
+    wakeUp();
+    boolean interrupted = false;
+    while (thread.isAlive()) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    thread = null;
+    commands.clear();
+    pendingFrame.set(null);
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Run a command on the background thread between two steps.
+   *
+   * @param command the command, which may use the building
+   */
+  public void submit(Runnable command) {
+    commands.add(command);
+    wakeUp();
+  }
+
+  /**
+   * Wake the background thread if it is waiting for the next step.
+   */
+  private void wakeUp() {
+    Thread current = thread;
+    if (current != null) {
+      LockSupport.unpark(current);
+    }
+  }
+
+  /**
+   * The body of the background thread. If a step or a command throws, stop stepping and hand
+   * the exception to the error listener.
+   */
+  private void run() {
+    try {
+      runLoop();
+    } catch (RuntimeException e) {
+      running = false;
+      failure = e;
+      commands.clear();
+      SwingUtilities.invokeLater(() -> errorListener.accept(e));
+    } finally {
+      running = false;
+    }
+  }
+
+  /**
+   * The loop of the background thread.
+   */
+  private void runLoop() {
+    long nextTick = System.nanoTime();
+    long nextFrame = nextTick;
+    long publishedVersion = -1;
+
+    while (running) {
+      runCommands();
+
+      int rate = ticksPerSecond;
+      long now = System.nanoTime();
+      boolean canStep = model.getSystemStatus() != ElevatorSystemStatus.outOfService;
+      if (canStep && (rate == 0 || now - nextTick >= 0)) {
+        model.stepElevatorSystem();
+        ticks++;
+        if (rate > 0) {
+          nextTick += 1_000_000_000L / rate;
+          // Do not race to catch up after a pause, just carry on from now.
+          if (now - nextTick > FRAME_NANOS) {
+            nextTick = now;
+          }
+        }
+      }
+
+      now = System.nanoTime();
+      if (now - nextFrame >= 0) {
+        long version = model.getStateVersion();
+        if (version != publishedVersion) {
+          publish();
+          publishedVersion = version;
+        }
+        nextFrame = now + FRAME_NANOS;
+      }
+
+      if (!canStep || rate > 0) {
+        long wakeAt = canStep && nextTick - nextFrame < 0 ? nextTick : nextFrame;
+        long wait = wakeAt - System.nanoTime();
+        if (wait > 0 && commands.isEmpty()) {
+          LockSupport.parkNanos(this, wait);
+        }
+      }
+    }
+    runCommands();
+  }
+
+  /**
+   * Run the submitted commands.
+   */
+  private void runCommands() {
+    Runnable command;
+    while ((command = commands.poll()) != null) {
+      command.run();
+    }
+  }
+
+  /**
+   * Take a frame of the building and hand it to the event dispatch thread, replacing a frame
+   * that was not drawn yet.
+   */
+  private void publish() {
+    SimulationFrame frame = new SimulationFrame(model.getElevatorSystemStatus());
+    if (pendingFrame.getAndSet(frame) == null) {
+      SwingUtilities.invokeLater(this::drawPendingFrame);
+    } else {
+      framesDropped++;
+    }
+  }
+
+  /**
+   * Hand the newest frame to the frame listener. Runs on the event dispatch thread.
+   */
+  private void drawPendingFrame() {
+    SimulationFrame frame = pendingFrame.getAndSet(null);
+    if (frame != null) {
+      frameListener.accept(frame);
+    }
+  }
+}
@@ -2,15 +2,23 @@ import building.Building;
 import building.BuildingInterface;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
 import scanerzus.Request;
 
 /**
  * The SwingBuildingController class is the controller for the building elevator system.
+ * <p></p>
+ * The model is stepped either by hand with the Step button or, after Run, by a
+ * {@link SimulationRunner} on a background thread at the tick rate from the view. While it
+ * runs, the runner owns the model, so every button that changes the model hands its work to
+ * the runner instead of touching the model on the event dispatch thread.
  */
 public class SwingBuildingController implements BuildingControllerInterface, ActionListener {
 
   private BuildingInterface model;
   private final BuildingViewInterface view;
+  private SimulationRunner runner;
 
   /**
    * Construct a SwingBuildingController with the given model and view.
@@ -24,6 +32,67 @@ public class SwingBuildingController implements BuildingControllerInterface, Act
     this.view.addActionListener(this);
   }
 
+  /**
+   * Do something to the model and show the prompt it returns. While the simulation runs this
+   * happens on the simulation thread between two steps, and the next frame shows the result.
+   * Otherwise it happens right away and the displays are updated.
+   *
+   * @param action the action on the model, returning the prompt to show
+   */
+  private void onModel(Supplier<String> action) {
+    if (runner != null) {
+      runner.submit(() -> {
+        String prompt = action.get();
+        SwingUtilities.invokeLater(() -> view.updatePromptLabel(prompt));
+      });
+    } else {
+      view.updatePromptLabel(action.get());
+      updateElevatorDisplays();
+    }
+  }
+
+  /**
+   * Attempt to start the elevator system.
+   *
+   * @return the prompt message
+   */
+  private String startSystem() {
+    try {
+      model.startElevatorSystem();
+      return "The Elevator System is now started.";
+    } catch (IllegalStateException ise) {
+      return "Cannot Start: The Elevator System is already running or still stopping.";
+    }
+  }
+
+  /**
+   * Attempt to stop the elevator system.
+   *
+   * @return the prompt message
+   */
+  private String stopSystem() {
+    try {
+      model.stopElevatorSystem();
+      return "Stopping";
+    } catch (IllegalStateException ise) {
+      return "Cannot Stop: The Elevator System is already stopped or out of service.";
+    }
+  }
+
+  /**
+   * Attempt to step the elevator system.
+   *
+   * @return the prompt message
+   */
+  private String stepSystem() {
+    try {
+      model.stepElevatorSystem();
+      return "Stepping";
+    } catch (IllegalStateException ise) {
+      return "Cannot Step: The Elevator System is out of Service.";
+    }
+  }
+
   /**
    * Attempt to add a request to the building model.
    */
@@ -31,15 +100,70 @@ public class SwingBuildingController implements BuildingControllerInterface, Act
     // initialize a request
     int startFloor = Integer.parseInt(view.getStartFloorInput());
     int endFloor = Integer.parseInt(view.getEndFloorInput());
-    Request request = new Request(startFloor, endFloor);
+    Request request = Request.of(startFloor, endFloor);
+    view.clearRequestFields();
 
     // add request to model & update view
-    if (model.addRequest(request)) {
-      view.updatePromptLabel("Request Added Successfully");
-    } else {
-      view.updatePromptLabel("Cannot Add Request: The Elevator System stopping or stopped");
+    onModel(() -> model.addRequest(request)
+        ? "Request Added Successfully"
+        : "Cannot Add Request: The Elevator System stopping or stopped");
+  }
+
+  /**
+   * Start stepping the model on the background thread, or change the tick rate if it already
+   * runs.
+   */
+  private void run() {
+    int ticksPerSecond;
+    try {
+      ticksPerSecond = Integer.parseInt(view.getTickRateInput().trim());
+      if (ticksPerSecond < 0) {
+        throw new NumberFormatException();
+      }
+    } catch (NumberFormatException nfe) {
+      view.updatePromptLabel("Cannot Run: The tick rate must be a whole number of ticks "
+          + "per second, or 0 for as fast as possible.");
+      return;
     }
-    view.clearRequestFields();
+
+    String speed = ticksPerSecond == 0 ? "as fast as possible" : ticksPerSecond + " ticks/s";
+    if (runner != null && runner.isRunning()) {
+      runner.setTickRate(ticksPerSecond);
+      view.updatePromptLabel("Running at " + speed);
+      return;
+    }
+    // a runner that stopped on a failure is handed back before a new one starts
+    pause();
+    runner = new SimulationRunner(model, ticksPerSecond, this::updateElevatorDisplays,
+        this::simulationFailed);
+    runner.start();
+    view.updatePromptLabel("Running at " + speed);
+  }
+
+  /**
+   * Stop stepping the model on the background thread, handing the model back to the event
+   * dispatch thread.
+   */
+  private void pause() {
+    if (runner != null) {
+      runner.stop();
+      runner = null;
+    }
+  }
+
+  /**
+   * Hand the model back from a runner that stopped because a step or a command threw, and show
+   * the error. An error from a runner that was already paused is ignored.
+   *
+   * @param error the exception that stopped the runner
+   */
+  private void simulationFailed(RuntimeException error) {
+    if (runner == null || runner.getFailure() != error) {
+      return;
+    }
+    pause();
+    view.updatePromptLabel("Simulation stopped: " + error.getMessage());
+    updateElevatorDisplays();
   }
 
   /**
@@ -54,14 +178,21 @@ public class SwingBuildingController implements BuildingControllerInterface, Act
    * Update the elevator displays with the current model values.
    */
   private void updateElevatorDisplays() {
-    // Update building info, grid, reports, and requests
-    view.updateBuildingInfo(model.getNumFloors(), model.getNumElevators(),
-        model.getElevatorCapacity(), model.getElevatorSystemStatus().getSystemStatus().toString());
-    view.updateElevatorGrid(model.getElevatorSystemStatus(), model.getNumFloors(),
-        model.getNumElevators());
-    view.updateElevatorReports(model.getElevatorSystemStatus().getElevatorReports());
-    view.updateRequestSizeDisplay(model.getElevatorSystemStatus().getUpRequests(),
-        model.getElevatorSystemStatus().getDownRequests());
+    updateElevatorDisplays(new SimulationFrame(model.getElevatorSystemStatus()));
+  }
+
+  /**
+   * Update building info, grid, reports, and requests from one frame.
+   *
+   * @param frame the frame to show
+   */
+  private void updateElevatorDisplays(SimulationFrame frame) {
+    view.updateBuildingInfo(frame.getNumFloors(), frame.getNumElevators(),
+        frame.getElevatorCapacity(), frame.getSystemStatus().toString());
+    view.updateElevatorGrid(frame.getElevatorReports(), frame.getNumFloors(),
+        frame.getNumElevators());
+    view.updateElevatorReports(frame.getElevatorReports());
+    view.updateRequestSizeDisplay(frame.getNumUpRequests(), frame.getNumDownRequests());
   }
 
   @Override
@@ -70,46 +201,34 @@ public class SwingBuildingController implements BuildingControllerInterface, Act
 
     switch (cmd) {
       case "Start":
-        try {
-          model.startElevatorSystem();
-          view.updatePromptLabel("The Elevator System is now started.");
-        } catch (IllegalStateException ise) {
-          view.updatePromptLabel("Cannot Start: The Elevator System is "
-              + "already running or still stopping.");
-          return;
-        }
+        onModel(this::startSystem);
         break;
       case "Stop":
-        try {
-          model.stopElevatorSystem();
-          view.updatePromptLabel("Stopping");
-        } catch (IllegalStateException ise) {
-          view.updatePromptLabel("Cannot Stop: The Elevator System is "
-              + "already stopped or out of service.");
-          return;
-        }
+        onModel(this::stopSystem);
         break;
       case "Step":
-        try {
-          model.stepElevatorSystem();
-          view.updatePromptLabel("Stepping");
-        } catch (IllegalStateException ise) {
-          view.updatePromptLabel("Cannot Step: The Elevator System is "
-              + "out of Service.");
-          return;
-        }
+        onModel(this::stepSystem);
         break;
       case "Request":
         attemptRequest();
         break;
+      case "Run":
+        run();
+        break;
+      case "Pause":
+        pause();
+        view.updatePromptLabel("Paused");
+        updateElevatorDisplays();
+        break;
       case "Reset":
+        pause();
         updateModel();
         view.startNewSimulation();
+        updateElevatorDisplays();
         break;
       default:
         break;
     }
-    updateElevatorDisplays();
   }
 
   @Override
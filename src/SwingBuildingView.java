@@ -1,4 +1,3 @@
-import building.BuildingReport;
 import elevator.ElevatorReport;
 import java.awt.BorderLayout;
 import java.awt.Color;
@@ -13,11 +12,11 @@ import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 import javax.swing.JTextField;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
-import scanerzus.Request;
 
 /**
  * The SwingBuildingView class is the view for the building elevator system.
@@ -32,15 +31,19 @@ public class SwingBuildingView extends JFrame implements BuildingViewInterface {
   private JTextField capacityInput;
   private JLabel statusLabel;
   private JButton resetButton;
-  private JPanel leftStatusPanel;
+  private ElevatorGridComponent elevatorGrid;
   private JPanel rightStatusPanel;
-  private JButton[][] elevatorButtons;
   private List<JLabel> elevatorReports;
   private JLabel upRequestsLabel;
   private JLabel downRequestsLabel;
   private JButton startButton;
   private JButton stopButton;
   private JButton stepButton;
+  private JButton runButton;
+  private JButton pauseButton;
+  private JTextField tickRateInput;
+  private JButton zoomInButton;
+  private JButton zoomOutButton;
   private JButton addRequestButton;
   private JTextField startFloorInput;
   private JTextField endFloorInput;
@@ -135,9 +138,10 @@ public class SwingBuildingView extends JFrame implements BuildingViewInterface {
    */
   private void initializeElevatorStatusPanel() {
     // Panel 2: Elevator Status
-    // Left panel for elevator grid
-    leftStatusPanel = new JPanel();
-    initializeElevatorsGrid();
+    // Left panel for elevator grid, scrolling when the fleet does not fit
+    elevatorGrid = new ElevatorGridComponent(numFloors, numElevators);
+    JScrollPane leftStatusPanel = new JScrollPane(elevatorGrid);
+    leftStatusPanel.setBorder(null);
 
     // Right panel for elevator details
     rightStatusPanel = new JPanel(new GridLayout(0, 1));
@@ -156,38 +160,6 @@ public class SwingBuildingView extends JFrame implements BuildingViewInterface {
     add(elevatorStatusPanel, BorderLayout.CENTER);
   }
 
-  /**
-   * Initialize the elevator grid.
-   */
-  private void initializeElevatorsGrid() {
-    // Initialize the elevator grid
-    leftStatusPanel.setLayout(new GridLayout(numFloors, numElevators));
-    // Create a 2D array of JButtons to represent the elevator grid
-    elevatorButtons = new JButton[numFloors][numElevators];
-
-    // Create the buttons and add them to the panel
-    for (int floor = 0; floor < numFloors; floor++) {
-      for (int elevator = 0; elevator < numElevators; elevator++) {
-        JButton elevatorButton = new JButton();
-        elevatorButton.setOpaque(true);
-        elevatorButton.setContentAreaFilled(true);
-
-        // Set the background color of the button based on the floor
-        if (floor == numFloors - 1) {
-          elevatorButton.setBackground(Color.darkGray);
-        } else {
-          elevatorButton.setBackground(Color.WHITE);
-        }
-        elevatorButton.setFocusable(false);
-
-        // Add the button to the panel and the 2D array
-        leftStatusPanel.add(elevatorButton);
-        // Add the button to the 2D array
-        elevatorButtons[floor][elevator] = elevatorButton;
-      }
-    }
-  }
-
   /**
    * Initialize the elevator reports.
    *
@@ -223,10 +195,26 @@ public class SwingBuildingView extends JFrame implements BuildingViewInterface {
     startButton = new JButton("Start");
     stopButton = new JButton("Stop");
     stepButton = new JButton("Step");
+    // run controls for stepping continuously on a background thread
+    tickRateInput = new JTextField("10", 5);
+    runButton = new JButton("Run");
+    pauseButton = new JButton("Pause");
+
+    // zooming only changes the view, so the view handles it itself
+    zoomInButton = new JButton("Zoom In");
+    zoomOutButton = new JButton("Zoom Out");
+    zoomInButton.addActionListener(e -> elevatorGrid.zoomIn());
+    zoomOutButton.addActionListener(e -> elevatorGrid.zoomOut());
     JPanel buttonPanel = new JPanel();
     buttonPanel.add(startButton);
     buttonPanel.add(stopButton);
     buttonPanel.add(stepButton);
+    buttonPanel.add(new JLabel("Ticks/s (0 = max):"));
+    buttonPanel.add(tickRateInput);
+    buttonPanel.add(runButton);
+    buttonPanel.add(pauseButton);
+    buttonPanel.add(zoomInButton);
+    buttonPanel.add(zoomOutButton);
 
     // Panel 5: request input
     // relevant text fields and labels for request input
@@ -327,18 +315,8 @@ public class SwingBuildingView extends JFrame implements BuildingViewInterface {
   }
 
   @Override
-  public void updateElevatorGrid(BuildingReport buildingReport, int numFloors, int numElevators) {
-    for (int floor = 0; floor < numFloors; floor++) {
-      for (int elevator = 0; elevator < numElevators; elevator++) {
-        ElevatorReport report = buildingReport.getElevatorReports()[elevator];
-        JButton button = elevatorButtons[floor][elevator];
-        if (floor == numFloors - report.getCurrentFloor() - 1) {
-          button.setBackground(Color.DARK_GRAY);  // Elevator is at this floor
-        } else {
-          button.setBackground(Color.WHITE);
-        }
-      }
-    }
+  public void updateElevatorGrid(ElevatorReport[] reports, int numFloors, int numElevators) {
+    elevatorGrid.updateElevators(reports);
   }
 
   @Override
@@ -350,9 +328,9 @@ public class SwingBuildingView extends JFrame implements BuildingViewInterface {
   }
 
   @Override
-  public void updateRequestSizeDisplay(List<Request> upRequests, List<Request> downRequests) {
-    upRequestsLabel.setText("Up Requests: " + upRequests.size());
-    downRequestsLabel.setText("Down Requests: " + downRequests.size());
+  public void updateRequestSizeDisplay(int numUpRequests, int numDownRequests) {
+    upRequestsLabel.setText("Up Requests: " + numUpRequests);
+    downRequestsLabel.setText("Down Requests: " + numDownRequests);
   }
 
   @Override
@@ -372,6 +350,11 @@ public class SwingBuildingView extends JFrame implements BuildingViewInterface {
     return endFloorInput.getText();
   }
 
+  @Override
+  public String getTickRateInput() {
+    return tickRateInput.getText();
+  }
+
   @Override
   public void clearRequestFields() {
     startFloorInput.setText("");
@@ -413,8 +396,7 @@ public class SwingBuildingView extends JFrame implements BuildingViewInterface {
    * Reset the elevator grid.
    */
   private void resetElevatorGrid() {
-    leftStatusPanel.removeAll();
-    initializeElevatorsGrid();
+    elevatorGrid.setBuildingSize(numFloors, numElevators);
   }
 
   /**
@@ -432,12 +414,16 @@ public class SwingBuildingView extends JFrame implements BuildingViewInterface {
     stepButton.setActionCommand("Step");
     addRequestButton.setActionCommand("Request");
     resetButton.setActionCommand("Reset");
+    runButton.setActionCommand("Run");
+    pauseButton.setActionCommand("Pause");
 
     startButton.addActionListener(listener);
     stopButton.addActionListener(listener);
     stepButton.addActionListener(listener);
     addRequestButton.addActionListener(listener);
     resetButton.addActionListener(listener);
+    runButton.addActionListener(listener);
+    pauseButton.addActionListener(listener);
   }
 }
 
@@ -0,0 +1,496 @@
+package building;
+
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.function.Predicate;
+import scanerzus.Request;
+
+/**
+ * The part of a building that does not depend on how its elevators are stored: the size, the
+ * up and down requests, the system status, the tick and the state version, the change log and
+ * the cached report, taking requests, and the rules of a step.
+ * <p>
+ * A subclass keeps the elevators and steps them. It tells this class about them through the
+ * per-elevator methods below, and decides how waiting requests are handed out in
+ * distributeRequests().
+ * </p>
+ */
+abstract class AbstractBuilding implements BuildingInterface {
+
+  protected final int numFloors;
+  protected final int numElevators;
+  protected final int elevatorCapacity;
+
+  protected final HallCallQueue upRequests;
+
+  protected final HallCallQueue downRequests;
+
+  protected final ChangeLog changeLog;
+
+  protected ElevatorSystemStatus elevatorSystemStatus;
+
+  protected long currentTick;
+
+  /**
+   * Goes up every time the state of the building changes.
+   */
+  protected long stateVersion;
+
+  /**
+   * The last report built and the state version it was built at.
+   */
+  private BuildingReport cachedReport;
+  private long cachedReportVersion = -1;
+
+  /**
+   * The state versions of the elevators when their reports in the cached report were built.
+   */
+  private final long[] elevatorReportVersions;
+
+  /**
+   * The constructor for the building.
+   *
+   * @param numFloors        the number of floors in the building.
+   * @param numElevators     the number of elevators in the building.
+   * @param elevatorCapacity the capacity of the elevators in the building.
+   * @throws IllegalArgumentException if a number is not positive, or there are more floors
+   *                                  than a hall call queue can index.
+   */
+  AbstractBuilding(int numFloors, int numElevators, int elevatorCapacity)
+      throws IllegalArgumentException {
+    if (numFloors < 1 || numElevators < 1 || elevatorCapacity < 1) {
+      throw new IllegalArgumentException("Invalid input. Please enter a positive integer "
+          + "for the number of floors, elevators, and elevator capacity.");
+    }
+
+    this.numFloors = numFloors;
+    this.numElevators = numElevators;
+    this.elevatorCapacity = elevatorCapacity;
+    this.elevatorSystemStatus = ElevatorSystemStatus.outOfService;
+    this.upRequests = new HallCallQueue(numFloors);
+    this.downRequests = new HallCallQueue(numFloors);
+    this.elevatorReportVersions = new long[numElevators];
+    this.changeLog = new ChangeLog(numFloors, numElevators);
+  }
+
+  /**
+   * Returns the id of an elevator.
+   *
+   * @param i the index of the elevator in the building.
+   * @return the elevator id.
+   */
+  abstract int getElevatorId(int i);
+
+  /**
+   * Returns the floor an elevator is on.
+   *
+   * @param i the index of the elevator in the building.
+   * @return the current floor.
+   */
+  abstract int getCurrentFloor(int i);
+
+  /**
+   * Returns the floors an elevator still has to stop at, as a bitmask.
+   *
+   * @param i the index of the elevator in the building.
+   * @return the floor request mask.
+   */
+  abstract int getFloorRequestMask(int i);
+
+  /**
+   * Returns the state version of an elevator, which goes up every time it changes.
+   *
+   * @param i the index of the elevator in the building.
+   * @return the state version of the elevator.
+   */
+  abstract long getElevatorStateVersion(int i);
+
+  /**
+   * Returns the status of an elevator packed into a long.
+   *
+   * @param i the index of the elevator in the building.
+   * @return the packed status.
+   */
+  abstract long getPackedStatus(int i);
+
+  /**
+   * Returns a report of an elevator.
+   *
+   * @param i the index of the elevator in the building.
+   * @return the elevator report.
+   */
+  abstract ElevatorReport getElevatorReport(int i);
+
+  /**
+   * Start every elevator, when the elevator system starts.
+   */
+  abstract void startElevators();
+
+  /**
+   * Take every elevator out of service, when the elevator system stops.
+   */
+  abstract void takeElevatorsOutOfService();
+
+  /**
+   * Hand the waiting requests to the elevators. Called once per step while the elevator
+   * system is running, before the elevators step.
+   */
+  abstract void distributeRequests();
+
+  /**
+   * Step every elevator once.
+   */
+  abstract void stepEachElevator();
+
+  /**
+   * Move the requests submitted from other threads into the up and down requests at the start
+   * of a step. A building without an inbox has nothing to do here.
+   *
+   * @param tick the tick before the step.
+   */
+  void drainInbox(long tick) {
+  }
+
+  /**
+   * Called for every request addRequest() or addRequests() accepts, after it is queued. Does
+   * nothing here, a subclass can use it to record the requests. If this throws, the request
+   * stays queued.
+   *
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   */
+  void requestAccepted(int startFloor, int endFloor) {
+  }
+
+  @Override
+  public int getNumFloors() {
+    return numFloors;
+  }
+
+  @Override
+  public int getNumElevators() {
+    return numElevators;
+  }
+
+  @Override
+  public int getElevatorCapacity() {
+    return elevatorCapacity;
+  }
+
+  /**
+   * Returns the number of steps the elevator system has taken since the building was created.
+   *
+   * @return the current tick of the simulation.
+   */
+  public long getCurrentTick() {
+    return currentTick;
+  }
+
+  @Override
+  public ElevatorSystemStatus getSystemStatus() {
+    return elevatorSystemStatus;
+  }
+
+  @Override
+  public boolean allRequestsServed() {
+    if (!upRequests.isEmpty() || !downRequests.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < numElevators; ++i) {
+      if (getFloorRequestMask(i) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public long getStateVersion() {
+    return stateVersion;
+  }
+
+  /**
+   * Note in the change log which elevators and queue depths changed.
+   */
+  void noteChanges() {
+    for (int i = 0; i < numElevators; ++i) {
+      changeLog.noteElevator(i, getElevatorStateVersion(i), stateVersion);
+    }
+    changeLog.noteDepths(0, upRequests, stateVersion);
+    changeLog.noteDepths(1, downRequests, stateVersion);
+  }
+
+  @Override
+  public BuildingChanges getChangesSince(long version) throws IllegalArgumentException {
+    return changeLog.changesSince(version, stateVersion, elevatorSystemStatus,
+        this::getElevatorReport);
+  }
+
+  /**
+   * Returns a building report that contains the elevator system status. The report is cached
+   * until the state version changes, so reading it again between steps builds nothing. When it
+   * is rebuilt, only the elevators whose state changed get a new elevator report, the others
+   * share theirs with the previous report.
+   *
+   * @return the building report that contains the elevator system status.
+   */
+  @Override
+  public BuildingReport getElevatorSystemStatus() {
+    if (cachedReport != null && cachedReportVersion == stateVersion) {
+      return cachedReport;
+    }
+
+    // Create an array of elevator reports to get the building report,
+    // reusing the reports of the elevators that did not change.
+    ElevatorReport[] previous = cachedReport == null ? null : cachedReport.getElevatorReports();
+    ElevatorReport[] elevatorReports = new ElevatorReport[numElevators];
+    for (int i = 0; i < numElevators; ++i) {
+      long version = getElevatorStateVersion(i);
+      if (previous != null && elevatorReportVersions[i] == version) {
+        elevatorReports[i] = previous[i];
+      } else {
+        elevatorReports[i] = getElevatorReport(i);
+        elevatorReportVersions[i] = version;
+      }
+    }
+
+    cachedReport = new BuildingReport(numFloors, numElevators, elevatorCapacity,
+        elevatorReports, upRequests.asList(), downRequests.asList(), elevatorSystemStatus);
+    cachedReportVersion = stateVersion;
+    return cachedReport;
+  }
+
+  @Override
+  public void snapshotInto(BuildingSnapshot out) throws IllegalArgumentException {
+    out.begin(numFloors, numElevators, stateVersion, elevatorSystemStatus);
+    for (int i = 0; i < numElevators; ++i) {
+      out.setElevator(i, getElevatorId(i), getPackedStatus(i));
+    }
+    out.setDepths(upRequests, downRequests);
+  }
+
+  @Override
+  public long[] getPackedElevatorStatus(long[] into) {
+    if (into == null || into.length < numElevators) {
+      into = new long[numElevators];
+    }
+    for (int i = 0; i < numElevators; ++i) {
+      into[i] = getPackedStatus(i);
+    }
+    return into;
+  }
+
+  @Override
+  public boolean startElevatorSystem() throws IllegalStateException {
+    // If the elevator system is still running or stopping, throw an exception
+    if (elevatorSystemStatus != ElevatorSystemStatus.outOfService) {
+      throw new IllegalStateException("Elevator cannot be started until it is stopped");
+    }
+
+    startElevators();
+    elevatorSystemStatus = ElevatorSystemStatus.running;
+    stateVersion++;
+    noteChanges();
+    return true;
+  }
+
+  /**
+   * Distribute the request to the upRequests or downRequests queue. If the request is from a lower
+   * floor to a higher floor, add it to the upRequests queue. If the request is from a higher floor
+   * to a lower floor, add it to the downRequests queue. Requests with floors outside the
+   * building are rejected.
+   *
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   * @return true if the request was added, false if it was rejected.
+   */
+  private boolean distributeRequest(int startFloor, int endFloor) {
+    if (startFloor < 0 || startFloor >= numFloors || endFloor < 0 || endFloor >= numFloors) {
+      return false;
+    }
+    stateVersion++;
+    if (startFloor < endFloor) {
+      upRequests.add(startFloor, endFloor);
+      changeLog.noteDepth(0, startFloor, upRequests.getDepth(startFloor), stateVersion);
+    } else {
+      downRequests.add(startFloor, endFloor);
+      changeLog.noteDepth(1, startFloor, downRequests.getDepth(startFloor), stateVersion);
+    }
+    requestAccepted(startFloor, endFloor);
+    return true;
+  }
+
+  @Override
+  public boolean addRequest(Request request) {
+    if (elevatorSystemStatus == ElevatorSystemStatus.running) {
+      return distributeRequest(request.getStartFloor(), request.getEndFloor());
+    } else {
+      return false;  // If the elevator system is not running, do nothing and return false.
+    }
+  }
+
+  @Override
+  public RequestBatchResult addRequests(Collection<? extends Request> requests) {
+    if (elevatorSystemStatus != ElevatorSystemStatus.running) {
+      return new RequestBatchResult(0, requests.size(), null);
+    }
+
+    int accepted = 0;
+    int position = 0;
+    BitSet rejected = null;
+    for (Request request : requests) {
+      if (distributeRequest(request.getStartFloor(), request.getEndFloor())) {
+        accepted++;
+      } else {
+        if (rejected == null) {
+          rejected = new BitSet();
+        }
+        rejected.set(position);
+      }
+      position++;
+    }
+    return new RequestBatchResult(accepted, position - accepted, rejected);
+  }
+
+  @Override
+  public RequestBatchResult addRequests(int[] floorPairs) throws IllegalArgumentException {
+    if (floorPairs.length % 2 != 0) {
+      throw new IllegalArgumentException("The floor pairs must have an even length.");
+    }
+    int count = floorPairs.length / 2;
+    if (elevatorSystemStatus != ElevatorSystemStatus.running) {
+      return new RequestBatchResult(0, count, null);
+    }
+
+    int accepted = 0;
+    BitSet rejected = null;
+    for (int i = 0; i < count; i++) {
+      if (distributeRequest(floorPairs[2 * i], floorPairs[2 * i + 1])) {
+        accepted++;
+      } else {
+        if (rejected == null) {
+          rejected = new BitSet();
+        }
+        rejected.set(i);
+      }
+    }
+    return new RequestBatchResult(accepted, count - accepted, rejected);
+  }
+
+  /**
+   * Check if all elevators have stopped.
+   *
+   * @return true if all elevators have stopped (at first floor), false otherwise.
+   */
+  boolean allElevatorsStopped() {
+    for (int i = 0; i < numElevators; ++i) {
+      if (getCurrentFloor(i) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void stepElevatorSystem() throws IllegalStateException {
+    // if the elevator system is out of service, throw an exception
+    if (elevatorSystemStatus == ElevatorSystemStatus.outOfService) {
+      throw new IllegalStateException("Building is out of service. Cannot step the"
+          + " elevator system.");
+    }
+
+    currentTick++;
+    stateVersion++;
+    drainInbox(currentTick - 1);
+    // If the elevator system is running, distribute requests
+    // to the elevators and step each elevator
+    if (elevatorSystemStatus == ElevatorSystemStatus.running) {
+      distributeRequests();
+      stepEachElevator();
+    } else {
+      // If the elevator system is stopping, also step each elevator to bring them to ground floor
+      // and check if all elevators have stopped.
+      stepEachElevator();
+      // If so, set the elevator system status to out of service and open the doors.
+      if (allElevatorsStopped()) {
+        elevatorSystemStatus = ElevatorSystemStatus.outOfService;
+        // make sure the elevators' door are open
+        stepEachElevator();
+      }
+    }
+    noteChanges();
+  }
+
+  @Override
+  public int stepElevatorSystem(int ticks) throws IllegalStateException,
+      IllegalArgumentException {
+    if (ticks < 0) {
+      throw new IllegalArgumentException("The number of steps cannot be negative.");
+    }
+    if (elevatorSystemStatus == ElevatorSystemStatus.outOfService) {
+      throw new IllegalStateException("Building is out of service. Cannot step the"
+          + " elevator system.");
+    }
+
+    // A running system stays running until it is stopped, so the status
+    // does not have to be checked again between the steps. The tick and the
+    // state version go up before every step, like in a single step, so they
+    // stay right if a step throws halfway.
+    if (elevatorSystemStatus == ElevatorSystemStatus.running) {
+      try {
+        for (int i = 0; i < ticks; ++i) {
+          currentTick++;
+          stateVersion++;
+          drainInbox(currentTick - 1);
+          distributeRequests();
+          stepEachElevator();
+        }
+      } finally {
+        noteChanges();
+      }
+      return ticks;
+    }
+
+    int taken = 0;
+    while (taken < ticks && elevatorSystemStatus != ElevatorSystemStatus.outOfService) {
+      stepElevatorSystem();
+      taken++;
+    }
+    return taken;
+  }
+
+  @Override
+  public long runUntil(Predicate<? super BuildingInterface> condition, long maxTicks)
+      throws IllegalStateException {
+    if (elevatorSystemStatus == ElevatorSystemStatus.outOfService) {
+      throw new IllegalStateException("Building is out of service. Cannot step the"
+          + " elevator system.");
+    }
+
+    long taken = 0;
+    while (taken < maxTicks && elevatorSystemStatus != ElevatorSystemStatus.outOfService
+        && !condition.test(this)) {
+      stepElevatorSystem();
+      taken++;
+    }
+    return taken;
+  }
+
+  @Override
+  public void stopElevatorSystem() throws IllegalStateException {
+    if (elevatorSystemStatus != ElevatorSystemStatus.running) {
+      throw new IllegalStateException("Elevator system is already stopping or out of service.");
+    }
+
+    // If the elevator system is running, stop each elevator in the building
+    // set the elevator system status to stopping, and clear the requests.
+    takeElevatorsOutOfService();
+    elevatorSystemStatus = ElevatorSystemStatus.stopping;
+    upRequests.clear();
+    downRequests.clear();
+    stateVersion++;
+    noteChanges();
+  }
+}
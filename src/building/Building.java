@@ -1,10 +1,13 @@
 package building;
 
+import building.enums.Direction;
 import building.enums.ElevatorSystemStatus;
 import elevator.Elevator;
 import elevator.ElevatorReport;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
 import scanerzus.Request;
 
 /**
@@ -12,22 +15,35 @@ import scanerzus.Request;
  * capacity. It also has a list of up requests and down requests. The building can start and stop
  * the elevator system, add requests, and step the elevators.
  */
-public class Building implements BuildingInterface {
+public class Building extends AbstractBuilding {
 
-  private final int numFloors;
-  private final int numElevators;
-  private final int elevatorCapacity;
+  /**
+   * The magic number at the start of a checkpoint, "ELCK", and the version of its format.
+   */
+  private static final int CHECKPOINT_MAGIC = 0x454c434b;
+  private static final int CHECKPOINT_VERSION = 1;
+
+  private static final ElevatorSystemStatus[] SYSTEM_STATUSES = ElevatorSystemStatus.values();
 
   private final Elevator[] elevators;
 
-  private List<Request> upRequests;
+  private final DispatchStrategy dispatchStrategy;
+
+  private final ElevatorIndex elevatorIndex;
+
+  private final RequestInbox inbox;
+
+  private RequestTraceRecorder requestRecorder;
 
-  private List<Request> downRequests;
+  private long requestsDistributed;
 
-  private ElevatorSystemStatus elevatorSystemStatus;
+  private ForkJoinPool stepPool;
+
+  private int stepGrainSize;
 
   /**
-   * The constructor for the building.
+   * The constructor for the building. Requests are dispatched with TerminalDispatch, so the
+   * elevators only take requests at the bottom and the top.
    *
    * @param numFloors        the number of floors in the building.
    * @param numElevators     the number of elevators in the building.
@@ -35,192 +51,489 @@ public class Building implements BuildingInterface {
    */
   public Building(int numFloors, int numElevators, int elevatorCapacity)
       throws IllegalArgumentException {
+    this(numFloors, numElevators, elevatorCapacity, new TerminalDispatch());
+  }
 
-    if (numFloors < 1 || numElevators < 1 || elevatorCapacity < 1) {
-      throw new IllegalArgumentException("Invalid input. Please enter a positive integer "
-          + "for the number of floors, elevators, and elevator capacity.");
+  /**
+   * The constructor for the building with a given dispatch strategy. The strategy must not be
+   * shared with another building.
+   *
+   * @param numFloors        the number of floors in the building.
+   * @param numElevators     the number of elevators in the building.
+   * @param elevatorCapacity the capacity of the elevators in the building.
+   * @param dispatchStrategy the strategy that hands the waiting requests to the elevators.
+   */
+  public Building(int numFloors, int numElevators, int elevatorCapacity,
+                  DispatchStrategy dispatchStrategy) throws IllegalArgumentException {
+    super(numFloors, numElevators, elevatorCapacity);
+    if (dispatchStrategy == null) {
+      throw new IllegalArgumentException("The dispatch strategy cannot be null.");
     }
 
-    this.numFloors = numFloors;
-    this.numElevators = numElevators;
-    this.elevatorCapacity = elevatorCapacity;
-    this.elevatorSystemStatus = ElevatorSystemStatus.outOfService;
-    this.upRequests = new ArrayList<>();
-    this.downRequests = new ArrayList<>();
+    this.dispatchStrategy = dispatchStrategy;
+    this.inbox = new RequestInbox();
 
     // Create the elevators according to the number of elevators in the building
     // and initialize them with the number of floors and elevator capacity.
+    // The elevators are numbered from 0 within the building.
     this.elevators = new Elevator[numElevators];
     for (int i = 0; i < numElevators; ++i) {
-      this.elevators[i] = new Elevator(numFloors, elevatorCapacity);
+      this.elevators[i] = new Elevator(i, numFloors, elevatorCapacity);
+    }
+    this.elevatorIndex = new ElevatorIndex(numFloors, numElevators);
+    updateElevatorIndex();
+  }
+
+  /**
+   * Returns the strategy that hands the waiting requests to the elevators.
+   *
+   * @return the dispatch strategy.
+   */
+  public DispatchStrategy getDispatchStrategy() {
+    return dispatchStrategy;
+  }
+
+  /**
+   * Returns the index of the elevators by floor, direction and whether they take requests.
+   *
+   * @return the elevator index.
+   */
+  ElevatorIndex getElevatorIndex() {
+    return elevatorIndex;
+  }
+
+  /**
+   * Bring the elevator index up to date with every elevator.
+   */
+  private void updateElevatorIndex() {
+    for (int i = 0; i < numElevators; ++i) {
+      elevatorIndex.update(i, elevators[i]);
     }
   }
 
   @Override
-  public int getNumFloors() {
-    return numFloors;
+  int getElevatorId(int i) {
+    return elevators[i].getElevatorId();
   }
 
   @Override
-  public int getNumElevators() {
-    return numElevators;
+  int getCurrentFloor(int i) {
+    return elevators[i].getCurrentFloor();
   }
 
   @Override
-  public int getElevatorCapacity() {
-    return elevatorCapacity;
+  int getFloorRequestMask(int i) {
+    return elevators[i].getFloorRequestMask();
   }
 
   @Override
-  public BuildingReport getElevatorSystemStatus() {
-    // Create an array of elevator reports to get the building report
-    ElevatorReport[] elevatorReports = new ElevatorReport[numElevators];
-    for (int i = 0; i < numElevators; ++i) {
-      elevatorReports[i] = elevators[i].getElevatorStatus();
-    }
+  long getElevatorStateVersion(int i) {
+    return elevators[i].getStateVersion();
+  }
 
-    return new BuildingReport(numFloors, numElevators, elevatorCapacity,
-        elevatorReports, upRequests, downRequests, elevatorSystemStatus);
+  @Override
+  long getPackedStatus(int i) {
+    return elevators[i].getPackedStatus();
   }
 
   @Override
-  public boolean startElevatorSystem() throws IllegalStateException {
-    // If the elevator system is still running or stopping, throw an exception
-    if (elevatorSystemStatus != ElevatorSystemStatus.outOfService) {
-      throw new IllegalStateException("Elevator cannot be started until it is stopped");
-    }
+  ElevatorReport getElevatorReport(int i) {
+    return elevators[i].getElevatorStatus();
+  }
 
-    // If the elevator system is out of service, start each elevator in the building
-    for (int i = 0; i < numElevators; ++i) {
-      elevators[i].start();
-    }
-    // Set the elevator system status to running
-    elevatorSystemStatus = ElevatorSystemStatus.running;
-    return true;
+  /**
+   * Returns the number of requests handed to the elevators since the building was created.
+   *
+   * @return the number of requests distributed to the elevators.
+   */
+  public long getRequestsDistributed() {
+    return requestsDistributed;
   }
 
   /**
-   * Distribute the request to the upRequests or downRequests list. If the request is from a lower
-   * floor to a higher floor, add it to the upRequests list. If the request is from a higher floor
-   * to a lower floor, add it to the downRequests list.
+   * Returns the number of up requests waiting for an elevator.
    *
-   * @param request the request to distribute.
+   * @return the number of waiting up requests.
    */
-  private void distributeRequest(Request request) {
-    if (request.getStartFloor() < request.getEndFloor()) {
-      upRequests.add(request);
-    } else {
-      downRequests.add(request);
+  public int getNumUpRequests() {
+    return upRequests.size();
+  }
+
+  /**
+   * Returns the number of down requests waiting for an elevator.
+   *
+   * @return the number of waiting down requests.
+   */
+  public int getNumDownRequests() {
+    return downRequests.size();
+  }
+
+  /**
+   * Returns the queue of waiting requests going in a direction.
+   *
+   * @param direction the direction, UP or DOWN.
+   * @return the up or down requests.
+   * @throws IllegalArgumentException if the direction is STOPPED.
+   */
+  private HallCallQueue hallCalls(Direction direction) throws IllegalArgumentException {
+    switch (direction) {
+      case UP:
+        return upRequests;
+      case DOWN:
+        return downRequests;
+      default:
+        throw new IllegalArgumentException("Hall calls go either UP or DOWN.");
     }
   }
 
-  @Override
-  public boolean addRequest(Request request) {
-    if (elevatorSystemStatus == ElevatorSystemStatus.running) {
-      distributeRequest(request);
-      return true;
-    } else {
-      return false;  // If the elevator system is not running, do nothing and return false.
-    }
-  }
-
-  private void distributeRequests() {
-    // Check if there are any requests to process.
-    if (!upRequests.isEmpty() || !downRequests.isEmpty()) {
-      // Iterate through each elevator to distribute requests.
-      for (Elevator elevator : elevators) {
-        if (elevator.isTakingRequests()) { // Check if the elevator can take requests.
-
-          // Distribute UP requests if the elevator is at the first floor and there are UP requests.
-          if (elevator.getCurrentFloor() == 0 && !upRequests.isEmpty()) {
-            // Take the minimum of the elevator capacity and the number of UP requests.
-            int requestsToTake = Math.min(elevatorCapacity, upRequests.size());
-            List<Request> requests = new ArrayList<>(upRequests.subList(0, requestsToTake));
-            // Remove the requests that have been taken.
-            // ArrayList can automatically resize itself and shift to fill the gaps.
-            upRequests.subList(0, requestsToTake).clear();
-            // Process the taken requests.
-            elevator.processRequests(requests);
-          } else if (elevator.getCurrentFloor() == numFloors - 1 && !downRequests.isEmpty()) {
-            // Distribute DOWN requests if the elevator is at the top and there are DOWN requests.
-            // Take the minimum of the elevator capacity and the number of DOWN requests.
-            int requestsToTake = Math.min(elevatorCapacity, downRequests.size());
-            List<Request> requests = new ArrayList<>(downRequests.subList(0, requestsToTake));
-            // Remove the requests that have been taken.
-            downRequests.subList(0, requestsToTake).clear();
-            // Process the taken requests.
-            elevator.processRequests(requests);
-          }
-
-        }
-      }
+  /**
+   * Returns the number of requests waiting on a floor to go in a direction.
+   *
+   * @param floor     the floor.
+   * @param direction the direction, UP or DOWN.
+   * @return the number of waiting requests.
+   * @throws IllegalArgumentException if the floor is outside the building or the direction is
+   *                                  STOPPED.
+   */
+  public int getNumWaitingAt(int floor, Direction direction) throws IllegalArgumentException {
+    if (floor < 0 || floor >= numFloors) {
+      throw new IllegalArgumentException("The floor must be inside the building.");
     }
+    return hallCalls(direction).getDepth(floor);
   }
 
   /**
-   * Call step() on each elevator in the building.
+   * Returns the floors where requests wait to go in a direction, as a bitmask: bit f is set if
+   * someone on floor f waits to go that way.
+   *
+   * @param direction the direction, UP or DOWN.
+   * @return the floor mask of the waiting requests.
+   * @throws IllegalArgumentException if the direction is STOPPED.
+   */
+  public int getWaitingFloorMask(Direction direction) throws IllegalArgumentException {
+    return hallCalls(direction).getFloorMask();
+  }
+
+  /**
+   * Returns the nearest floor ahead of an elevator where requests wait to go in its direction.
+   * For an elevator going UP that is the nearest floor at or above it with up requests, for one
+   * going DOWN the nearest floor at or below it with down requests.
+   *
+   * @param floor     the floor of the elevator.
+   * @param direction the direction of the elevator, UP or DOWN.
+   * @return the nearest floor with requests ahead, or -1 if there is none.
+   * @throws IllegalArgumentException if the direction is STOPPED.
+   */
+  public int getNearestWaitingFloor(int floor, Direction direction)
+      throws IllegalArgumentException {
+    HallCallQueue requests = hallCalls(direction);
+    return direction == Direction.UP
+        ? requests.nearestAtOrAbove(floor)
+        : requests.nearestAtOrBelow(floor);
+  }
+
+  /**
+   * Write the whole state of the building to a checkpoint that readCheckpoint() turns back into
+   * a building. The restored building goes through exactly the same states as this one when
+   * both are given the same requests and steps.
+   * <p>
+   * The checkpoint is a compact binary format: the magic number and the format version, the
+   * size of the building and the class of its dispatch strategy, the system status, the tick,
+   * the state version and the number of requests distributed, then the packed status and the
+   * state version of every elevator, both hall call queues with the arrival numbers of their
+   * requests, and last whatever state the dispatch strategy keeps. Requests submitted with
+   * submitRequest() and not drained yet, the request recorder and the parallel stepping
+   * settings are not part of it.
+   * </p>
+   *
+   * @param out where to write the checkpoint.
+   * @throws IOException if the checkpoint cannot be written.
    */
-  private void stepEachElevator() {
+  public void writeCheckpoint(DataOutput out) throws IOException {
+    out.writeInt(CHECKPOINT_MAGIC);
+    out.writeInt(CHECKPOINT_VERSION);
+    out.writeInt(numFloors);
+    out.writeInt(numElevators);
+    out.writeInt(elevatorCapacity);
+    out.writeUTF(dispatchStrategy.getClass().getName());
+    out.writeByte(elevatorSystemStatus.ordinal());
+    out.writeLong(currentTick);
+    out.writeLong(stateVersion);
+    out.writeLong(requestsDistributed);
     for (int i = 0; i < numElevators; ++i) {
-      elevators[i].step();
+      out.writeLong(elevators[i].getPackedStatus());
+      out.writeLong(elevators[i].getStateVersion());
     }
+    upRequests.writeTo(out);
+    downRequests.writeTo(out);
+    dispatchStrategy.writeState(out);
   }
 
   /**
-   * Check if all elevators have stopped.
+   * Create a building from a checkpoint written by writeCheckpoint().
    *
-   * @return true if all elevators have stopped (at first floor), false otherwise.
+   * @param in               the checkpoint.
+   * @param dispatchStrategy a new strategy of the same class as the strategy of the building
+   *                         the checkpoint was taken from.
+   * @return the restored building.
+   * @throws IOException              if the checkpoint cannot be read or is not valid.
+   * @throws IllegalArgumentException if the strategy is null or of another class.
    */
-  private boolean allElevatorsStopped() {
+  public static Building readCheckpoint(DataInput in, DispatchStrategy dispatchStrategy)
+      throws IOException, IllegalArgumentException {
+    if (in.readInt() != CHECKPOINT_MAGIC) {
+      throw new IOException("Not a building checkpoint.");
+    }
+    int version = in.readInt();
+    if (version != CHECKPOINT_VERSION) {
+      throw new IOException("Unsupported building checkpoint version " + version);
+    }
+    int numFloors = in.readInt();
+    int numElevators = in.readInt();
+    int elevatorCapacity = in.readInt();
+    String strategyClass = in.readUTF();
+    if (dispatchStrategy == null || !dispatchStrategy.getClass().getName().equals(strategyClass)) {
+      throw new IllegalArgumentException("The checkpoint needs a new " + strategyClass + ".");
+    }
+
+    Building building;
+    try {
+      building = new Building(numFloors, numElevators, elevatorCapacity, dispatchStrategy);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Invalid building in checkpoint: " + e.getMessage(), e);
+    }
+    building.readState(in);
+    return building;
+  }
+
+  /**
+   * Read the state written by writeCheckpoint() after the size and the strategy class.
+   *
+   * @param in the checkpoint.
+   * @throws IOException if the checkpoint cannot be read or is not valid.
+   */
+  private void readState(DataInput in) throws IOException {
+    int status = in.readUnsignedByte();
+    if (status >= SYSTEM_STATUSES.length) {
+      throw new IOException("Invalid system status in checkpoint: " + status);
+    }
+    elevatorSystemStatus = SYSTEM_STATUSES[status];
+    currentTick = in.readLong();
+    stateVersion = in.readLong();
+    requestsDistributed = in.readLong();
     for (int i = 0; i < numElevators; ++i) {
-      if (elevators[i].getCurrentFloor() != 0) {
-        return false;
+      long elevatorStatus = in.readLong();
+      long elevatorVersion = in.readLong();
+      try {
+        elevators[i].restoreStatus(elevatorStatus, elevatorVersion);
+      } catch (IllegalArgumentException e) {
+        throw new IOException("Invalid elevator " + i + " in checkpoint: " + e.getMessage(), e);
       }
     }
-    return true;
+    upRequests.readFrom(in);
+    downRequests.readFrom(in);
+    dispatchStrategy.start(numFloors, numElevators, elevatorCapacity);
+    dispatchStrategy.readState(in);
+    updateElevatorIndex();
+    noteChanges();
+  }
+  @Override
+  void startElevators() {
+    for (int i = 0; i < numElevators; ++i) {
+      elevators[i].start();
+      elevatorIndex.update(i, elevators[i]);
+    }
+    dispatchStrategy.start(numFloors, numElevators, elevatorCapacity);
   }
 
   @Override
-  public void stepElevatorSystem() throws IllegalStateException {
-    // if the elevator system is out of service, throw an exception
-    if (elevatorSystemStatus == ElevatorSystemStatus.outOfService) {
-      throw new IllegalStateException("Building is out of service. Cannot step the"
-          + " elevator system.");
+  void takeElevatorsOutOfService() {
+    for (int i = 0; i < numElevators; ++i) {
+      elevators[i].takeOutOfService();
+      elevatorIndex.update(i, elevators[i]);
+    }
+  }
+
+  @Override
+  void requestAccepted(int startFloor, int endFloor) {
+    if (requestRecorder != null) {
+      RequestInbox.record(requestRecorder, currentTick, startFloor, endFloor);
+    }
+  }
+
+  /**
+   * Submit a request from any thread. Unlike addRequest() this can be called while another
+   * thread is stepping the building, and it never blocks. The request waits in a lock-free inbox
+   * until the start of the next step, where every submitted request is moved into the up or
+   * down requests in one go. Requests drained while the elevator system is not running are
+   * dropped, just like addRequest() would drop them.
+   *
+   * @param request the request to submit.
+   */
+  public void submitRequest(Request request) {
+    inbox.submit(request.getStartFloor(), request.getEndFloor());
+  }
+
+  /**
+   * Record every request the building accepts from now on, with the tick before the step that
+   * first sees it, so the requests can be replayed with a RequestTraceReplayer. Passing null
+   * stops recording. The building does not close the recorder. Requests from addRequest() and
+   * from submitRequest() are both queued before they are recorded, so when the recorder fails,
+   * the request it failed on is still in the building and only the trace misses it.
+   * <p>
+   * A recorder only takes ticks in order, so it cannot be moved to a building that is behind
+   * it, such as a new building or one restored from an earlier checkpoint. That is rejected
+   * here, instead of failing on the first request the building accepts.
+   * </p>
+   *
+   * @param recorder the recorder, or null.
+   * @throws IllegalArgumentException if the recorder already recorded a later tick than the
+   *                                  current tick of the building.
+   */
+  public void setRequestRecorder(RequestTraceRecorder recorder) throws IllegalArgumentException {
+    if (recorder != null && recorder.getLastTick() > currentTick) {
+      throw new IllegalArgumentException("The recorder is at tick " + recorder.getLastTick()
+          + ", after the current tick " + currentTick + " of the building.");
     }
+    this.requestRecorder = recorder;
+  }
 
-    // If the elevator system is running, distribute requests
-    // to the elevators and step each elevator
+  /**
+   * Returns the metrics of the requests submitted through submitRequest(): how many were
+   * drained, the drained batch sizes and how long the requests waited to be drained. This can
+   * be called from any thread, it returns the metrics as of the end of the last drain.
+   *
+   * @return the ingestion metrics.
+   */
+  public IngestionMetrics getIngestionMetrics() {
+    return inbox.getMetrics();
+  }
+
+  /**
+   * Move the submitted requests into the up and down requests, or drop them if the elevator
+   * system is not running.
+   *
+   * @param tick the tick before the step that drains the requests, to record them on.
+   */
+  @Override
+  void drainInbox(long tick) {
+    if (inbox.isEmpty()) {
+      return;
+    }
     if (elevatorSystemStatus == ElevatorSystemStatus.running) {
-      distributeRequests();
-      stepEachElevator();
-    } else {
-      // If the elevator system is stopping, also step each elevator to bring them to ground floor
-      // and check if all elevators have stopped.
-      stepEachElevator();
-      // If so, set the elevator system status to out of service and open the doors.
-      if (allElevatorsStopped()) {
-        elevatorSystemStatus = ElevatorSystemStatus.outOfService;
-        // make sure the elevators' door are open
-        stepEachElevator();
+      if (inbox.drainTo(upRequests, downRequests, numFloors, requestRecorder, tick) > 0) {
+        stateVersion++;
       }
+    } else {
+      inbox.discard();
     }
   }
 
+  /**
+   * Hand the waiting requests to the elevators with the dispatch strategy. This is the part of
+   * a step that depends on how deep the queues are, so it is package-private for the
+   * benchmarks to measure on its own.
+   */
   @Override
-  public void stopElevatorSystem() throws IllegalStateException {
-    if (elevatorSystemStatus != ElevatorSystemStatus.running) {
-      throw new IllegalStateException("Elevator system is already stopping or out of service.");
+  void distributeRequests() {
+    requestsDistributed += dispatchStrategy.dispatch(elevators, elevatorIndex, upRequests,
+        downRequests);
+  }
+
+  /**
+   * Step the elevators in parallel on a fork-join pool. Once the requests have been distributed
+   * the elevators do not depend on each other, so the result is exactly the same as stepping
+   * them one after the other. The fleet is split into pieces of at most grainSize elevators,
+   * and a building with no more than grainSize elevators is still stepped sequentially.
+   * Passing a null pool turns parallel stepping off again.
+   *
+   * @param pool      the pool to step the elevators on, or null to step them sequentially.
+   * @param grainSize the largest number of elevators stepped by one task.
+   * @throws IllegalArgumentException if the grain size is not positive.
+   */
+  public void setParallelStepping(ForkJoinPool pool, int grainSize)
+      throws IllegalArgumentException {
+    if (grainSize < 1) {
+      throw new IllegalArgumentException("The grain size must be a positive integer.");
     }
+    this.stepPool = pool;
+    this.stepGrainSize = grainSize;
+  }
 
-    // If the elevator system is running, stop each elevator in the building
-    // set the elevator system status to stopping, and clear the requests.
+  /**
+   * Call step() on each elevator in the building.
+   */
+  @Override
+  void stepEachElevator() {
+    if (stepPool != null && numElevators > stepGrainSize) {
+      stepPool.invoke(new ElevatorStepTask(elevators, 0, numElevators, stepGrainSize));
+      updateElevatorIndex();
+      return;
+    }
     for (int i = 0; i < numElevators; ++i) {
-      elevators[i].takeOutOfService();
+      elevators[i].step();
+      elevatorIndex.update(i, elevators[i]);
     }
-    elevatorSystemStatus = ElevatorSystemStatus.stopping;
-    upRequests.clear();
-    downRequests.clear();
   }
-}
 
+  /**
+   * Advance the elevator system by a number of steps, skipping the idle steps.
+   * <p>
+   * Instead of stepping every elevator one step at a time, this works out how many steps can
+   * pass before the next event of any elevator (a door closing, the end of a wait, the arrival
+   * at a requested floor) and jumps every elevator straight there. Steps that hand out
+   * requests are still taken one at a time. The building ends up in exactly the same state as
+   * calling stepElevatorSystem() the same number of times. No requests arrive in between, so
+   * a caller feeding new requests should fast forward to the step where they arrive, add them,
+   * and carry on from there.
+   * </p>
+   *
+   * @param ticks the number of steps to advance.
+   * @return the number of steps taken. This is less than ticks if the elevator system went
+   *         out of service on the way.
+   * @throws IllegalStateException if the elevator system is out of service.
+   */
+  public long fastForward(long ticks) throws IllegalStateException {
+    if (elevatorSystemStatus == ElevatorSystemStatus.outOfService) {
+      throw new IllegalStateException("Building is out of service. Cannot step the"
+          + " elevator system.");
+    }
+
+    long taken = 0;
+    while (taken < ticks && elevatorSystemStatus != ElevatorSystemStatus.outOfService) {
+      drainInbox(currentTick);
+      long skip = Math.min(ticks - taken, Integer.MAX_VALUE);
+      for (int i = 0; i < numElevators && skip > 1; ++i) {
+        skip = Math.min(skip, elevators[i].ticksUntilNextEvent());
+      }
+
+      // Steps that distribute requests or may finish stopping are taken one at a time.
+      if (skip <= 1
+          || (elevatorSystemStatus == ElevatorSystemStatus.running
+              && dispatchStrategy.mayDispatch(elevators, elevatorIndex, upRequests,
+                  downRequests))
+          || (elevatorSystemStatus == ElevatorSystemStatus.stopping && allElevatorsStopped())) {
+        stepElevatorSystem();
+        taken++;
+        continue;
+      }
 
+      for (int i = 0; i < numElevators; ++i) {
+        elevators[i].advance((int) skip);
+        elevatorIndex.update(i, elevators[i]);
+      }
+      currentTick += skip;
+      stateVersion++;
+      taken += skip;
+
+      // No elevator reaches the ground floor before the last of the skipped steps,
+      // so the stopping check only needs to be done once.
+      if (elevatorSystemStatus == ElevatorSystemStatus.stopping && allElevatorsStopped()) {
+        elevatorSystemStatus = ElevatorSystemStatus.outOfService;
+        stepEachElevator();
+      }
+    }
+    noteChanges();
+    return taken;
+  }
+}
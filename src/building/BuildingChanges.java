@@ -0,0 +1,152 @@
+package building;
+
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+import java.util.Arrays;
+
+/**
+ * This is the reporting class for what changed in a building since a given state version. It
+ * holds the reports of the elevators that changed, the floors whose number of waiting up or
+ * down requests changed together with the new numbers, and the version the changes lead to.
+ * A client that applies the changes to what it had at the old version has the state at the new
+ * version, and asks for the changes since the new version next time.
+ */
+public class BuildingChanges {
+  private final long fromVersion;
+  private final long toVersion;
+  private final ElevatorSystemStatus systemStatus;
+  private final ElevatorReport[] elevatorReports;
+  private final int[] upFloors;
+  private final int[] upDepths;
+  private final int[] downFloors;
+  private final int[] downDepths;
+
+  /**
+   * This constructor is used to create a new BuildingChanges object.
+   *
+   * @param fromVersion     The version the changes start from.
+   * @param toVersion       The version the changes lead to.
+   * @param systemStatus    The status of the elevator system at the new version.
+   * @param elevatorReports The reports of the elevators that changed.
+   * @param upFloors        The floors whose number of waiting up requests changed.
+   * @param upDepths        The new number of waiting up requests on each of those floors.
+   * @param downFloors      The floors whose number of waiting down requests changed.
+   * @param downDepths      The new number of waiting down requests on each of those floors.
+   */
+  public BuildingChanges(long fromVersion,
+                         long toVersion,
+                         ElevatorSystemStatus systemStatus,
+                         ElevatorReport[] elevatorReports,
+                         int[] upFloors,
+                         int[] upDepths,
+                         int[] downFloors,
+                         int[] downDepths) {
+    this.fromVersion = fromVersion;
+    this.toVersion = toVersion;
+    this.systemStatus = systemStatus;
+    this.elevatorReports = elevatorReports;
+    this.upFloors = upFloors;
+    this.upDepths = upDepths;
+    this.downFloors = downFloors;
+    this.downDepths = downDepths;
+  }
+
+  /**
+   * This method is used to get the version the changes start from.
+   *
+   * @return the old version.
+   */
+  public long getFromVersion() {
+    return fromVersion;
+  }
+
+  /**
+   * This method is used to get the version the changes lead to.
+   *
+   * @return the new version.
+   */
+  public long getToVersion() {
+    return toVersion;
+  }
+
+  /**
+   * This method is used to get the status of the elevator system at the new version.
+   *
+   * @return the status of the elevator system.
+   */
+  public ElevatorSystemStatus getSystemStatus() {
+    return systemStatus;
+  }
+
+  /**
+   * This method is used to get the reports of the elevators that changed. The elevator id of
+   * each report tells which elevator it is.
+   *
+   * @return the reports of the changed elevators.
+   */
+  public ElevatorReport[] getElevatorReports() {
+    return elevatorReports;
+  }
+
+  /**
+   * This method is used to get the floors whose number of waiting up requests changed.
+   *
+   * @return the changed floors.
+   */
+  public int[] getUpFloors() {
+    return upFloors;
+  }
+
+  /**
+   * This method is used to get the new number of waiting up requests on the changed floors.
+   *
+   * @return the numbers of waiting up requests, in the order of getUpFloors().
+   */
+  public int[] getUpDepths() {
+    return upDepths;
+  }
+
+  /**
+   * This method is used to get the floors whose number of waiting down requests changed.
+   *
+   * @return the changed floors.
+   */
+  public int[] getDownFloors() {
+    return downFloors;
+  }
+
+  /**
+   * This method is used to get the new number of waiting down requests on the changed floors.
+   *
+   * @return the numbers of waiting down requests, in the order of getDownFloors().
+   */
+  public int[] getDownDepths() {
+    return downDepths;
+  }
+
+  /**
+   * This method is used to check if nothing changed.
+   *
+   * @return true if no elevator and no queue changed, false otherwise.
+   */
+  public boolean isEmpty() {
+    return elevatorReports.length == 0 && upFloors.length == 0 && downFloors.length == 0;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("Building Changes: ").append(fromVersion).append(" -> ").append(toVersion)
+        .append("\n");
+    sb.append("Elevator System Status: ").append(systemStatus).append("\n");
+    sb.append("Up Floors: ").append(Arrays.toString(upFloors))
+        .append(" Depths: ").append(Arrays.toString(upDepths)).append("\n");
+    sb.append("Down Floors: ").append(Arrays.toString(downFloors))
+        .append(" Depths: ").append(Arrays.toString(downDepths)).append("\n");
+    sb.append("Elevator Reports: ").append("\n");
+    for (ElevatorReport report : elevatorReports) {
+      sb.append(report).append("\n");
+    }
+    return sb.toString().trim();
+  }
+}
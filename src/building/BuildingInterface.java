@@ -1,5 +1,8 @@
 package building;
 
+import building.enums.ElevatorSystemStatus;
+import java.util.Collection;
+import java.util.function.Predicate;
 import scanerzus.Request;
 
 /**
@@ -37,6 +40,61 @@ public interface BuildingInterface {
    */
   BuildingReport getElevatorSystemStatus();
 
+  /**
+   * Fills a snapshot with the state of the building: the status of every elevator and the
+   * number of requests waiting on every floor. Filling the same snapshot again and again
+   * allocates nothing.
+   *
+   * @param out the snapshot to fill, made for a building of this size.
+   * @throws IllegalArgumentException if the snapshot is for a building of another size.
+   */
+  void snapshotInto(BuildingSnapshot out) throws IllegalArgumentException;
+
+  /**
+   * Packs the status of every elevator into an array of longs, element i for elevator i, see
+   * PackedElevatorStatus. Passing the same array every time takes a snapshot of the whole
+   * fleet without allocating anything.
+   *
+   * @param into the array to fill, or null.
+   * @return into if it holds a status for every elevator, otherwise a new array.
+   */
+  long[] getPackedElevatorStatus(long[] into);
+
+  /**
+   * Returns the state version of the building. It goes up every time the elevator system is
+   * started, stopped or stepped, or requests are added, and stays the same in between.
+   *
+   * @return the state version.
+   */
+  long getStateVersion();
+
+  /**
+   * Returns what changed in the building after a state version: the reports of the elevators
+   * that changed, the floors whose number of waiting up or down requests changed, and the
+   * current version. A client polling for changes passes the version of the previous answer,
+   * or -1 the first time to get everything.
+   *
+   * @param version the state version the client has.
+   * @return the changes since the version.
+   * @throws IllegalArgumentException if the version is newer than the current version.
+   */
+  BuildingChanges getChangesSince(long version) throws IllegalArgumentException;
+
+  /**
+   * Returns the status of the elevator system without building a full report.
+   *
+   * @return the status of the elevator system.
+   */
+  ElevatorSystemStatus getSystemStatus();
+
+  /**
+   * Returns true if every request has been served. That is, no requests are waiting for an
+   * elevator and no elevator has a floor left to stop at.
+   *
+   * @return true if all requests have been served, false otherwise.
+   */
+  boolean allRequestsServed();
+
   /**
    * Starts the elevator system. If the elevator system is still running or stopping, this method
    * throws an IllegalStateException. if the elevator system is out of service, this method starts
@@ -52,13 +110,38 @@ public interface BuildingInterface {
    * <p>
    * If the elevator system is running, this method adds the request to the appropriate list. And
    * returns true to indicate that the request was added. If the elevator system is not running,
-   * this method does nothing and returns false.
+   * or a floor of the request is outside the building, this method does nothing and returns
+   * false.
    *
    * @param request the request to add.
    * @return true if the request was added, false otherwise.
    */
   boolean addRequest(Request request);
 
+  /**
+   * Adds a batch of requests to the building.
+   * <p>
+   * If the elevator system is running, every request whose floors are inside the building is
+   * added to the up or down requests in one pass, exactly as addRequest() would add it, and
+   * the others are rejected. If the elevator system is not running, every request is rejected.
+   * </p>
+   *
+   * @param requests the requests to add.
+   * @return the number of accepted and rejected requests, and which ones were rejected.
+   */
+  RequestBatchResult addRequests(Collection<? extends Request> requests);
+
+  /**
+   * Adds a batch of requests given as start and end floor pairs. Element 2i is the start floor
+   * and element 2i + 1 the end floor of request i. Otherwise this works like
+   * addRequests(Collection).
+   *
+   * @param floorPairs the start and end floors of the requests.
+   * @return the number of accepted and rejected requests, and which ones were rejected.
+   * @throws IllegalArgumentException if the array has an odd length.
+   */
+  RequestBatchResult addRequests(int[] floorPairs) throws IllegalArgumentException;
+
   /**
    * Steps the elevators in the building. If the elevator system is out of service, this method
    * throws an IllegalStateException. If the elevator system is running, this method distributes the
@@ -70,6 +153,35 @@ public interface BuildingInterface {
    */
   void stepElevatorSystem() throws IllegalStateException;
 
+  /**
+   * Steps the elevators in the building a number of times. This is the same as calling
+   * stepElevatorSystem() that many times, except that it stops early once the elevator system
+   * is out of service, and that no report is built in between.
+   *
+   * @param ticks the number of steps to take.
+   * @return the number of steps taken.
+   * @throws IllegalStateException    if the elevator system is out of service.
+   * @throws IllegalArgumentException if ticks is negative.
+   */
+  int stepElevatorSystem(int ticks) throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Steps the elevators in the building until a condition holds. The condition is checked
+   * before every step, so nothing is stepped if it already holds. Stepping also stops when the
+   * elevator system is out of service or after maxTicks steps.
+   * <p>
+   * For example {@code runUntil(BuildingInterface::allRequestsServed, 10_000)} runs the
+   * building until every waiting request has been delivered.
+   * </p>
+   *
+   * @param condition the condition to stop at.
+   * @param maxTicks  the largest number of steps to take.
+   * @return the number of steps taken.
+   * @throws IllegalStateException if the elevator system is out of service.
+   */
+  long runUntil(Predicate<? super BuildingInterface> condition, long maxTicks)
+      throws IllegalStateException;
+
   /**
    * Stops the elevator system.
    * <p>
@@ -0,0 +1,187 @@
+package building;
+
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+import elevator.ElevatorReportBuffer;
+
+/**
+ * A reusable snapshot of a building, filled in by {@link BuildingInterface#snapshotInto}.
+ * <p></p>
+ * It holds the same information as a {@link BuildingReport}, but in arrays of primitives that
+ * are allocated once: the id and packed status of every elevator, see
+ * elevator.PackedElevatorStatus, and the number of up and down requests waiting on every
+ * floor. A telemetry loop that keeps one snapshot and fills it again on every pass produces
+ * no garbage, however large the fleet. Filling it again overwrites the previous state.
+ */
+public class BuildingSnapshot {
+  private final int numFloors;
+  private final int numElevators;
+
+  private long stateVersion;
+  private ElevatorSystemStatus systemStatus;
+
+  private final int[] elevatorIds;
+  private final long[] elevatorStatuses;
+  private final int[] upDepths;
+  private final int[] downDepths;
+
+  /**
+   * This constructor is used to create an empty snapshot for a building of the given size.
+   *
+   * @param numFloors    The number of floors in the building.
+   * @param numElevators The number of elevators in the building.
+   * @throws IllegalArgumentException if either number is not positive.
+   */
+  public BuildingSnapshot(int numFloors, int numElevators) throws IllegalArgumentException {
+    if (numFloors < 1 || numElevators < 1) {
+      throw new IllegalArgumentException("A snapshot needs at least one floor and one elevator.");
+    }
+    this.numFloors = numFloors;
+    this.numElevators = numElevators;
+    this.stateVersion = -1;
+    this.elevatorIds = new int[numElevators];
+    this.elevatorStatuses = new long[numElevators];
+    this.upDepths = new int[numFloors];
+    this.downDepths = new int[numFloors];
+  }
+
+  /**
+   * Check that the snapshot fits a building and take the state of the building.
+   *
+   * @param floors    the number of floors in the building.
+   * @param elevators the number of elevators in the building.
+   * @param version   the state version of the building.
+   * @param status    the status of the elevator system.
+   * @throws IllegalArgumentException if the snapshot is for a building of another size.
+   */
+  void begin(int floors, int elevators, long version, ElevatorSystemStatus status)
+      throws IllegalArgumentException {
+    if (floors != numFloors || elevators != numElevators) {
+      throw new IllegalArgumentException("The snapshot is for a building with " + numFloors
+          + " floors and " + numElevators + " elevators.");
+    }
+    this.stateVersion = version;
+    this.systemStatus = status;
+  }
+
+  /**
+   * Set the state of an elevator.
+   *
+   * @param elevator the elevator index.
+   * @param id       the id of the elevator.
+   * @param status   the packed status of the elevator.
+   */
+  void setElevator(int elevator, int id, long status) {
+    elevatorIds[elevator] = id;
+    elevatorStatuses[elevator] = status;
+  }
+
+  /**
+   * Copy the number of requests waiting on every floor from the hall call queues.
+   *
+   * @param upRequests   the up requests.
+   * @param downRequests the down requests.
+   */
+  void setDepths(HallCallQueue upRequests, HallCallQueue downRequests) {
+    for (int floor = 0; floor < numFloors; floor++) {
+      upDepths[floor] = upRequests.getDepth(floor);
+      downDepths[floor] = downRequests.getDepth(floor);
+    }
+  }
+
+  /**
+   * This method is used to get the number of floors in the building.
+   *
+   * @return the number of floors.
+   */
+  public int getNumFloors() {
+    return numFloors;
+  }
+
+  /**
+   * This method is used to get the number of elevators in the building.
+   *
+   * @return the number of elevators.
+   */
+  public int getNumElevators() {
+    return numElevators;
+  }
+
+  /**
+   * This method is used to get the state version of the building when the snapshot was taken.
+   *
+   * @return the state version, or -1 if the snapshot was never filled.
+   */
+  public long getStateVersion() {
+    return stateVersion;
+  }
+
+  /**
+   * This method is used to get the status of the elevator system.
+   *
+   * @return the status of the elevator system, or null if the snapshot was never filled.
+   */
+  public ElevatorSystemStatus getSystemStatus() {
+    return systemStatus;
+  }
+
+  /**
+   * This method is used to get the id of an elevator.
+   *
+   * @param elevator the elevator index.
+   * @return the id of the elevator.
+   */
+  public int getElevatorId(int elevator) {
+    return elevatorIds[elevator];
+  }
+
+  /**
+   * This method is used to get the packed status of an elevator.
+   *
+   * @param elevator the elevator index.
+   * @return the packed status, see elevator.PackedElevatorStatus.
+   */
+  public long getElevatorStatus(int elevator) {
+    return elevatorStatuses[elevator];
+  }
+
+  /**
+   * This method is used to fill a buffer with the status of an elevator.
+   *
+   * @param elevator the elevator index.
+   * @param out      the buffer to fill.
+   */
+  public void getElevatorStatus(int elevator, ElevatorReportBuffer out) {
+    out.set(elevatorIds[elevator], elevatorStatuses[elevator]);
+  }
+
+  /**
+   * This method is used to get a report of an elevator.
+   *
+   * @param elevator the elevator index.
+   * @return a new report with the status of the elevator.
+   */
+  public ElevatorReport getElevatorReport(int elevator) {
+    return new ElevatorReport(elevatorIds[elevator], elevatorStatuses[elevator]);
+  }
+
+  /**
+   * This method is used to get the number of up requests waiting on a floor.
+   *
+   * @param floor the floor.
+   * @return the number of up requests starting at the floor.
+   */
+  public int getUpDepth(int floor) {
+    return upDepths[floor];
+  }
+
+  /**
+   * This method is used to get the number of down requests waiting on a floor.
+   *
+   * @param floor the floor.
+   * @return the number of down requests starting at the floor.
+   */
+  public int getDownDepth(int floor) {
+    return downDepths[floor];
+  }
+}
@@ -0,0 +1,193 @@
+package building;
+
+import building.enums.ElevatorSystemStatus;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * This class represents a campus, a set of independent buildings that are simulated together.
+ * <p>
+ * The buildings share no state, so the campus splits them into groups and steps every group on
+ * an executor at the same time. Each building ends up in exactly the same state as if it was
+ * stepped on its own. Every building numbers its own elevators from 0.
+ * </p>
+ */
+public class Campus {
+
+  private final List<Building> buildings;
+
+  private final ExecutorService executor;
+
+  private final int groupSize;
+
+  private long currentTick;
+
+  /**
+   * The constructor for the campus. The campus does not shut the executor down.
+   *
+   * @param buildings the buildings of the campus.
+   * @param executor  the executor that steps the buildings, a work-stealing pool works best.
+   * @param groupSize the number of buildings stepped by one task.
+   * @throws IllegalArgumentException if there are no buildings or the group size is not positive.
+   */
+  public Campus(List<Building> buildings, ExecutorService executor, int groupSize)
+      throws IllegalArgumentException {
+    if (buildings == null || buildings.isEmpty()) {
+      throw new IllegalArgumentException("A campus needs at least one building.");
+    }
+    if (executor == null) {
+      throw new IllegalArgumentException("A campus needs an executor to step its buildings.");
+    }
+    if (groupSize < 1) {
+      throw new IllegalArgumentException("The group size must be a positive integer.");
+    }
+    this.buildings = new ArrayList<>(buildings);
+    this.executor = executor;
+    this.groupSize = groupSize;
+  }
+
+  /**
+   * Returns the number of buildings on the campus.
+   *
+   * @return the number of buildings.
+   */
+  public int getNumBuildings() {
+    return buildings.size();
+  }
+
+  /**
+   * Returns a building of the campus.
+   *
+   * @param index the index of the building.
+   * @return the building.
+   */
+  public Building getBuilding(int index) {
+    return buildings.get(index);
+  }
+
+  /**
+   * Returns the buildings of the campus.
+   *
+   * @return a read-only list of the buildings.
+   */
+  public List<Building> getBuildings() {
+    return Collections.unmodifiableList(buildings);
+  }
+
+  /**
+   * Returns the number of steps the campus has taken.
+   *
+   * @return the current tick of the campus.
+   */
+  public long getCurrentTick() {
+    return currentTick;
+  }
+
+  /**
+   * Start the elevator system of every building that is out of service.
+   */
+  public void startAll() {
+    for (Building building : buildings) {
+      if (building.getSystemStatus() == ElevatorSystemStatus.outOfService) {
+        building.startElevatorSystem();
+      }
+    }
+  }
+
+  /**
+   * Step every building by one step.
+   */
+  public void step() {
+    step(1);
+  }
+
+  /**
+   * Step every building by a number of steps. Buildings that are out of service are skipped.
+   * <p>
+   * The buildings do not depend on each other, so each group of buildings runs all of its steps
+   * without waiting for the other groups. The call returns once every building has taken all of
+   * its steps.
+   * </p>
+   *
+   * @param ticks the number of steps, 0 does nothing.
+   * @throws IllegalArgumentException if the number of steps is negative.
+   * @throws IllegalStateException if the thread is interrupted while waiting for the buildings.
+   */
+  public void step(int ticks) throws IllegalArgumentException, IllegalStateException {
+    if (ticks < 0) {
+      throw new IllegalArgumentException("The number of steps must not be negative.");
+    }
+    if (ticks == 0) {
+      return;
+    }
+
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int from = 0; from < buildings.size(); from += groupSize) {
+      List<Building> group = buildings.subList(from, Math.min(from + groupSize,
+          buildings.size()));
+      tasks.add(() -> {
+        for (Building building : group) {
+          stepBuilding(building, ticks);
+        }
+        return null;
+      });
+    }
+
+    try {
+      for (Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while stepping the campus.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("A building failed to step.", e.getCause());
+    }
+    currentTick += ticks;
+  }
+
+  /**
+   * Step one building, stopping early if it goes out of service.
+   *
+   * @param building the building.
+   * @param ticks    the number of steps.
+   */
+  private static void stepBuilding(Building building, int ticks) {
+    if (building.getSystemStatus() != ElevatorSystemStatus.outOfService) {
+      building.stepElevatorSystem(ticks);
+    }
+  }
+
+  /**
+   * Returns a report with the throughput and queue statistics of the whole campus.
+   *
+   * @return the campus report.
+   */
+  public CampusReport getCampusReport() {
+    long distributed = 0;
+    long waitingUp = 0;
+    long waitingDown = 0;
+    int maxWaiting = 0;
+    int running = 0;
+    for (Building building : buildings) {
+      distributed += building.getRequestsDistributed();
+      waitingUp += building.getNumUpRequests();
+      waitingDown += building.getNumDownRequests();
+      maxWaiting = Math.max(maxWaiting,
+          building.getNumUpRequests() + building.getNumDownRequests());
+      if (building.getSystemStatus() == ElevatorSystemStatus.running) {
+        running++;
+      }
+    }
+    return new CampusReport(buildings.size(), running, currentTick, distributed,
+        waitingUp, waitingDown, maxWaiting);
+  }
+}
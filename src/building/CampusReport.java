@@ -0,0 +1,142 @@
+package building;
+
+/**
+ * This is the reporting class for a campus. It sums up the throughput and the queues of all the
+ * buildings of the campus.
+ */
+public class CampusReport {
+  private final int numBuildings;
+  private final int numRunning;
+  private final long currentTick;
+  private final long requestsDistributed;
+  private final long upRequestsWaiting;
+  private final long downRequestsWaiting;
+  private final int maxRequestsWaiting;
+
+  /**
+   * This constructor is used to create a new CampusReport object.
+   *
+   * @param numBuildings        The number of buildings on the campus.
+   * @param numRunning          The number of buildings whose elevator system is running.
+   * @param currentTick         The number of steps the campus has taken.
+   * @param requestsDistributed The number of requests handed to elevators on the campus.
+   * @param upRequestsWaiting   The number of up requests waiting on the campus.
+   * @param downRequestsWaiting The number of down requests waiting on the campus.
+   * @param maxRequestsWaiting  The largest number of requests waiting in one building.
+   */
+  public CampusReport(int numBuildings,
+                      int numRunning,
+                      long currentTick,
+                      long requestsDistributed,
+                      long upRequestsWaiting,
+                      long downRequestsWaiting,
+                      int maxRequestsWaiting) {
+    this.numBuildings = numBuildings;
+    this.numRunning = numRunning;
+    this.currentTick = currentTick;
+    this.requestsDistributed = requestsDistributed;
+    this.upRequestsWaiting = upRequestsWaiting;
+    this.downRequestsWaiting = downRequestsWaiting;
+    this.maxRequestsWaiting = maxRequestsWaiting;
+  }
+
+  /**
+   * This method is used to get the number of buildings on the campus.
+   *
+   * @return the number of buildings.
+   */
+  public int getNumBuildings() {
+    return numBuildings;
+  }
+
+  /**
+   * This method is used to get the number of buildings whose elevator system is running.
+   *
+   * @return the number of running buildings.
+   */
+  public int getNumRunning() {
+    return numRunning;
+  }
+
+  /**
+   * This method is used to get the number of steps the campus has taken.
+   *
+   * @return the current tick of the campus.
+   */
+  public long getCurrentTick() {
+    return currentTick;
+  }
+
+  /**
+   * This method is used to get the number of requests handed to elevators on the campus.
+   *
+   * @return the number of distributed requests.
+   */
+  public long getRequestsDistributed() {
+    return requestsDistributed;
+  }
+
+  /**
+   * This method is used to get the campus throughput, the requests distributed per step.
+   *
+   * @return the number of requests distributed per step, 0 before the first step.
+   */
+  public double getThroughput() {
+    if (currentTick == 0) {
+      return 0;
+    }
+    return (double) requestsDistributed / currentTick;
+  }
+
+  /**
+   * This method is used to get the number of up requests waiting on the campus.
+   *
+   * @return the number of waiting up requests.
+   */
+  public long getUpRequestsWaiting() {
+    return upRequestsWaiting;
+  }
+
+  /**
+   * This method is used to get the number of down requests waiting on the campus.
+   *
+   * @return the number of waiting down requests.
+   */
+  public long getDownRequestsWaiting() {
+    return downRequestsWaiting;
+  }
+
+  /**
+   * This method is used to get the average number of requests waiting in a building.
+   *
+   * @return the average queue length per building.
+   */
+  public double getMeanRequestsWaiting() {
+    return (double) (upRequestsWaiting + downRequestsWaiting) / numBuildings;
+  }
+
+  /**
+   * This method is used to get the largest number of requests waiting in one building.
+   *
+   * @return the longest queue of the campus.
+   */
+  public int getMaxRequestsWaiting() {
+    return maxRequestsWaiting;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("Campus Report:\n");
+    sb.append("Number of Buildings: ").append(this.numBuildings).append("\n");
+    sb.append("Running Buildings: ").append(this.numRunning).append("\n");
+    sb.append("Current Tick: ").append(this.currentTick).append("\n");
+    sb.append("Requests Distributed: ").append(this.requestsDistributed).append("\n");
+    sb.append(String.format("Throughput: %.3f requests/step%n", getThroughput()));
+    sb.append("Up Requests Waiting: ").append(this.upRequestsWaiting).append("\n");
+    sb.append("Down Requests Waiting: ").append(this.downRequestsWaiting).append("\n");
+    sb.append(String.format("Mean Requests Waiting: %.3f%n", getMeanRequestsWaiting()));
+    sb.append("Max Requests Waiting: ").append(this.maxRequestsWaiting);
+    return sb.toString();
+  }
+}
@@ -0,0 +1,175 @@
+package building;
+
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+import java.util.function.IntFunction;
+
+/**
+ * Remembers at which state version of a building each elevator and each hall call queue depth
+ * last changed, so that a report can be limited to what changed since a given version.
+ * <p>
+ * The log only keeps the last change of everything, never a history, so it has a fixed size
+ * however long the building runs. The building tells it about the elevators by their state
+ * versions, which is a comparison per elevator, and about the queues by their per-floor
+ * depths, which only looks at the floors where someone waits or waited.
+ * </p>
+ */
+class ChangeLog {
+
+  private final int numFloors;
+
+  /**
+   * The state version of every elevator when it was last looked at.
+   */
+  private final long[] elevatorVersions;
+
+  /**
+   * The building version at which every elevator last changed.
+   */
+  private final long[] elevatorChangedAt;
+
+  /**
+   * The depth of every floor of the up and down queues when last looked at, at
+   * [direction * numFloors + floor] with direction 0 for up and 1 for down.
+   */
+  private final int[] depths;
+
+  /**
+   * The building version at which every depth last changed, indexed like depths.
+   */
+  private final long[] depthChangedAt;
+
+  /**
+   * The floors with a depth above 0 when last looked at, for up and down.
+   */
+  private final int[] depthMasks = new int[2];
+
+  /**
+   * The constructor for a log where nothing has changed yet.
+   *
+   * @param numFloors    the number of floors in the building.
+   * @param numElevators the number of elevators in the building.
+   */
+  ChangeLog(int numFloors, int numElevators) {
+    this.numFloors = numFloors;
+    this.elevatorVersions = new long[numElevators];
+    this.elevatorChangedAt = new long[numElevators];
+    this.depths = new int[2 * numFloors];
+    this.depthChangedAt = new long[2 * numFloors];
+  }
+
+  /**
+   * Note the state version of an elevator.
+   *
+   * @param index           the index of the elevator.
+   * @param elevatorVersion the current state version of the elevator.
+   * @param version         the current state version of the building.
+   */
+  void noteElevator(int index, long elevatorVersion, long version) {
+    if (elevatorVersions[index] != elevatorVersion) {
+      elevatorVersions[index] = elevatorVersion;
+      elevatorChangedAt[index] = version;
+    }
+  }
+
+  /**
+   * Note the depth of one floor of a queue.
+   *
+   * @param direction 0 for the up queue, 1 for the down queue.
+   * @param floor     the floor.
+   * @param depth     the number of requests waiting on the floor.
+   * @param version   the current state version of the building.
+   */
+  void noteDepth(int direction, int floor, int depth, long version) {
+    int at = direction * numFloors + floor;
+    if (depths[at] != depth) {
+      depths[at] = depth;
+      depthChangedAt[at] = version;
+      if (depth == 0) {
+        depthMasks[direction] &= ~(1 << floor);
+      } else {
+        depthMasks[direction] |= 1 << floor;
+      }
+    }
+  }
+
+  /**
+   * Note the depths of every floor of a queue.
+   *
+   * @param direction 0 for the up queue, 1 for the down queue.
+   * @param requests  the queue.
+   * @param version   the current state version of the building.
+   */
+  void noteDepths(int direction, HallCallQueue requests, long version) {
+    // Only floors where someone waits now or waited before can have changed.
+    for (int floors = depthMasks[direction] | requests.getFloorMask(); floors != 0;
+         floors &= floors - 1) {
+      int floor = Integer.numberOfTrailingZeros(floors);
+      noteDepth(direction, floor, requests.getDepth(floor), version);
+    }
+  }
+
+  /**
+   * Collect what changed after a version.
+   *
+   * @param version      the version the client has.
+   * @param current      the current state version of the building.
+   * @param systemStatus the current status of the elevator system.
+   * @param reportOf     builds the report of an elevator from its index.
+   * @return the changes.
+   * @throws IllegalArgumentException if the version is newer than the current version.
+   */
+  BuildingChanges changesSince(long version, long current, ElevatorSystemStatus systemStatus,
+                               IntFunction<ElevatorReport> reportOf)
+      throws IllegalArgumentException {
+    if (version > current) {
+      throw new IllegalArgumentException("Version " + version + " is newer than the current "
+          + "version " + current + ".");
+    }
+
+    int changed = 0;
+    for (int i = 0; i < elevatorChangedAt.length; i++) {
+      if (elevatorChangedAt[i] > version) {
+        changed++;
+      }
+    }
+    ElevatorReport[] reports = new ElevatorReport[changed];
+    changed = 0;
+    for (int i = 0; i < elevatorChangedAt.length && changed < reports.length; i++) {
+      if (elevatorChangedAt[i] > version) {
+        reports[changed++] = reportOf.apply(i);
+      }
+    }
+
+    int[][] up = depthsSince(0, version);
+    int[][] down = depthsSince(1, version);
+    return new BuildingChanges(version, current, systemStatus, reports, up[0], up[1],
+        down[0], down[1]);
+  }
+
+  /**
+   * Collect the floors of a queue whose depth changed after a version, and their depths.
+   *
+   * @param direction 0 for the up queue, 1 for the down queue.
+   * @param version   the version.
+   * @return the changed floors and their depths.
+   */
+  private int[][] depthsSince(int direction, long version) {
+    int mask = 0;
+    for (int floor = 0; floor < numFloors; floor++) {
+      if (depthChangedAt[direction * numFloors + floor] > version) {
+        mask |= 1 << floor;
+      }
+    }
+    int[] floors = new int[Integer.bitCount(mask)];
+    int[] floorDepths = new int[floors.length];
+    int i = 0;
+    for (int rest = mask; rest != 0; rest &= rest - 1) {
+      int floor = Integer.numberOfTrailingZeros(rest);
+      floors[i] = floor;
+      floorDepths[i] = depths[direction * numFloors + floor];
+      i++;
+    }
+    return new int[][] {floors, floorDepths};
+  }
+}
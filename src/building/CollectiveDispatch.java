@@ -0,0 +1,259 @@
+package building;
+
+import building.enums.Direction;
+import elevator.Elevator;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * A collective control dispatch strategy. Elevators still take the oldest requests while they
+ * wait at the bottom or the top, like TerminalDispatch, but a moving elevator also stops for
+ * people waiting ahead of it who go the same way, as long as it has room for them. The people
+ * on a floor are picked up by the nearest elevator on its way there, found with the elevator
+ * index of the building.
+ * <p>
+ * The elevators do not count their passengers, so the strategy follows the load of every
+ * elevator itself: it remembers how many passengers get off at each floor, and lets them off
+ * once the elevator no longer has a stop request for that floor.
+ * </p>
+ */
+public class CollectiveDispatch extends TerminalDispatch {
+
+  /**
+   * The number of passengers in or promised to each elevator.
+   */
+  private int[] load = new int[0];
+
+  /**
+   * The number of passengers getting off at each floor, per elevator.
+   */
+  private int[][] alighting = new int[0][];
+
+  /**
+   * The floors where passengers get off, per elevator, as a bitmask.
+   */
+  private int[] alightingMask = new int[0];
+
+  /**
+   * The requests picked up by one elevator, reused between steps.
+   */
+  private final List<Request> pickUps = new ArrayList<>();
+
+  @Override
+  public void start(int numFloors, int numElevators, int elevatorCapacity) {
+    super.start(numFloors, numElevators, elevatorCapacity);
+    this.load = new int[numElevators];
+    this.alighting = new int[numElevators][numFloors];
+    this.alightingMask = new int[numElevators];
+  }
+
+  /**
+   * Returns the number of passengers in or promised to an elevator.
+   *
+   * @param index the index of the elevator in the building.
+   * @return the load of the elevator.
+   */
+  public int getLoad(int index) {
+    return load[index];
+  }
+
+  @Override
+  public int dispatch(Elevator[] elevators, ElevatorIndex index, HallCallQueue upRequests,
+                      HallCallQueue downRequests) {
+    int distributed = dispatchAtTerminals(elevators, index, upRequests, downRequests);
+    distributed += pickUpOnTheWay(elevators, index, upRequests, Direction.UP);
+    distributed += pickUpOnTheWay(elevators, index, downRequests, Direction.DOWN);
+    return distributed;
+  }
+
+  @Override
+  protected void requestsTaken(int index, List<Request> requests) {
+    // The elevator starts a new run with only these requests.
+    clearLoad(index);
+    addLoad(index, requests);
+  }
+
+  /**
+   * Let moving elevators pick up the people waiting to go their way. Floor by floor, in the
+   * order an elevator going that way passes them, the nearest elevator on its way to the floor
+   * with room left takes as many of them as it has room for.
+   *
+   * @param elevators the elevators of the building.
+   * @param index     the index of the elevators.
+   * @param requests  the requests waiting to go in the direction.
+   * @param direction the direction, UP or DOWN.
+   * @return the number of requests picked up.
+   */
+  private int pickUpOnTheWay(Elevator[] elevators, ElevatorIndex index,
+                             HallCallQueue requests, Direction direction) {
+    int picked = 0;
+    int floors = requests.getFloorMask();
+    while (floors != 0) {
+      int floor = direction == Direction.UP
+          ? Integer.numberOfTrailingZeros(floors)
+          : 31 - Integer.numberOfLeadingZeros(floors);
+      floors &= ~(1 << floor);
+
+      int i = nearestWithRoom(elevators, index, floor, direction);
+      if (i == -1) {
+        continue;
+      }
+      pickUps.clear();
+      picked += requests.drainFloor(floor, getElevatorCapacity() - load[i], pickUps);
+      elevators[i].pickUp(pickUps);
+      addLoad(i, pickUps);
+    }
+    return picked;
+  }
+
+  /**
+   * Find the nearest elevator moving in a direction that is on its way to a floor and has room
+   * left. Of the elevators on the nearest floor the one with the lowest index is chosen.
+   *
+   * @param elevators the elevators of the building.
+   * @param index     the index of the elevators.
+   * @param floor     the floor to reach.
+   * @param direction the direction, UP or DOWN.
+   * @return the index of the elevator, or -1 if there is none.
+   */
+  private int nearestWithRoom(Elevator[] elevators, ElevatorIndex index, int floor,
+                              Direction direction) {
+    int from = index.nearestMovingFloorTowards(floor, direction);
+    while (from != -1) {
+      for (int i = index.nextMoving(from, direction, 0); i != -1;
+           i = index.nextMoving(from, direction, i + 1)) {
+        updateLoad(i, elevators[i]);
+        if (load[i] < getElevatorCapacity()) {
+          return i;
+        }
+      }
+      // Every elevator on that floor is full, look further away.
+      if (direction == Direction.UP) {
+        from = from == 0 ? -1 : index.nearestMovingFloorTowards(from - 1, direction);
+      } else {
+        from = from == getNumFloors() - 1
+            ? -1 : index.nearestMovingFloorTowards(from + 1, direction);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Let off the passengers of an elevator whose floors it no longer has to stop at.
+   *
+   * @param index    the index of the elevator in the building.
+   * @param elevator the elevator.
+   */
+  private void updateLoad(int index, Elevator elevator) {
+    int arrived = alightingMask[index] & ~elevator.getFloorRequestMask();
+    for (int rest = arrived; rest != 0; rest &= rest - 1) {
+      int floor = Integer.numberOfTrailingZeros(rest);
+      load[index] -= alighting[index][floor];
+      alighting[index][floor] = 0;
+    }
+    alightingMask[index] &= ~arrived;
+  }
+
+  /**
+   * Add passengers to an elevator.
+   *
+   * @param index    the index of the elevator in the building.
+   * @param requests the requests of the passengers.
+   */
+  private void addLoad(int index, List<Request> requests) {
+    for (int i = 0; i < requests.size(); i++) {
+      int floor = requests.get(i).getEndFloor();
+      alighting[index][floor]++;
+      alightingMask[index] |= 1 << floor;
+    }
+    load[index] += requests.size();
+  }
+
+  /**
+   * Forget every passenger of an elevator.
+   *
+   * @param index the index of the elevator in the building.
+   */
+  private void clearLoad(int index) {
+    for (int rest = alightingMask[index]; rest != 0; rest &= rest - 1) {
+      alighting[index][Integer.numberOfTrailingZeros(rest)] = 0;
+    }
+    alightingMask[index] = 0;
+    load[index] = 0;
+  }
+
+  @Override
+  public boolean mayDispatch(Elevator[] elevators, ElevatorIndex index,
+                             HallCallQueue upRequests, HallCallQueue downRequests) {
+    if (super.mayDispatch(elevators, index, upRequests, downRequests)) {
+      return true;
+    }
+    return mayPickUp(elevators, index, upRequests, Direction.UP)
+        || mayPickUp(elevators, index, downRequests, Direction.DOWN);
+  }
+
+  /**
+   * Check if a moving elevator could pick up anyone waiting to go its way.
+   *
+   * @param elevators the elevators of the building.
+   * @param index     the index of the elevators.
+   * @param requests  the requests waiting to go in the direction.
+   * @param direction the direction, UP or DOWN.
+   * @return true if some elevator could pick up a request, false otherwise.
+   */
+  private boolean mayPickUp(Elevator[] elevators, ElevatorIndex index, HallCallQueue requests,
+                            Direction direction) {
+    for (int floors = requests.getFloorMask(); floors != 0; floors &= floors - 1) {
+      int floor = Integer.numberOfTrailingZeros(floors);
+      if (nearestWithRoom(elevators, index, floor, direction) != -1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Write the load of every elevator: the number of elevators followed, none before the first
+   * start, then per elevator the number of passengers, the floors they get off at, and how many
+   * get off at each of those floors.
+   *
+   * @param out the checkpoint.
+   * @throws IOException if the checkpoint cannot be written.
+   */
+  @Override
+  public void writeState(DataOutput out) throws IOException {
+    out.writeInt(load.length);
+    for (int i = 0; i < load.length; i++) {
+      out.writeInt(load[i]);
+      out.writeInt(alightingMask[i]);
+      for (int rest = alightingMask[i]; rest != 0; rest &= rest - 1) {
+        out.writeInt(alighting[i][Integer.numberOfTrailingZeros(rest)]);
+      }
+    }
+  }
+
+  @Override
+  public void readState(DataInput in) throws IOException {
+    int count = in.readInt();
+    if (count != 0 && count != load.length) {
+      throw new IOException("The checkpoint holds the load of " + count + " elevators.");
+    }
+    int outside = getNumFloors() >= Integer.SIZE ? 0 : -1 << getNumFloors();
+    for (int i = 0; i < count; i++) {
+      clearLoad(i);
+      load[i] = in.readInt();
+      int mask = in.readInt();
+      if ((mask & outside) != 0) {
+        throw new IOException("Invalid floors for the passengers of elevator " + i + ".");
+      }
+      alightingMask[i] = mask;
+      for (int rest = mask; rest != 0; rest &= rest - 1) {
+        alighting[i][Integer.numberOfTrailingZeros(rest)] = in.readInt();
+      }
+    }
+  }
+}
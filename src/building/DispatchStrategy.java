@@ -0,0 +1,80 @@
+package building;
+
+import elevator.Elevator;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * This interface is used to decide which elevator serves which waiting request.
+ * <p>
+ * A building calls dispatch() once per step while its elevator system is running, before the
+ * elevators step. The strategy hands requests from the up and down queues to the elevators,
+ * either with processRequests() when an elevator waits at the bottom or the top, or with
+ * pickUp() while it is moving. The building also passes an index of its elevators by floor
+ * and direction, so a strategy can find the elevators it wants without looking at all of them.
+ * A strategy that changes the direction or the taking requests flag of an elevator updates the
+ * index for it. A strategy may keep state between steps, so every building needs its own
+ * strategy object.
+ * </p>
+ */
+public interface DispatchStrategy {
+
+  /**
+   * Prepare the strategy for a building whose elevator system has just started. Any state
+   * from an earlier run is thrown away.
+   *
+   * @param numFloors        the number of floors in the building.
+   * @param numElevators     the number of elevators in the building.
+   * @param elevatorCapacity the capacity of the elevators in the building.
+   */
+  void start(int numFloors, int numElevators, int elevatorCapacity);
+
+  /**
+   * Hand waiting requests to the elevators.
+   *
+   * @param elevators    the elevators of the building.
+   * @param index        the index of the elevators.
+   * @param upRequests   the requests waiting to go up.
+   * @param downRequests the requests waiting to go down.
+   * @return the number of requests handed to the elevators.
+   */
+  int dispatch(Elevator[] elevators, ElevatorIndex index, HallCallQueue upRequests,
+               HallCallQueue downRequests);
+
+  /**
+   * Check if the next call to dispatch() could hand out any request. A building skipping idle
+   * steps only skips while this is false, so it may be true when nothing would be handed out,
+   * but never the other way round.
+   *
+   * @param elevators    the elevators of the building.
+   * @param index        the index of the elevators.
+   * @param upRequests   the requests waiting to go up.
+   * @param downRequests the requests waiting to go down.
+   * @return true if requests may be handed out on the next step, false otherwise.
+   */
+  default boolean mayDispatch(Elevator[] elevators, ElevatorIndex index,
+                              HallCallQueue upRequests, HallCallQueue downRequests) {
+    return !upRequests.isEmpty() || !downRequests.isEmpty();
+  }
+
+  /**
+   * Write the state the strategy keeps between steps to a checkpoint of its building. A
+   * strategy without such state writes nothing, which is the default.
+   *
+   * @param out the checkpoint.
+   * @throws IOException if the checkpoint cannot be written.
+   */
+  default void writeState(DataOutput out) throws IOException {
+  }
+
+  /**
+   * Read the state written by writeState() when a building is restored from a checkpoint. The
+   * strategy has been started for the building just before.
+   *
+   * @param in the checkpoint.
+   * @throws IOException if the checkpoint cannot be read or does not hold a valid state.
+   */
+  default void readState(DataInput in) throws IOException {
+  }
+}
@@ -0,0 +1,121 @@
+package building;
+
+import elevator.ElevatorBank;
+import elevator.ElevatorReport;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This class represents a building whose elevators are simulated by an {@link ElevatorBank}.
+ * It follows exactly the same rules as {@link Building}, but keeps the state of all the cars in
+ * parallel arrays so that very large fleets can be stepped in a single loop.
+ * <p>
+ * The queues, the change log, the reports and the rules of a step are shared with Building, so
+ * everything in {@link BuildingInterface} behaves the same. What this building does not have is
+ * everything Building adds on top of that interface, because it works on Elevator objects:
+ * </p>
+ * <ul>
+ *   <li>a {@link DispatchStrategy}: requests are always handed out the way
+ *       {@link TerminalDispatch} does, at the bottom and the top floor.</li>
+ *   <li>submitRequest() from other threads and the ingestion metrics.</li>
+ *   <li>a request recorder, and checkpoints with writeCheckpoint() and readCheckpoint().</li>
+ *   <li>fastForward() and parallel stepping on a fork-join pool.</li>
+ *   <li>the per-floor queries of the waiting requests, such as getNumWaitingAt().</li>
+ * </ul>
+ */
+public class ElevatorBankBuilding extends AbstractBuilding {
+
+  private final ElevatorBank elevators;
+
+  private final List<Request> requestBatch;
+
+  /**
+   * The constructor for the building.
+   *
+   * @param numFloors        the number of floors in the building.
+   * @param numElevators     the number of elevators in the building.
+   * @param elevatorCapacity the capacity of the elevators in the building.
+   */
+  public ElevatorBankBuilding(int numFloors, int numElevators, int elevatorCapacity)
+      throws IllegalArgumentException {
+    super(numFloors, numElevators, elevatorCapacity);
+    this.requestBatch = new ArrayList<>();
+    this.elevators = new ElevatorBank(numElevators, numFloors, elevatorCapacity);
+  }
+
+  @Override
+  int getElevatorId(int i) {
+    return elevators.getElevatorId(i);
+  }
+
+  @Override
+  int getCurrentFloor(int i) {
+    return elevators.getCurrentFloor(i);
+  }
+
+  @Override
+  int getFloorRequestMask(int i) {
+    return elevators.getFloorRequestMask(i);
+  }
+
+  @Override
+  long getElevatorStateVersion(int i) {
+    return elevators.getStateVersion(i);
+  }
+
+  @Override
+  long getPackedStatus(int i) {
+    return elevators.getPackedStatus(i);
+  }
+
+  @Override
+  ElevatorReport getElevatorReport(int i) {
+    return elevators.getElevatorStatus(i);
+  }
+
+  @Override
+  void startElevators() {
+    for (int i = 0; i < numElevators; ++i) {
+      elevators.start(i);
+    }
+  }
+
+  @Override
+  void takeElevatorsOutOfService() {
+    for (int i = 0; i < numElevators; ++i) {
+      elevators.takeOutOfService(i);
+    }
+  }
+
+  /**
+   * Hand the waiting requests to the cars waiting at the bottom or the top floor.
+   * This is the same dispatch rule as {@link TerminalDispatch}.
+   */
+  @Override
+  void distributeRequests() {
+    if (upRequests.isEmpty() && downRequests.isEmpty()) {
+      return;
+    }
+
+    for (int i = 0; i < numElevators; ++i) {
+      if (elevators.isTakingRequests(i)) {
+        int floor = elevators.getCurrentFloor(i);
+        if (floor == 0 && !upRequests.isEmpty()) {
+          requestBatch.clear();
+          upRequests.drainOldest(elevatorCapacity, requestBatch);
+          elevators.processRequests(i, requestBatch);
+        } else if (floor == numFloors - 1 && !downRequests.isEmpty()) {
+          requestBatch.clear();
+          downRequests.drainOldest(elevatorCapacity, requestBatch);
+          elevators.processRequests(i, requestBatch);
+        }
+      }
+    }
+  }
+
+  @Override
+  void stepEachElevator() {
+    elevators.stepAll();
+  }
+}
@@ -0,0 +1,234 @@
+package building;
+
+import building.enums.Direction;
+import elevator.ElevatorInterface;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An index of the elevators of a building by floor, direction and whether they take requests.
+ * <p>
+ * Every elevator falls in one of three groups: taking requests at the bottom or the top,
+ * moving up, or moving down. Within a group the elevators are kept per floor, with a bitmask
+ * of the floors that hold any. Finding the nearest elevator of a group below or above a floor
+ * is a bit trick on that mask, and the elevators on one floor come out in the order of their
+ * index, so a query gives the same elevator a scan over all elevators would give.
+ * </p>
+ * <p>
+ * The index does not watch the elevators. Whoever changes the floor, the direction or the
+ * taking requests flag of an elevator, by stepping it or handing it requests, calls update()
+ * for it afterwards. That is a few comparisons when nothing changed.
+ * </p>
+ */
+public class ElevatorIndex {
+
+  private static final int TAKING_REQUESTS = 0;
+  private static final int MOVING_UP = 1;
+  private static final int MOVING_DOWN = 2;
+  private static final int NUM_GROUPS = 3;
+
+  /**
+   * The key of an elevator that is in no group.
+   */
+  private static final int NOT_INDEXED = -1;
+
+  private final int numFloors;
+
+  /**
+   * The elevators per group and floor, at [group * numFloors + floor].
+   */
+  private final BitSet[] elevatorsAt;
+
+  /**
+   * The floors holding any elevator, per group.
+   */
+  private final int[] floorMasks;
+
+  /**
+   * The number of elevators per group and floor, at [group * numFloors + floor].
+   */
+  private final int[] counts;
+
+  /**
+   * The current key of every elevator, group * numFloors + floor.
+   */
+  private final int[] keys;
+
+  /**
+   * The constructor for an index with no elevator in any group.
+   *
+   * @param numFloors    the number of floors in the building.
+   * @param numElevators the number of elevators in the building.
+   */
+  public ElevatorIndex(int numFloors, int numElevators) {
+    this.numFloors = numFloors;
+    this.elevatorsAt = new BitSet[NUM_GROUPS * numFloors];
+    for (int i = 0; i < elevatorsAt.length; i++) {
+      elevatorsAt[i] = new BitSet();
+    }
+    this.floorMasks = new int[NUM_GROUPS];
+    this.counts = new int[NUM_GROUPS * numFloors];
+    this.keys = new int[numElevators];
+    Arrays.fill(keys, NOT_INDEXED);
+  }
+
+  /**
+   * Work out the key of an elevator from its state.
+   *
+   * @param elevator the elevator.
+   * @return the key of the elevator, or NOT_INDEXED.
+   */
+  private int keyOf(ElevatorInterface elevator) {
+    int group;
+    if (elevator.isTakingRequests()) {
+      group = TAKING_REQUESTS;
+    } else if (elevator.getDirection() == Direction.UP) {
+      group = MOVING_UP;
+    } else if (elevator.getDirection() == Direction.DOWN) {
+      group = MOVING_DOWN;
+    } else {
+      return NOT_INDEXED;
+    }
+    return group * numFloors + elevator.getCurrentFloor();
+  }
+
+  /**
+   * Move an elevator to the group and floor it is in now.
+   *
+   * @param index    the index of the elevator in the building.
+   * @param elevator the elevator.
+   */
+  public void update(int index, ElevatorInterface elevator) {
+    int key = keyOf(elevator);
+    int old = keys[index];
+    if (key == old) {
+      return;
+    }
+    if (old != NOT_INDEXED) {
+      elevatorsAt[old].clear(index);
+      if (--counts[old] == 0) {
+        floorMasks[old / numFloors] &= ~(1 << (old % numFloors));
+      }
+    }
+    if (key != NOT_INDEXED) {
+      elevatorsAt[key].set(index);
+      if (counts[key]++ == 0) {
+        floorMasks[key / numFloors] |= 1 << (key % numFloors);
+      }
+    }
+    keys[index] = key;
+  }
+
+  /**
+   * Returns the group of elevators moving in a direction.
+   *
+   * @param direction the direction, UP or DOWN.
+   * @return the group.
+   * @throws IllegalArgumentException if the direction is STOPPED.
+   */
+  private static int movingGroup(Direction direction) throws IllegalArgumentException {
+    switch (direction) {
+      case UP:
+        return MOVING_UP;
+      case DOWN:
+        return MOVING_DOWN;
+      default:
+        throw new IllegalArgumentException("Moving elevators go either UP or DOWN.");
+    }
+  }
+
+  /**
+   * Returns the next elevator taking requests on a floor.
+   *
+   * @param floor     the floor.
+   * @param fromIndex the lowest elevator index to return.
+   * @return the lowest index of at least fromIndex of an elevator taking requests on the floor,
+   *         or -1 if there is none.
+   */
+  public int nextTakingRequests(int floor, int fromIndex) {
+    return elevatorsAt[TAKING_REQUESTS * numFloors + floor].nextSetBit(fromIndex);
+  }
+
+  /**
+   * Returns the next elevator moving in a direction on a floor.
+   *
+   * @param floor     the floor.
+   * @param direction the direction, UP or DOWN.
+   * @param fromIndex the lowest elevator index to return.
+   * @return the lowest index of at least fromIndex of an elevator moving that way on the floor,
+   *         or -1 if there is none.
+   * @throws IllegalArgumentException if the direction is STOPPED.
+   */
+  public int nextMoving(int floor, Direction direction, int fromIndex)
+      throws IllegalArgumentException {
+    return elevatorsAt[movingGroup(direction) * numFloors + floor].nextSetBit(fromIndex);
+  }
+
+  /**
+   * Returns the floors with elevators moving in a direction, as a bitmask.
+   *
+   * @param direction the direction, UP or DOWN.
+   * @return the floor mask, bit f is set if an elevator on floor f moves that way.
+   * @throws IllegalArgumentException if the direction is STOPPED.
+   */
+  public int getMovingFloorMask(Direction direction) throws IllegalArgumentException {
+    return floorMasks[movingGroup(direction)];
+  }
+
+  /**
+   * Returns the floors with elevators taking requests, as a bitmask.
+   *
+   * @return the floor mask, bit f is set if an elevator on floor f takes requests.
+   */
+  public int getTakingRequestsFloorMask() {
+    return floorMasks[TAKING_REQUESTS];
+  }
+
+  /**
+   * Returns the number of elevators moving in a direction on a floor.
+   *
+   * @param floor     the floor.
+   * @param direction the direction, UP or DOWN.
+   * @return the number of elevators.
+   * @throws IllegalArgumentException if the direction is STOPPED.
+   */
+  public int getNumMoving(int floor, Direction direction) throws IllegalArgumentException {
+    return counts[movingGroup(direction) * numFloors + floor];
+  }
+
+  /**
+   * Returns the nearest floor from which an elevator moving in a direction is on its way to a
+   * floor. For UP that is the nearest floor at or below the given floor with an elevator
+   * moving up, for DOWN the nearest floor at or above it with an elevator moving down.
+   *
+   * @param floor     the floor the elevator has to reach.
+   * @param direction the direction, UP or DOWN.
+   * @return the nearest floor with such an elevator, or -1 if there is none.
+   * @throws IllegalArgumentException if the direction is STOPPED.
+   */
+  public int nearestMovingFloorTowards(int floor, Direction direction)
+      throws IllegalArgumentException {
+    int mask = floorMasks[movingGroup(direction)];
+    if (direction == Direction.UP) {
+      int below = mask & (-1 >>> (31 - floor));
+      return below == 0 ? -1 : 31 - Integer.numberOfLeadingZeros(below);
+    }
+    int above = mask & (-1 << floor);
+    return above == 0 ? -1 : Integer.numberOfTrailingZeros(above);
+  }
+
+  /**
+   * Returns the nearest elevator moving in a direction that is on its way to a floor. Of the
+   * elevators on the nearest floor the one with the lowest index is returned.
+   *
+   * @param floor     the floor the elevator has to reach.
+   * @param direction the direction, UP or DOWN.
+   * @return the index of the elevator, or -1 if there is none.
+   * @throws IllegalArgumentException if the direction is STOPPED.
+   */
+  public int nearestMovingTowards(int floor, Direction direction)
+      throws IllegalArgumentException {
+    int nearest = nearestMovingFloorTowards(floor, direction);
+    return nearest == -1 ? -1 : nextMoving(nearest, direction, 0);
+  }
+}
@@ -0,0 +1,54 @@
+package building;
+
+import elevator.Elevator;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A fork-join task that steps a range of elevators. The range is split in halves until it is
+ * no larger than the grain size, and each piece is stepped sequentially.
+ * <p>
+ * This is only safe once the requests have been distributed, because from then on the step of
+ * one elevator never looks at any other elevator.
+ * </p>
+ */
+class ElevatorStepTask extends RecursiveAction {
+
+  /**
+   * RecursiveAction is Serializable, although a task is never serialized.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private final Elevator[] elevators;
+  private final int from;
+  private final int to;
+  private final int grainSize;
+
+  /**
+   * The constructor for the task.
+   *
+   * @param elevators the elevators of the building.
+   * @param from      the index of the first elevator to step.
+   * @param to        the index after the last elevator to step.
+   * @param grainSize the largest number of elevators stepped without splitting.
+   */
+  ElevatorStepTask(Elevator[] elevators, int from, int to, int grainSize) {
+    this.elevators = elevators;
+    this.from = from;
+    this.to = to;
+    this.grainSize = grainSize;
+  }
+
+  @Override
+  protected void compute() {
+    if (to - from <= grainSize) {
+      for (int i = from; i < to; ++i) {
+        elevators[i].step();
+      }
+      return;
+    }
+
+    int middle = (from + to) >>> 1;
+    invokeAll(new ElevatorStepTask(elevators, from, middle, grainSize),
+        new ElevatorStepTask(elevators, middle, to, grainSize));
+  }
+}
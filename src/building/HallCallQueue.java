@@ -0,0 +1,441 @@
+package building;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import scanerzus.Request;
+
+/**
+ * The hall calls waiting for an elevator in one direction, indexed by their start floor.
+ * <p>
+ * Every floor has its own bucket of waiting requests, and a bitmask tells which floors have
+ * anyone waiting. That makes the number of people waiting on a floor, and the nearest floor
+ * with people waiting above or below an elevator, constant time questions. Every request also
+ * carries its arrival number, so the queue can still hand out the oldest requests first across
+ * all floors, which is what the terminal dispatch of the building does.
+ * </p>
+ */
+public class HallCallQueue {
+
+  /**
+   * Bits of a bucket entry used for the end floor, the rest hold the arrival number.
+   */
+  private static final int END_BITS = 5;
+  private static final long END_MASK = (1L << END_BITS) - 1;
+
+  private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+  private final int numFloors;
+
+  /**
+   * One ring buffer per start floor of (arrival number, end floor) entries.
+   */
+  private final long[][] buckets;
+  private final int[] heads;
+  private final int[] depths;
+
+  /**
+   * Bit f is set if someone is waiting on floor f.
+   */
+  private int floorMask;
+
+  private int size;
+
+  private long nextArrival;
+
+  private final List<Request> view = new AbstractList<Request>() {
+    @Override
+    public Request get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      return select(index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Iterator<Request> iterator() {
+      return new ArrivalOrderIterator();
+    }
+  };
+
+  /**
+   * The constructor for an empty queue.
+   *
+   * @param numFloors the number of floors in the building, at most 32.
+   * @throws IllegalArgumentException if the number of floors is out of range.
+   */
+  public HallCallQueue(int numFloors) throws IllegalArgumentException {
+    if (numFloors < 1 || numFloors > (1 << END_BITS)) {
+      throw new IllegalArgumentException("The number of floors must be between 1 and 32.");
+    }
+    this.numFloors = numFloors;
+    this.buckets = new long[numFloors][INITIAL_BUCKET_CAPACITY];
+    this.heads = new int[numFloors];
+    this.depths = new int[numFloors];
+  }
+
+  /**
+   * Returns the number of requests in the queue.
+   *
+   * @return the number of requests.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns true if the queue is empty.
+   *
+   * @return true if there are no requests in the queue, false otherwise.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the number of requests waiting on a floor.
+   *
+   * @param floor the start floor.
+   * @return the number of requests starting at the floor.
+   */
+  public int getDepth(int floor) {
+    return depths[floor];
+  }
+
+  /**
+   * Returns the floors with requests waiting as a bitmask.
+   *
+   * @return the floor mask, bit f is set if someone is waiting on floor f.
+   */
+  public int getFloorMask() {
+    return floorMask;
+  }
+
+  /**
+   * Returns the nearest floor at or above the given floor with requests waiting.
+   *
+   * @param floor the floor to search from.
+   * @return the nearest floor with requests at or above floor, or -1 if there is none.
+   */
+  public int nearestAtOrAbove(int floor) {
+    int above = floorMask & (-1 << floor);
+    return above == 0 ? -1 : Integer.numberOfTrailingZeros(above);
+  }
+
+  /**
+   * Returns the nearest floor at or below the given floor with requests waiting.
+   *
+   * @param floor the floor to search from.
+   * @return the nearest floor with requests at or below floor, or -1 if there is none.
+   */
+  public int nearestAtOrBelow(int floor) {
+    int below = floorMask & (-1 >>> (31 - floor));
+    return below == 0 ? -1 : 31 - Integer.numberOfLeadingZeros(below);
+  }
+
+  /**
+   * Add a request to the queue. The floors must be inside the building.
+   *
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   */
+  public void add(int startFloor, int endFloor) {
+    long[] bucket = buckets[startFloor];
+    int depth = depths[startFloor];
+    if (depth == bucket.length) {
+      bucket = grow(startFloor);
+    }
+    bucket[(heads[startFloor] + depth) & (bucket.length - 1)] =
+        (nextArrival++ << END_BITS) | endFloor;
+    depths[startFloor] = depth + 1;
+    floorMask |= 1 << startFloor;
+    size++;
+  }
+
+  /**
+   * Double the capacity of the bucket of a floor, moving its requests to the start.
+   *
+   * @param floor the floor.
+   * @return the new bucket.
+   */
+  private long[] grow(int floor) {
+    long[] bucket = buckets[floor];
+    long[] larger = new long[bucket.length * 2];
+    int head = heads[floor];
+    int firstPart = bucket.length - head;
+    System.arraycopy(bucket, head, larger, 0, firstPart);
+    System.arraycopy(bucket, 0, larger, firstPart, head);
+    buckets[floor] = larger;
+    heads[floor] = 0;
+    return larger;
+  }
+
+  /**
+   * Returns the entry at the front of the bucket of a floor.
+   *
+   * @param floor the floor, which must have requests waiting.
+   * @return the entry.
+   */
+  private long peek(int floor) {
+    return buckets[floor][heads[floor]];
+  }
+
+  /**
+   * Remove the entry at the front of the bucket of a floor.
+   *
+   * @param floor the floor, which must have requests waiting.
+   * @return the removed entry.
+   */
+  private long poll(int floor) {
+    long[] bucket = buckets[floor];
+    long entry = bucket[heads[floor]];
+    heads[floor] = (heads[floor] + 1) & (bucket.length - 1);
+    if (--depths[floor] == 0) {
+      floorMask &= ~(1 << floor);
+    }
+    size--;
+    return entry;
+  }
+
+  /**
+   * Returns the floor whose front request arrived first.
+   *
+   * @return the floor with the oldest request, or -1 if the queue is empty.
+   */
+  private int oldestFloor() {
+    int oldest = -1;
+    long oldestEntry = Long.MAX_VALUE;
+    for (int rest = floorMask; rest != 0; rest &= rest - 1) {
+      int floor = Integer.numberOfTrailingZeros(rest);
+      long entry = peek(floor);
+      if (entry < oldestEntry) {
+        oldestEntry = entry;
+        oldest = floor;
+      }
+    }
+    return oldest;
+  }
+
+  /**
+   * Take up to count of the oldest requests, whatever floor they wait on, and add them to a
+   * list in arrival order.
+   *
+   * @param count the largest number of requests to take.
+   * @param into  the list to add the requests to.
+   * @return the number of requests taken.
+   */
+  public int drainOldest(int count, List<Request> into) {
+    int taken = Math.min(count, size);
+    for (int i = 0; i < taken; i++) {
+      int floor = oldestFloor();
+      into.add(Request.of(floor, (int) (poll(floor) & END_MASK)));
+    }
+    return taken;
+  }
+
+  /**
+   * Take up to count of the requests waiting on one floor, oldest first, and add them to a
+   * list.
+   *
+   * @param floor the start floor.
+   * @param count the largest number of requests to take.
+   * @param into  the list to add the requests to.
+   * @return the number of requests taken.
+   */
+  public int drainFloor(int floor, int count, List<Request> into) {
+    int taken = Math.min(count, depths[floor]);
+    for (int i = 0; i < taken; i++) {
+      into.add(Request.of(floor, (int) (poll(floor) & END_MASK)));
+    }
+    return taken;
+  }
+
+  /**
+   * Remove every request from the queue.
+   */
+  public void clear() {
+    for (int floor = 0; floor < numFloors; floor++) {
+      heads[floor] = 0;
+      depths[floor] = 0;
+    }
+    floorMask = 0;
+    size = 0;
+  }
+
+  /**
+   * Write the queue to a checkpoint: the next arrival number, then for every floor the number
+   * of requests waiting and their entries, oldest first. The arrival numbers are kept, so a
+   * queue read back hands out its requests in exactly the same order.
+   *
+   * @param out the checkpoint.
+   * @throws IOException if the checkpoint cannot be written.
+   */
+  void writeTo(DataOutput out) throws IOException {
+    out.writeLong(nextArrival);
+    for (int floor = 0; floor < numFloors; floor++) {
+      long[] bucket = buckets[floor];
+      int depth = depths[floor];
+      out.writeInt(depth);
+      for (int i = 0; i < depth; i++) {
+        out.writeLong(bucket[(heads[floor] + i) & (bucket.length - 1)]);
+      }
+    }
+  }
+
+  /**
+   * Replace the requests in the queue with the ones written by writeTo().
+   *
+   * @param in the checkpoint.
+   * @throws IOException if the checkpoint cannot be read or does not hold a valid queue.
+   */
+  void readFrom(DataInput in) throws IOException {
+    clear();
+    nextArrival = in.readLong();
+    for (int floor = 0; floor < numFloors; floor++) {
+      int depth = in.readInt();
+      if (depth < 0) {
+        throw new IOException("Invalid number of requests on floor " + floor + ": " + depth);
+      }
+      long[] bucket = buckets[floor];
+      if (bucket.length < depth) {
+        bucket = new long[Integer.highestOneBit(depth - 1) << 1];
+        buckets[floor] = bucket;
+      }
+      for (int i = 0; i < depth; i++) {
+        long entry = in.readLong();
+        if ((entry & END_MASK) >= numFloors || entry >>> END_BITS >= nextArrival) {
+          throw new IOException("Invalid request on floor " + floor + ".");
+        }
+        bucket[i] = entry;
+      }
+      depths[floor] = depth;
+      if (depth > 0) {
+        floorMask |= 1 << floor;
+      }
+      size += depth;
+    }
+  }
+
+  /**
+   * Returns the number of requests waiting on a floor that came before an entry.
+   *
+   * @param floor the floor.
+   * @param limit the entry to compare with.
+   * @return the number of entries of the floor smaller than limit.
+   */
+  private int countBefore(int floor, long limit) {
+    long[] bucket = buckets[floor];
+    int mask = bucket.length - 1;
+    int head = heads[floor];
+    int low = 0;
+    int high = depths[floor];
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (bucket[(head + middle) & mask] < limit) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the request at a position in arrival order. Every bucket is sorted by arrival, so
+   * this binary searches for the arrival number that has exactly index requests before it,
+   * costing O(floors * log(size) * log(arrivals)) instead of walking the queue.
+   *
+   * @param index the position, which must be inside the queue.
+   * @return the request.
+   */
+  private Request select(int index) {
+    long low = peek(oldestFloor()) >>> END_BITS;
+    long high = nextArrival - 1;
+    while (low < high) {
+      long middle = (low + high) >>> 1;
+      long limit = (middle + 1) << END_BITS;
+      int before = 0;
+      for (int rest = floorMask; rest != 0; rest &= rest - 1) {
+        before += countBefore(Integer.numberOfTrailingZeros(rest), limit);
+      }
+      if (before > index) {
+        high = middle;
+      } else {
+        low = middle + 1;
+      }
+    }
+    long limit = (low + 1) << END_BITS;
+    for (int rest = floorMask; rest != 0; rest &= rest - 1) {
+      int floor = Integer.numberOfTrailingZeros(rest);
+      int position = countBefore(floor, limit);
+      if (position > 0) {
+        long[] bucket = buckets[floor];
+        long entry = bucket[(heads[floor] + position - 1) & (bucket.length - 1)];
+        if (entry >>> END_BITS == low) {
+          return Request.of(floor, (int) (entry & END_MASK));
+        }
+      }
+    }
+    throw new IllegalStateException("No request at index " + index + ".");
+  }
+
+  /**
+   * Returns a read-only view of the queue in arrival order. The view follows the queue as it
+   * changes, but must not be iterated while the queue changes.
+   *
+   * @return the requests in the queue, oldest first.
+   */
+  public List<Request> asList() {
+    return view;
+  }
+
+  @Override
+  public String toString() {
+    return view.toString();
+  }
+
+  /**
+   * Walks the buckets in arrival order by merging their fronts.
+   */
+  private class ArrivalOrderIterator implements Iterator<Request> {
+    private final int[] offsets = new int[numFloors];
+    private int remaining = size;
+
+    @Override
+    public boolean hasNext() {
+      return remaining > 0;
+    }
+
+    @Override
+    public Request next() {
+      if (remaining == 0) {
+        throw new NoSuchElementException();
+      }
+      int oldest = -1;
+      long oldestEntry = Long.MAX_VALUE;
+      for (int rest = floorMask; rest != 0; rest &= rest - 1) {
+        int floor = Integer.numberOfTrailingZeros(rest);
+        if (offsets[floor] < depths[floor]) {
+          long[] bucket = buckets[floor];
+          long entry = bucket[(heads[floor] + offsets[floor]) & (bucket.length - 1)];
+          if (entry < oldestEntry) {
+            oldestEntry = entry;
+            oldest = floor;
+          }
+        }
+      }
+      offsets[oldest]++;
+      remaining--;
+      return Request.of(oldest, (int) (oldestEntry & END_MASK));
+    }
+  }
+}
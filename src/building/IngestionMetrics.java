@@ -0,0 +1,112 @@
+package building;
+
+/**
+ * This is the reporting class for the concurrent request ingestion of a building. It tells how
+ * many submitted requests were drained into the building, how large the drained batches were,
+ * and how long the requests waited between their submission and the drain.
+ */
+public class IngestionMetrics {
+  private final long requestsDrained;
+  private final long requestsRejected;
+  private final long drains;
+  private final int maxBatchSize;
+  private final long totalLatencyNanos;
+  private final long maxLatencyNanos;
+
+  /**
+   * This constructor is used to create a new IngestionMetrics object.
+   *
+   * @param requestsDrained   The number of submitted requests added to the building.
+   * @param requestsRejected  The number of submitted requests dropped because the elevator
+   *                          system was not running or their floors were outside the building.
+   * @param drains            The number of drains that added at least one request.
+   * @param maxBatchSize      The largest number of requests drained at once.
+   * @param totalLatencyNanos The sum of the waiting times of the drained requests.
+   * @param maxLatencyNanos   The longest waiting time of a drained request.
+   */
+  public IngestionMetrics(long requestsDrained,
+                          long requestsRejected,
+                          long drains,
+                          int maxBatchSize,
+                          long totalLatencyNanos,
+                          long maxLatencyNanos) {
+    this.requestsDrained = requestsDrained;
+    this.requestsRejected = requestsRejected;
+    this.drains = drains;
+    this.maxBatchSize = maxBatchSize;
+    this.totalLatencyNanos = totalLatencyNanos;
+    this.maxLatencyNanos = maxLatencyNanos;
+  }
+
+  /**
+   * This method is used to get the number of submitted requests added to the building.
+   *
+   * @return the number of drained requests.
+   */
+  public long getRequestsDrained() {
+    return requestsDrained;
+  }
+
+  /**
+   * This method is used to get the number of submitted requests dropped because the elevator
+   * system was not running when they were drained, or their floors were outside the building.
+   *
+   * @return the number of rejected requests.
+   */
+  public long getRequestsRejected() {
+    return requestsRejected;
+  }
+
+  /**
+   * This method is used to get the number of drains that added at least one request.
+   *
+   * @return the number of drains.
+   */
+  public long getDrains() {
+    return drains;
+  }
+
+  /**
+   * This method is used to get the largest number of requests drained at once.
+   *
+   * @return the largest batch size.
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * This method is used to get the average number of requests drained at once.
+   *
+   * @return the mean batch size, 0 if nothing was drained.
+   */
+  public double getMeanBatchSize() {
+    return drains == 0 ? 0 : (double) requestsDrained / drains;
+  }
+
+  /**
+   * This method is used to get the average time a request waited to be drained.
+   *
+   * @return the mean ingestion latency in nanoseconds, 0 if nothing was drained.
+   */
+  public double getMeanLatencyNanos() {
+    return requestsDrained == 0 ? 0 : (double) totalLatencyNanos / requestsDrained;
+  }
+
+  /**
+   * This method is used to get the longest time a request waited to be drained.
+   *
+   * @return the largest ingestion latency in nanoseconds.
+   */
+  public long getMaxLatencyNanos() {
+    return maxLatencyNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Ingestion Metrics: drained %d, rejected %d, drains %d, "
+            + "batch mean %.1f max %d, latency mean %.0f ns max %d ns",
+        requestsDrained, requestsRejected, drains, getMeanBatchSize(), maxBatchSize,
+        getMeanLatencyNanos(), maxLatencyNanos);
+  }
+}
@@ -0,0 +1,64 @@
+package building;
+
+import java.util.BitSet;
+
+/**
+ * The result of adding a batch of requests to a building. It holds the number of accepted and
+ * rejected requests, and which positions of the batch were rejected. The positions are only
+ * recorded when something was rejected, so a fully accepted batch costs two counters.
+ */
+public class RequestBatchResult {
+  private final int accepted;
+  private final int rejected;
+  private final BitSet rejectedPositions;
+
+  /**
+   * This constructor is used to create a new RequestBatchResult object.
+   *
+   * @param accepted          The number of accepted requests.
+   * @param rejected          The number of rejected requests.
+   * @param rejectedPositions The positions of the rejected requests in the batch, or null if
+   *                          every request was accepted or every request was rejected.
+   */
+  public RequestBatchResult(int accepted, int rejected, BitSet rejectedPositions) {
+    this.accepted = accepted;
+    this.rejected = rejected;
+    this.rejectedPositions = rejectedPositions;
+  }
+
+  /**
+   * This method is used to get the number of accepted requests.
+   *
+   * @return the number of accepted requests.
+   */
+  public int getAccepted() {
+    return accepted;
+  }
+
+  /**
+   * This method is used to get the number of rejected requests.
+   *
+   * @return the number of rejected requests.
+   */
+  public int getRejected() {
+    return rejected;
+  }
+
+  /**
+   * This method is used to check if a request of the batch was rejected.
+   *
+   * @param position the position of the request in the batch.
+   * @return true if the request was rejected, false otherwise.
+   */
+  public boolean isRejected(int position) {
+    if (accepted == 0) {
+      return position >= 0 && position < rejected;
+    }
+    return rejectedPositions != null && rejectedPositions.get(position);
+  }
+
+  @Override
+  public String toString() {
+    return "Accepted: " + accepted + ", Rejected: " + rejected;
+  }
+}
@@ -0,0 +1,226 @@
+package building;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A lock-free multi-producer single-consumer inbox for requests.
+ * <p>
+ * Any number of threads can submit requests at the same time without blocking: a submit is one
+ * atomic swap of the tail of a linked list. Only the thread that steps the building drains the
+ * inbox, so draining needs no atomic operations at all. The inbox also records how long the
+ * requests waited to be drained and how large the drained batches were.
+ * </p>
+ */
+class RequestInbox {
+
+  /**
+   * A submitted request and the time it was submitted.
+   */
+  private static final class Node {
+    private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+        AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+    private final int startFloor;
+    private final int endFloor;
+    private final long submitted;
+    private volatile Node next;
+
+    Node(int startFloor, int endFloor, long submitted) {
+      this.startFloor = startFloor;
+      this.endFloor = endFloor;
+      this.submitted = submitted;
+    }
+  }
+
+  /**
+   * The last submitted node, swapped by the producers.
+   */
+  private final AtomicReference<Node> tail;
+
+  /**
+   * The last drained node, only touched by the consumer.
+   */
+  private Node head;
+
+  // Metrics, only touched by the consumer.
+  private long requestsDrained;
+  private long requestsRejected;
+  private long drains;
+  private int maxBatchSize;
+  private long totalLatencyNanos;
+  private long maxLatencyNanos;
+
+  /**
+   * The metrics as of the end of the last drain or discard, for any thread to read. They are
+   * published as one object, so a reader never sees the counters of two different drains.
+   */
+  private volatile IngestionMetrics metrics = new IngestionMetrics(0, 0, 0, 0, 0, 0);
+
+  /**
+   * The constructor for an empty inbox.
+   */
+  RequestInbox() {
+    Node stub = new Node(0, 0, 0);
+    this.head = stub;
+    this.tail = new AtomicReference<>(stub);
+  }
+
+  /**
+   * Submit a request. This can be called from any thread and never blocks.
+   *
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   */
+  void submit(int startFloor, int endFloor) {
+    Node node = new Node(startFloor, endFloor, System.nanoTime());
+    Node previous = tail.getAndSet(node);
+    // Between the swap and this store the consumer sees the list end at previous,
+    // and picks the node up on its next drain.
+    Node.NEXT.lazySet(previous, node);
+  }
+
+  /**
+   * Returns true if there is nothing to drain. Only the consumer may call this.
+   *
+   * @return true if no submitted request is waiting, false otherwise.
+   */
+  boolean isEmpty() {
+    return head.next == null;
+  }
+
+  /**
+   * Move every submitted request into the up or down queue. Requests with floors outside the
+   * building are dropped and counted as rejected. Only the consumer may call this.
+   *
+   * @param upRequests   the queue for requests going up.
+   * @param downRequests the queue for requests going down.
+   * @param numFloors    the number of floors in the building.
+   * @return the number of requests drained.
+   */
+  int drainTo(HallCallQueue upRequests, HallCallQueue downRequests, int numFloors) {
+    return drainTo(upRequests, downRequests, numFloors, null, 0);
+  }
+
+  /**
+   * Move every submitted request into the up or down queue, recording the requests that are
+   * not rejected. Only the requests added to a queue count towards the batch size and the
+   * latency. Only the consumer may call this.
+   * <p>
+   * Every request is added to its queue before it is recorded, so when the recorder fails the
+   * requests taken so far stay in the queues and in the metrics, and the rest stay in the inbox
+   * for the next drain.
+   * </p>
+   *
+   * @param upRequests   the queue for requests going up.
+   * @param downRequests the queue for requests going down.
+   * @param numFloors    the number of floors in the building.
+   * @param recorder     the recorder of the requests, or null.
+   * @param tick         the tick to record the requests on.
+   * @return the number of requests drained.
+   * @throws UncheckedIOException if the recorder cannot write the trace.
+   */
+  int drainTo(HallCallQueue upRequests, HallCallQueue downRequests, int numFloors,
+              RequestTraceRecorder recorder, long tick) throws UncheckedIOException {
+    Node next = head.next;
+    if (next == null) {
+      return 0;
+    }
+
+    long now = System.nanoTime();
+    int count = 0;
+    int rejected = 0;
+    long latency = 0;
+    long maxLatency = maxLatencyNanos;
+    try {
+      while (next != null) {
+        head = next;
+        next = next.next;
+        int start = head.startFloor;
+        int end = head.endFloor;
+        if (start < 0 || start >= numFloors || end < 0 || end >= numFloors) {
+          rejected++;
+          continue;
+        }
+        if (start < end) {
+          upRequests.add(start, end);
+        } else {
+          downRequests.add(start, end);
+        }
+        long waited = now - head.submitted;
+        latency += waited;
+        maxLatency = Math.max(maxLatency, waited);
+        count++;
+        if (recorder != null) {
+          record(recorder, tick, start, end);
+        }
+      }
+    } finally {
+      requestsDrained += count;
+      requestsRejected += rejected;
+      if (count > 0) {
+        drains++;
+        maxBatchSize = Math.max(maxBatchSize, count);
+      }
+      totalLatencyNanos += latency;
+      maxLatencyNanos = maxLatency;
+      publishMetrics();
+    }
+    return count;
+  }
+
+  /**
+   * Record a request, turning a failure to write into an unchecked exception.
+   *
+   * @param recorder   the recorder.
+   * @param tick       the tick of the request.
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   * @throws UncheckedIOException if the recorder cannot write the trace.
+   */
+  static void record(RequestTraceRecorder recorder, long tick, int startFloor, int endFloor)
+      throws UncheckedIOException {
+    try {
+      recorder.record(tick, startFloor, endFloor);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Throw away every submitted request, counting them as rejected. Only the consumer may call
+   * this.
+   *
+   * @return the number of requests thrown away.
+   */
+  int discard() {
+    int count = 0;
+    for (Node next = head.next; next != null; next = next.next) {
+      head = next;
+      count++;
+    }
+    requestsRejected += count;
+    publishMetrics();
+    return count;
+  }
+
+  /**
+   * Publish the counters of the consumer as one snapshot.
+   */
+  private void publishMetrics() {
+    metrics = new IngestionMetrics(requestsDrained, requestsRejected, drains, maxBatchSize,
+        totalLatencyNanos, maxLatencyNanos);
+  }
+
+  /**
+   * Returns a snapshot of the ingestion metrics as of the end of the last drain. This can be
+   * called from any thread, and the counters of the snapshot always belong together.
+   *
+   * @return the ingestion metrics.
+   */
+  IngestionMetrics getMetrics() {
+    return metrics;
+  }
+}
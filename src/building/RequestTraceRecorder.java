@@ -0,0 +1,141 @@
+package building;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records the requests that arrive at a building, and the tick they arrive on, in a compact
+ * binary trace that {@link RequestTraceReplayer} plays back.
+ * <p>
+ * The trace is an 8 byte header, the magic number and the format version, followed by one
+ * 8 byte record per request: the tick shifted left by ten bits, then five bits each for the
+ * start and the end floor. Records are gathered in a direct buffer and written to a file
+ * channel when it is full, so recording a request is a single long store.
+ * </p>
+ * <p>
+ * A building given a recorder with {@link Building#setRequestRecorder} records every request
+ * it accepts, from addRequest(), addRequests() or submitRequest(), with the tick before the
+ * step that first sees it.
+ * </p>
+ */
+public class RequestTraceRecorder implements Closeable {
+
+  /**
+   * The magic number at the start of a trace, "ELRT".
+   */
+  static final int MAGIC = 0x454c5254;
+
+  /**
+   * The version of the trace format.
+   */
+  static final int VERSION = 1;
+
+  /**
+   * The size of the header and of a record in bytes.
+   */
+  static final int HEADER_BYTES = 8;
+  static final int RECORD_BYTES = 8;
+
+  static final int FLOOR_BITS = 5;
+  static final int FLOOR_MASK = (1 << FLOOR_BITS) - 1;
+  static final long MAX_TICK = (1L << (Long.SIZE - 2 * FLOOR_BITS - 1)) - 1;
+
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private long lastTick;
+  private long records;
+
+  /**
+   * Create a new trace, replacing any file at the path.
+   *
+   * @param path the file to record to.
+   * @throws IOException if the file cannot be created or written.
+   */
+  public RequestTraceRecorder(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC).putInt(VERSION);
+  }
+
+  /**
+   * Record a request. Requests must be recorded in the order of their ticks.
+   *
+   * @param tick       the tick the request arrived on.
+   * @param startFloor the start floor of the request, between 0 and 31.
+   * @param endFloor   the end floor of the request, between 0 and 31.
+   * @throws IllegalArgumentException if a floor is out of range, or the tick is negative or
+   *                                  before the tick of the previous request.
+   * @throws IOException              if the trace cannot be written.
+   */
+  public void record(long tick, int startFloor, int endFloor)
+      throws IllegalArgumentException, IOException {
+    if (tick < lastTick || tick > MAX_TICK) {
+      throw new IllegalArgumentException("Requests must be recorded in the order of their "
+          + "ticks.");
+    }
+    if ((startFloor & ~FLOOR_MASK) != 0 || (endFloor & ~FLOOR_MASK) != 0) {
+      throw new IllegalArgumentException("The floors of a recorded request must be between "
+          + "0 and 31.");
+    }
+    if (!buffer.hasRemaining()) {
+      flush();
+    }
+    buffer.putLong(tick << (2 * FLOOR_BITS) | startFloor << FLOOR_BITS | endFloor);
+    lastTick = tick;
+    records++;
+  }
+
+  /**
+   * Returns the tick of the last recorded request. Later requests may not be recorded on an
+   * earlier tick.
+   *
+   * @return the tick of the last request, or 0 if nothing was recorded.
+   */
+  public long getLastTick() {
+    return lastTick;
+  }
+
+  /**
+   * Returns the number of requests recorded.
+   *
+   * @return the number of requests.
+   */
+  public long getRecords() {
+    return records;
+  }
+
+  /**
+   * Write the buffered records to the file.
+   *
+   * @throws IOException if the trace cannot be written.
+   */
+  public void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Write the buffered records and close the file.
+   *
+   * @throws IOException if the trace cannot be written.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+}
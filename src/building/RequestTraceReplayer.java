@@ -0,0 +1,189 @@
+package building;
+
+import building.enums.ElevatorSystemStatus;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import scanerzus.Request;
+
+/**
+ * Plays back a trace written by {@link RequestTraceRecorder}, adding every recorded request to
+ * a building on the tick it was recorded on.
+ * <p>
+ * The trace is memory mapped a window at a time, so a trace of any size is read straight from
+ * the page cache, and a record becomes a request through the shared table of Request.of()
+ * without creating anything. A building that starts like the recorded one and is replayed
+ * with replay() goes through exactly the same states.
+ * </p>
+ */
+public class RequestTraceReplayer implements Closeable {
+
+  /**
+   * The largest part of the trace mapped at once, a whole number of records.
+   */
+  private static final long DEFAULT_WINDOW_BYTES = 1L << 30;
+
+  private final FileChannel channel;
+  private final long windowBytes;
+  private final long end;
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long position;
+
+  /**
+   * Open a trace for replay.
+   *
+   * @param path the trace file.
+   * @throws IOException if the file cannot be read or is not a trace.
+   */
+  public RequestTraceReplayer(Path path) throws IOException {
+    this(path, DEFAULT_WINDOW_BYTES);
+  }
+
+  /**
+   * Open a trace for replay, mapping at most the given number of bytes at once.
+   *
+   * @param path        the trace file.
+   * @param windowBytes the size of the mapped window, a positive multiple of the record size.
+   * @throws IOException if the file cannot be read or is not a trace.
+   */
+  RequestTraceReplayer(Path path, long windowBytes) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.windowBytes = windowBytes;
+    try {
+      this.end = channel.size();
+      if (end < RequestTraceRecorder.HEADER_BYTES) {
+        throw new IOException("Not a request trace: " + path);
+      }
+      map(0);
+      if (window.getInt(0) != RequestTraceRecorder.MAGIC) {
+        throw new IOException("Not a request trace: " + path);
+      }
+      if (window.getInt(4) != RequestTraceRecorder.VERSION) {
+        throw new IOException("Unsupported request trace version " + window.getInt(4));
+      }
+      if ((end - RequestTraceRecorder.HEADER_BYTES) % RequestTraceRecorder.RECORD_BYTES != 0) {
+        throw new IOException("The request trace is truncated: " + path);
+      }
+      this.position = RequestTraceRecorder.HEADER_BYTES;
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Map the window of the trace starting at an offset.
+   *
+   * @param offset the offset in the file, a multiple of the record size.
+   * @throws IOException if the file cannot be mapped.
+   */
+  private void map(long offset) throws IOException {
+    long size = Math.min(windowBytes, end - offset);
+    window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+    window.order(ByteOrder.LITTLE_ENDIAN);
+    windowStart = offset;
+  }
+
+  /**
+   * Returns the record at the current position, mapping the next window when needed.
+   *
+   * @return the record.
+   * @throws IOException if the file cannot be mapped.
+   */
+  private long peek() throws IOException {
+    if (position - windowStart >= window.capacity()) {
+      map(position);
+    }
+    return window.getLong((int) (position - windowStart));
+  }
+
+  /**
+   * Returns the number of requests in the trace.
+   *
+   * @return the number of requests.
+   */
+  public long size() {
+    return (end - RequestTraceRecorder.HEADER_BYTES) / RequestTraceRecorder.RECORD_BYTES;
+  }
+
+  /**
+   * Returns true if there are requests left to replay.
+   *
+   * @return true if the trace is not exhausted.
+   */
+  public boolean hasNext() {
+    return position < end;
+  }
+
+  /**
+   * Returns the tick of the next request.
+   *
+   * @return the tick of the next request, or -1 if the trace is exhausted.
+   * @throws IOException if the file cannot be mapped.
+   */
+  public long peekTick() throws IOException {
+    return hasNext() ? peek() >>> (2 * RequestTraceRecorder.FLOOR_BITS) : -1;
+  }
+
+  /**
+   * Add every request recorded on or before a tick to a building.
+   *
+   * @param building the building.
+   * @param tick     the tick.
+   * @return the number of requests taken from the trace.
+   * @throws IOException if the file cannot be mapped.
+   */
+  public int feed(BuildingInterface building, long tick) throws IOException {
+    int fed = 0;
+    while (position < end) {
+      long record = peek();
+      if (record >>> (2 * RequestTraceRecorder.FLOOR_BITS) > tick) {
+        break;
+      }
+      int start = (int) (record >>> RequestTraceRecorder.FLOOR_BITS)
+          & RequestTraceRecorder.FLOOR_MASK;
+      int endFloor = (int) record & RequestTraceRecorder.FLOOR_MASK;
+      building.addRequest(Request.of(start, endFloor));
+      position += RequestTraceRecorder.RECORD_BYTES;
+      fed++;
+    }
+    return fed;
+  }
+
+  /**
+   * Step a running building for a number of ticks, adding the recorded requests before the
+   * step of their tick. Stretches without requests are fast forwarded, which ends in the same
+   * state as stepping through them.
+   *
+   * @param building the building, started like the recorded one.
+   * @param ticks    the number of steps to take.
+   * @return the number of requests taken from the trace.
+   * @throws IOException if the file cannot be mapped.
+   */
+  public long replay(Building building, long ticks) throws IOException {
+    long until = building.getCurrentTick() + ticks;
+    long fed = 0;
+    while (building.getCurrentTick() < until
+        && building.getSystemStatus() != ElevatorSystemStatus.outOfService) {
+      long tick = building.getCurrentTick();
+      fed += feed(building, tick);
+      long next = hasNext() ? Math.min(peekTick(), until) : until;
+      if (next > tick + 1) {
+        building.fastForward(next - tick);
+      } else {
+        building.stepElevatorSystem();
+      }
+    }
+    return fed;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
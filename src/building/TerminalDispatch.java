@@ -0,0 +1,116 @@
+package building;
+
+import elevator.Elevator;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * The default dispatch strategy. Elevators only take requests while they wait at the bottom or
+ * the top: an elevator at the bottom takes the oldest up requests and one at the top the
+ * oldest down requests, up to its capacity, and serves them on its next run.
+ */
+public class TerminalDispatch implements DispatchStrategy {
+
+  private int numFloors;
+
+  private int elevatorCapacity;
+
+  /**
+   * The requests handed to one elevator, reused between steps.
+   */
+  private final List<Request> requestBatch = new ArrayList<>();
+
+  @Override
+  public void start(int numFloors, int numElevators, int elevatorCapacity) {
+    this.numFloors = numFloors;
+    this.elevatorCapacity = elevatorCapacity;
+  }
+
+  /**
+   * Returns the number of floors of the building, as given to start().
+   *
+   * @return the number of floors.
+   */
+  protected int getNumFloors() {
+    return numFloors;
+  }
+
+  /**
+   * Returns the capacity of the elevators, as given to start().
+   *
+   * @return the elevator capacity.
+   */
+  protected int getElevatorCapacity() {
+    return elevatorCapacity;
+  }
+
+  @Override
+  public int dispatch(Elevator[] elevators, ElevatorIndex index, HallCallQueue upRequests,
+                      HallCallQueue downRequests) {
+    return dispatchAtTerminals(elevators, index, upRequests, downRequests);
+  }
+
+  /**
+   * Hand requests to the elevators taking requests at the bottom or the top. The elevators
+   * at the bottom take the oldest UP requests and the ones at the top the oldest DOWN
+   * requests, lowest index first.
+   *
+   * @param elevators    the elevators of the building.
+   * @param index        the index of the elevators.
+   * @param upRequests   the requests waiting to go up.
+   * @param downRequests the requests waiting to go down.
+   * @return the number of requests handed to the elevators.
+   */
+  protected int dispatchAtTerminals(Elevator[] elevators, ElevatorIndex index,
+                                    HallCallQueue upRequests, HallCallQueue downRequests) {
+    int distributed = 0;
+    for (int i = index.nextTakingRequests(0, 0); i != -1 && !upRequests.isEmpty();
+         i = index.nextTakingRequests(0, i + 1)) {
+      distributed += takeRequests(i, elevators[i], index, upRequests);
+    }
+    int top = numFloors - 1;
+    for (int i = index.nextTakingRequests(top, 0); i != -1 && !downRequests.isEmpty();
+         i = index.nextTakingRequests(top, i + 1)) {
+      distributed += takeRequests(i, elevators[i], index, downRequests);
+    }
+    return distributed;
+  }
+
+  /**
+   * Hand up to the elevator capacity of the oldest requests to an elevator, whatever floor
+   * they wait on.
+   *
+   * @param i        the index of the elevator in the building.
+   * @param elevator the elevator.
+   * @param index    the index of the elevators.
+   * @param requests the requests to take from.
+   * @return the number of requests handed to the elevator.
+   */
+  private int takeRequests(int i, Elevator elevator, ElevatorIndex index,
+                           HallCallQueue requests) {
+    requestBatch.clear();
+    int taken = requests.drainOldest(elevatorCapacity, requestBatch);
+    elevator.processRequests(requestBatch);
+    index.update(i, elevator);
+    requestsTaken(i, requestBatch);
+    return taken;
+  }
+
+  /**
+   * Called after an elevator took a batch of requests at the bottom or the top. Does nothing
+   * here, subclasses can use it to follow the load of the elevators.
+   *
+   * @param index    the index of the elevator in the building.
+   * @param requests the requests the elevator took.
+   */
+  protected void requestsTaken(int index, List<Request> requests) {
+  }
+
+  @Override
+  public boolean mayDispatch(Elevator[] elevators, ElevatorIndex index,
+                             HallCallQueue upRequests, HallCallQueue downRequests) {
+    return (!upRequests.isEmpty() && index.nextTakingRequests(0, 0) != -1)
+        || (!downRequests.isEmpty() && index.nextTakingRequests(numFloors - 1, 0) != -1);
+  }
+}
@@ -0,0 +1,371 @@
+package building;
+
+import building.enums.TrafficPattern;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import scanerzus.Request;
+
+/**
+ * Generates synthetic passenger traffic for a building, one batch of requests per tick.
+ * <p>
+ * The number of passengers arriving on a tick follows a Poisson distribution with the arrival
+ * rate as its mean. Every passenger makes one of three kinds of trip, drawn with the shares of
+ * the traffic pattern: from the lobby, the ground floor, up to an upper floor, from an upper
+ * floor down to the lobby, or between two upper floors. Upper floors are drawn with their floor
+ * weights, uniformly unless set otherwise, from an alias table, so drawing a floor takes the
+ * same time in any building.
+ * </p>
+ * <p>
+ * Nothing is generated ahead, so a workload of any length streams in constant memory, and the
+ * requests come from the shared table of Request.of(), so a batch allocates nothing. All the
+ * randomness comes from one SplittableRandom: the same seed and the same calls give the same
+ * traffic, and split() makes an independent generator for another building or thread that is
+ * just as reproducible.
+ * </p>
+ */
+public class TrafficGenerator {
+
+  /**
+   * The largest mean drawn in one go. Larger arrival rates are drawn as a sum of Poisson
+   * draws, so exp(-mean) never underflows.
+   */
+  private static final double POISSON_CHUNK = 256.0;
+  private static final double POISSON_CHUNK_LIMIT = Math.exp(-POISSON_CHUNK);
+
+  private final int numFloors;
+  private final SplittableRandom random;
+
+  private TrafficPattern pattern;
+  private double incomingShare;
+  private double outgoingShare;
+
+  private double arrivalRate;
+  private int fullChunks;
+  private double lastChunkLimit;
+
+  private final double[] floorWeights;
+  private int weightedFloors;
+
+  /**
+   * The alias table of the upper floors: entry i stands for floor i + 1, kept with the
+   * probability in aliasProbability, and replaced by floor alias[i] + 1 otherwise.
+   */
+  private final double[] aliasProbability;
+  private final int[] alias;
+
+  private long tick;
+  private long generated;
+
+  /**
+   * The constructor for a traffic generator with uniform floor weights.
+   *
+   * @param numFloors   the number of floors in the building, at least 3.
+   * @param pattern     the traffic pattern.
+   * @param arrivalRate the mean number of passengers arriving per tick.
+   * @param seed        the seed of the random numbers.
+   * @throws IllegalArgumentException if the number of floors or the arrival rate is out of
+   *                                  range, or the pattern is null.
+   */
+  public TrafficGenerator(int numFloors, TrafficPattern pattern, double arrivalRate, long seed)
+      throws IllegalArgumentException {
+    this(numFloors, new SplittableRandom(seed));
+    Arrays.fill(floorWeights, 1.0);
+    weightedFloors = numFloors - 1;
+    buildAliasTable(numFloors - 1);
+    setPattern(pattern);
+    setArrivalRate(arrivalRate);
+  }
+
+  /**
+   * The constructor for an unconfigured generator.
+   *
+   * @param numFloors the number of floors in the building.
+   * @param random    the random numbers.
+   * @throws IllegalArgumentException if the number of floors is less than 3.
+   */
+  private TrafficGenerator(int numFloors, SplittableRandom random)
+      throws IllegalArgumentException {
+    if (numFloors < 3) {
+      throw new IllegalArgumentException("A building with traffic needs at least 3 floors.");
+    }
+    this.numFloors = numFloors;
+    this.random = random;
+    this.floorWeights = new double[numFloors];
+    this.aliasProbability = new double[numFloors - 1];
+    this.alias = new int[numFloors - 1];
+  }
+
+  /**
+   * Returns a new generator with the same settings and its own random numbers, split off the
+   * random numbers of this one. Its tick and count of generated requests start at 0.
+   *
+   * @return the new generator.
+   */
+  public TrafficGenerator split() {
+    TrafficGenerator other = new TrafficGenerator(numFloors, random.split());
+    System.arraycopy(floorWeights, 0, other.floorWeights, 0, numFloors);
+    System.arraycopy(aliasProbability, 0, other.aliasProbability, 0, numFloors - 1);
+    System.arraycopy(alias, 0, other.alias, 0, numFloors - 1);
+    other.weightedFloors = weightedFloors;
+    other.pattern = pattern;
+    other.incomingShare = incomingShare;
+    other.outgoingShare = outgoingShare;
+    other.setArrivalRate(arrivalRate);
+    return other;
+  }
+
+  /**
+   * Returns the number of floors in the building.
+   *
+   * @return the number of floors.
+   */
+  public int getNumFloors() {
+    return numFloors;
+  }
+
+  /**
+   * Returns the traffic pattern, or null if the shares were set with setShares().
+   *
+   * @return the traffic pattern.
+   */
+  public TrafficPattern getPattern() {
+    return pattern;
+  }
+
+  /**
+   * Switch to another traffic pattern, for example to go from the morning up-peak to lunch.
+   *
+   * @param pattern the traffic pattern.
+   * @throws IllegalArgumentException if the pattern is null, or has inter-floor trips and fewer
+   *                                  than two upper floors have a weight.
+   */
+  public void setPattern(TrafficPattern pattern) throws IllegalArgumentException {
+    if (pattern == null) {
+      throw new IllegalArgumentException("The traffic pattern cannot be null.");
+    }
+    setShares(pattern.getIncomingShare(), pattern.getOutgoingShare());
+    this.pattern = pattern;
+  }
+
+  /**
+   * Set the shares of the trips directly instead of with a pattern. The rest of the trips go
+   * between two upper floors.
+   *
+   * @param incoming the share of trips from the lobby to an upper floor.
+   * @param outgoing the share of trips from an upper floor to the lobby.
+   * @throws IllegalArgumentException if a share is negative, they add up to more than 1, or
+   *                                  there are inter-floor trips and fewer than two upper
+   *                                  floors have a weight.
+   */
+  public void setShares(double incoming, double outgoing) throws IllegalArgumentException {
+    if (!(incoming >= 0) || !(outgoing >= 0) || incoming + outgoing > 1.0 + 1e-9) {
+      throw new IllegalArgumentException("The shares must be between 0 and 1 and add up to "
+          + "at most 1.");
+    }
+    checkInterFloorTrips(incoming + outgoing, weightedFloors);
+    this.incomingShare = incoming;
+    this.outgoingShare = outgoing;
+    this.pattern = null;
+  }
+
+  /**
+   * Check that inter-floor trips, if there are any, have two different floors to go between.
+   *
+   * @param lobbyShare     the share of trips to or from the lobby.
+   * @param weightedFloors the number of upper floors with a weight.
+   * @throws IllegalArgumentException if there are inter-floor trips and fewer than two upper
+   *                                  floors have a weight.
+   */
+  private static void checkInterFloorTrips(double lobbyShare, int weightedFloors)
+      throws IllegalArgumentException {
+    if (lobbyShare < 1.0 && weightedFloors < 2) {
+      throw new IllegalArgumentException("Inter-floor trips need at least two upper floors "
+          + "with a weight.");
+    }
+  }
+
+  /**
+   * Returns the mean number of passengers arriving per tick.
+   *
+   * @return the arrival rate.
+   */
+  public double getArrivalRate() {
+    return arrivalRate;
+  }
+
+  /**
+   * Set the mean number of passengers arriving per tick.
+   *
+   * @param arrivalRate the arrival rate, 0 or more.
+   * @throws IllegalArgumentException if the arrival rate is negative or not finite.
+   */
+  public void setArrivalRate(double arrivalRate) throws IllegalArgumentException {
+    if (!(arrivalRate >= 0) || Double.isInfinite(arrivalRate)) {
+      throw new IllegalArgumentException("The arrival rate must be 0 or more.");
+    }
+    this.arrivalRate = arrivalRate;
+    this.fullChunks = (int) (arrivalRate / POISSON_CHUNK);
+    this.lastChunkLimit = Math.exp(-(arrivalRate - fullChunks * POISSON_CHUNK));
+  }
+
+  /**
+   * Set how popular every upper floor is as the destination of incoming trips and the origin
+   * of outgoing ones, and as either end of an inter-floor trip. A floor is drawn with a
+   * probability proportional to its weight. The weight of the lobby, floor 0, is not used.
+   *
+   * @param weights the weight of every floor, indexed by floor.
+   * @throws IllegalArgumentException if there is not one weight per floor, a weight is
+   *                                  negative or not finite, no upper floor has a weight, or
+   *                                  there are inter-floor trips and only one upper floor has
+   *                                  a weight.
+   */
+  public void setFloorWeights(double[] weights) throws IllegalArgumentException {
+    if (weights == null || weights.length != numFloors) {
+      throw new IllegalArgumentException("There must be one weight per floor.");
+    }
+    double total = 0;
+    int positive = 0;
+    for (int floor = 1; floor < numFloors; floor++) {
+      if (!(weights[floor] >= 0) || Double.isInfinite(weights[floor])) {
+        throw new IllegalArgumentException("The floor weights must be finite and not "
+            + "negative.");
+      }
+      total += weights[floor];
+      if (weights[floor] > 0) {
+        positive++;
+      }
+    }
+    if (positive == 0) {
+      throw new IllegalArgumentException("At least one upper floor needs a weight.");
+    }
+    checkInterFloorTrips(incomingShare + outgoingShare, positive);
+
+    System.arraycopy(weights, 0, floorWeights, 0, numFloors);
+    weightedFloors = positive;
+    buildAliasTable(total);
+  }
+
+  /**
+   * Build the alias table of the upper floors with Vose's method.
+   *
+   * @param total the sum of the weights of the upper floors.
+   */
+  private void buildAliasTable(double total) {
+    int n = numFloors - 1;
+    double[] scaled = new double[n];
+    int[] small = new int[n];
+    int[] large = new int[n];
+    int smallCount = 0;
+    int largeCount = 0;
+    for (int i = 0; i < n; i++) {
+      scaled[i] = floorWeights[i + 1] * n / total;
+      if (scaled[i] < 1.0) {
+        small[smallCount++] = i;
+      } else {
+        large[largeCount++] = i;
+      }
+    }
+    while (smallCount > 0 && largeCount > 0) {
+      int less = small[--smallCount];
+      int more = large[--largeCount];
+      aliasProbability[less] = scaled[less];
+      alias[less] = more;
+      scaled[more] = scaled[more] + scaled[less] - 1.0;
+      if (scaled[more] < 1.0) {
+        small[smallCount++] = more;
+      } else {
+        large[largeCount++] = more;
+      }
+    }
+    // What is left is 1 up to rounding errors.
+    while (largeCount > 0) {
+      int i = large[--largeCount];
+      aliasProbability[i] = 1.0;
+      alias[i] = i;
+    }
+    while (smallCount > 0) {
+      int i = small[--smallCount];
+      aliasProbability[i] = scaled[i] > 0 ? 1.0 : 0.0;
+      alias[i] = i;
+    }
+  }
+
+  /**
+   * Returns the number of ticks generated so far.
+   *
+   * @return the current tick.
+   */
+  public long getTick() {
+    return tick;
+  }
+
+  /**
+   * Returns the number of requests generated so far.
+   *
+   * @return the number of requests.
+   */
+  public long getGenerated() {
+    return generated;
+  }
+
+  /**
+   * Generate the passengers arriving on the next tick and add their requests to a list.
+   * The list is not cleared first, so a caller reusing a list clears it between ticks.
+   *
+   * @param into the list to add the requests to.
+   * @return the number of requests added.
+   */
+  public int nextTick(List<? super Request> into) {
+    int arrivals = nextArrivals();
+    for (int i = 0; i < arrivals; i++) {
+      double trip = random.nextDouble();
+      if (trip < incomingShare) {
+        into.add(Request.of(0, nextUpperFloor()));
+      } else if (trip < incomingShare + outgoingShare) {
+        into.add(Request.of(nextUpperFloor(), 0));
+      } else {
+        int start = nextUpperFloor();
+        int end = nextUpperFloor();
+        while (end == start) {
+          end = nextUpperFloor();
+        }
+        into.add(Request.of(start, end));
+      }
+    }
+    tick++;
+    generated += arrivals;
+    return arrivals;
+  }
+
+  /**
+   * Draw the number of passengers arriving on a tick from the Poisson distribution, by
+   * multiplying uniform numbers until the product drops below exp(-mean).
+   *
+   * @return the number of arrivals.
+   */
+  private int nextArrivals() {
+    int arrivals = 0;
+    for (int chunk = 0; chunk < fullChunks; chunk++) {
+      for (double product = random.nextDouble(); product > POISSON_CHUNK_LIMIT;
+           product *= random.nextDouble()) {
+        arrivals++;
+      }
+    }
+    for (double product = random.nextDouble(); product > lastChunkLimit;
+         product *= random.nextDouble()) {
+      arrivals++;
+    }
+    return arrivals;
+  }
+
+  /**
+   * Draw an upper floor with the floor weights.
+   *
+   * @return the floor, between 1 and the top floor.
+   */
+  private int nextUpperFloor() {
+    int i = random.nextInt(numFloors - 1);
+    return 1 + (random.nextDouble() < aliasProbability[i] ? i : alias[i]);
+  }
+}
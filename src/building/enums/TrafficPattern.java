@@ -0,0 +1,55 @@
+package building.enums;
+
+/**
+ * The standard traffic patterns of an office building, given as the share of trips that come
+ * in from the lobby, go out to the lobby, or go between two upper floors.
+ */
+public enum TrafficPattern {
+  UP_PEAK("up-peak", 0.85, 0.05),
+  DOWN_PEAK("down-peak", 0.05, 0.85),
+  LUNCH("lunch", 0.45, 0.45),
+  INTER_FLOOR("inter-floor", 0.0, 0.0);
+
+  private final String display;
+  private final double incoming;
+  private final double outgoing;
+
+  TrafficPattern(String display, double incoming, double outgoing) {
+    this.display = display;
+    this.incoming = incoming;
+    this.outgoing = outgoing;
+  }
+
+  /**
+   * Returns the share of trips from the lobby to an upper floor.
+   *
+   * @return the incoming share, between 0 and 1.
+   */
+  public double getIncomingShare() {
+    return this.incoming;
+  }
+
+  /**
+   * Returns the share of trips from an upper floor to the lobby.
+   *
+   * @return the outgoing share, between 0 and 1.
+   */
+  public double getOutgoingShare() {
+    return this.outgoing;
+  }
+
+  /**
+   * Returns the share of trips between two upper floors, the trips that are neither incoming
+   * nor outgoing.
+   *
+   * @return the inter-floor share, between 0 and 1.
+   */
+  public double getInterFloorShare() {
+    return 1.0 - this.incoming - this.outgoing;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
@@ -2,6 +2,7 @@ package elevator;
 
 import building.enums.Direction;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import scanerzus.Request;
 
 
@@ -10,14 +11,14 @@ import scanerzus.Request;
  */
 public class Elevator implements ElevatorInterface {
   /************************************************************************
-   * static value used to initialize the elevator id.
+   * static value used to initialize the elevator id when none is given.
    ************************************************************************/
-  private static int newElevatorId = 0;
+  private static final AtomicInteger newElevatorId = new AtomicInteger();
 
   /************************************************************************
    * The id of the elevator.This is read only.
    ************************************************************************/
-  private final int id = newElevatorId++;
+  private final int id;
 
   /************************************************************************
    * The total number of floors in the building.
@@ -30,13 +31,15 @@ public class Elevator implements ElevatorInterface {
   private final int maxOccupancy;
 
   /************************************************************************
-   * The number of steps that the door is open for.
+   * The number of steps that the door is open for, at most 15 so that it
+   * fits the timer of PackedElevatorStatus.
    ************************************************************************/
   @SuppressWarnings("FieldCanBeLocal")
   private final int doorOpenTimeTotal = 3;
 
   /************************************************************************
-   * The number of steps that the elevator will wait at the top or bottom.
+   * The number of steps that the elevator will wait at the top or bottom,
+   * at most 15 so that it fits the timer of PackedElevatorStatus.
    ************************************************************************/
   private final int stopWaitTimeTotal = 5;
 
@@ -75,14 +78,20 @@ public class Elevator implements ElevatorInterface {
 
 
   /************************************************************************
-   * The requests for the floors.
+   * The requests for the floors as a bitmask, see FloorMask.
    ************************************************************************/
-  private final boolean[] floorRequests; // true if there is a request for the floor.
+  private int floorRequests; // bit f is set if there is a request for floor f.
 
 
   private boolean outOfService;  // start must be issued on the elevator to start it.
 
 
+  /************************************************************************
+   * Goes up every time the state of the elevator changes.
+   ************************************************************************/
+  private long stateVersion;
+
+
   /**
    * The constructor for this elevator.
    * The elevator is initially at the ground floor and is not moving.
@@ -96,6 +105,21 @@ public class Elevator implements ElevatorInterface {
    * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
    */
   public Elevator(int maxFloor, int maxOccupancy) {
+    this(newElevatorId.getAndIncrement(), maxFloor, maxOccupancy);
+  }
+
+  /**
+   * The constructor for this elevator with a given id.
+   * The owner of the elevator, usually its building, is responsible for keeping the ids unique.
+   *
+   * @param id           the id of the elevator
+   * @param maxFloor     the total number of floors in the building
+   *                     must be between 3 and 30
+   * @param maxOccupancy the maximum number of people that can fit in the elevator
+   *                     must be between 3 and 20
+   * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
+   */
+  public Elevator(int id, int maxFloor, int maxOccupancy) {
     if (maxFloor < 3 || maxFloor > 30) {
       throw new IllegalArgumentException("maxFloor must be between 3 and 30");
     }
@@ -103,12 +127,13 @@ public class Elevator implements ElevatorInterface {
       throw new IllegalArgumentException("maxOccupancy must be between 3 and 20");
     }
 
+    this.id = id;
     this.maxFloor = maxFloor;
     this.maxOccupancy = maxOccupancy;
     this.currentFloor = 0;
     this.direction = Direction.STOPPED;
     this.outOfService = true;
-    this.floorRequests = new boolean[maxFloor];
+    this.floorRequests = 0;
     this.takingRequests = false;
 
   }
@@ -177,14 +202,40 @@ public class Elevator implements ElevatorInterface {
 
   /**
    * Return the current stop requests.
+   * This is a copy built from the request mask, changing it does not change the elevator.
    *
    * @return the current stop requests.
    */
   @Override
   public boolean[] getFloorRequests() {
+    return FloorMask.toArray(this.floorRequests, this.maxFloor);
+  }
+
+  /**
+   * Return the current stop requests as a bitmask.
+   *
+   * @return the current stop requests, bit f is set if there is a request for floor f.
+   */
+  @Override
+  public int getFloorRequestMask() {
     return this.floorRequests;
   }
 
+  /**
+   * Get the next requested floor in the direction the elevator is moving.
+   *
+   * @return the next requested floor, or -1 if there is none or the elevator is stopped.
+   */
+  @Override
+  public int getNextStop() {
+    if (this.direction == Direction.UP) {
+      return FloorMask.nextAbove(this.floorRequests, this.currentFloor);
+    } else if (this.direction == Direction.DOWN) {
+      return FloorMask.nextBelow(this.floorRequests, this.currentFloor);
+    }
+    return -1;
+  }
+
   /* ***********************************************************************
    * The following methods are the methods for the ElevatorStatus interface.
    *
@@ -204,6 +255,7 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public void start() {
+    this.stateVersion++;
     this.outOfService = false;
     this.takingRequests = true;
     clearStopRequests();
@@ -228,6 +280,10 @@ public class Elevator implements ElevatorInterface {
       return;
     }
 
+    // A running elevator always changes, it counts down a timer, opens
+    // its door, turns around or moves.
+    this.stateVersion++;
+
     // If the door is open we call the stepDoorOpen function and return.
     if (!this.doorClosed) {
       this.stepDoorOpen();
@@ -245,10 +301,10 @@ public class Elevator implements ElevatorInterface {
     // the door is closed and we are not waiting at the top or bottom.
     // now we check to see if there is a request at this floor
     // We open the door and set the timer for 3 steps.
-    if (this.floorRequests[this.currentFloor]) {
+    if (FloorMask.contains(this.floorRequests, this.currentFloor)) {
       this.doorClosed = false;
       this.doorOpenTimeLeft = this.doorOpenTimeTotal;
-      this.floorRequests[this.currentFloor] = false;
+      this.floorRequests &= ~(1 << this.currentFloor);
       return;
     }
 
@@ -295,6 +351,107 @@ public class Elevator implements ElevatorInterface {
     }
   }
 
+  /**
+   * Work out how many steps the elevator can take before its next event.
+   * An event is the door closing, the end of the wait at the top or bottom,
+   * the arrival at a requested floor or at the end of the run, or a one step
+   * action such as opening the door or turning around.
+   * Every step before the last one of this count only moves the elevator or
+   * counts down one of its timers.
+   *
+   * @return the number of steps until the next event, Integer.MAX_VALUE if the
+   *         elevator is idle and stepping it changes nothing.
+   */
+  @Override
+  public int ticksUntilNextEvent() {
+    if (this.outOfService) {
+      if (this.currentFloor == 0) {
+        return this.doorClosed ? 1 : Integer.MAX_VALUE;
+      }
+      if (!this.doorClosed) {
+        return Math.max(1, this.doorOpenTimeLeft);
+      }
+      return this.currentFloor;
+    }
+
+    if (!this.doorClosed) {
+      return Math.max(1, this.doorOpenTimeLeft);
+    }
+
+    if (this.stopWaitTimeLeft > 0) {
+      return this.stopWaitTimeLeft;
+    }
+
+    if (FloorMask.contains(this.floorRequests, this.currentFloor)
+        || (this.currentFloor == 0 && this.direction == Direction.DOWN)
+        || (this.currentFloor == this.maxFloor - 1 && this.direction == Direction.UP)) {
+      return 1;
+    }
+
+    if (this.direction == Direction.UP) {
+      int next = FloorMask.nextAbove(this.floorRequests, this.currentFloor);
+      return (next == -1 ? this.maxFloor - 1 : next) - this.currentFloor;
+    } else if (this.direction == Direction.DOWN) {
+      int next = FloorMask.nextBelow(this.floorRequests, this.currentFloor);
+      return this.currentFloor - (next == -1 ? 0 : next);
+    }
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * Advance the elevator by a number of steps.
+   * This leaves the elevator in exactly the same state as calling step() that
+   * many times, but jumps over the steps between events in one go.
+   *
+   * @param ticks the number of steps to take.
+   */
+  @Override
+  public void advance(int ticks) {
+    while (ticks > 0) {
+      int steps = Math.min(ticks, ticksUntilNextEvent());
+      this.skip(steps - 1);
+      this.step();
+      ticks -= steps;
+    }
+  }
+
+  /**
+   * Apply a number of steps that all fall before the next event.
+   * These steps can only move the elevator or count down its timers.
+   *
+   * @param steps the number of steps to apply.
+   */
+  private void skip(int steps) {
+    if (steps == 0) {
+      return;
+    }
+
+    if (this.outOfService) {
+      if (this.currentFloor == 0) {
+        return;
+      }
+      this.stateVersion++;
+      if (!this.doorClosed) {
+        this.doorOpenTimeLeft -= steps;
+        return;
+      }
+      this.direction = Direction.DOWN;
+      this.currentFloor -= steps;
+      return;
+    }
+
+    this.stateVersion++;
+    if (!this.doorClosed) {
+      this.doorOpenTimeLeft -= steps;
+    } else if (this.stopWaitTimeLeft > 0) {
+      this.stopWaitTimeLeft -= steps;
+    } else if (this.direction == Direction.UP) {
+      this.currentFloor += steps;
+    } else if (this.direction == Direction.DOWN) {
+      this.currentFloor -= steps;
+    }
+  }
+
   /**
    * Step the elevator when out of service.
    * If the elevator is on the ground floor and the door is open return
@@ -309,11 +466,11 @@ public class Elevator implements ElevatorInterface {
       return;
     }
 
-    //
+    this.stateVersion++;
     if (this.currentFloor == 0) {
       this.doorClosed = false;
       // we can clear the floor requests now
-      this.floorRequests[this.currentFloor] = false;
+      this.floorRequests &= ~1;
       // we can set the elevator to stopped.
       this.direction = Direction.STOPPED;
       return;
@@ -388,11 +545,45 @@ public class Elevator implements ElevatorInterface {
 
   }
 
+  /**
+   * Pick up requests on the way.  Unlike processRequests this keeps the
+   * current stop requests, and can only be done while the elevator is moving
+   * between the bottom and the top.  Every request must start at or ahead of
+   * the current floor and go in the direction the elevator is moving.
+   * Nothing is picked up if one of the requests is not on the way.
+   */
+  @Override
+  public void pickUp(List<Request> requests) throws IllegalStateException {
+    if (this.outOfService || this.takingRequests || this.direction == Direction.STOPPED) {
+      throw new IllegalStateException("Elevator can only pick up requests while it is moving.");
+    }
+
+    int stops = 0;
+    for (int i = 0; i < requests.size(); i++) {
+      Request request = requests.get(i);
+      int start = request.getStartFloor();
+      int end = request.getEndFloor();
+      boolean onTheWay = this.direction == Direction.UP
+          ? start >= this.currentFloor && end >= start && end < this.maxFloor
+          : start <= this.currentFloor && end <= start && end >= 0;
+      if (!onTheWay) {
+        throw new IllegalStateException("Request " + request + " is not on the way of the "
+            + "elevator.");
+      }
+      stops |= (1 << start) | (1 << end);
+    }
+    if (!requests.isEmpty()) {
+      this.floorRequests |= stops;
+      this.stateVersion++;
+    }
+  }
+
   /**
    * Take the elevator out of service.
    */
   @Override
   public void takeOutOfService() {
+    this.stateVersion++;
     this.clearStopRequests();
     this.takingRequests = false;
     this.direction = Direction.DOWN;
@@ -414,11 +605,13 @@ public class Elevator implements ElevatorInterface {
 
 
   private void processStopRequests(List<Request> requests) {
+    this.stateVersion++;
     clearStopRequests();
 
-    for (Request request : requests) {
-      this.floorRequests[request.getStartFloor()] = true;
-      this.floorRequests[request.getEndFloor()] = true;
+    // An index loop, so handing out requests on every step does not create an iterator.
+    for (int i = 0; i < requests.size(); i++) {
+      Request request = requests.get(i);
+      this.floorRequests |= (1 << request.getStartFloor()) | (1 << request.getEndFloor());
     }
     // if the elevator was waiting at the top or bottom
     // set the timer to 0 and we are off to the races.
@@ -429,9 +622,7 @@ public class Elevator implements ElevatorInterface {
    * Clear the Floor Requests.
    */
   private void clearStopRequests() {
-    for (int i = 0; i < this.maxFloor; i++) {
-      this.floorRequests[i] = false;
-    }
+    this.floorRequests = 0;
   }
 
   /**
@@ -441,20 +632,67 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public String toString() {
-    ElevatorReport report = new ElevatorReport(
-        this.id,
+    ElevatorReport report = getElevatorStatus();
+
+    return report.toString();
+  }
+
+
+  /**
+   * Get the state version of the elevator.
+   *
+   * @return the state version, which goes up every time the state changes.
+   */
+  @Override
+  public long getStateVersion() {
+    return this.stateVersion;
+  }
+
+  /**
+   * Pack the status of the elevator into a long, see PackedElevatorStatus.
+   *
+   * @return the packed status of the elevator.
+   */
+  @Override
+  public long getPackedStatus() {
+    return PackedElevatorStatus.pack(
         this.currentFloor,
         this.direction,
         this.doorClosed,
         this.floorRequests,
+        this.maxFloor,
         this.doorOpenTimeLeft,
         this.stopWaitTimeLeft,
         this.outOfService,
         this.takingRequests);
-
-    return report.toString();
   }
 
+  /**
+   * Put the elevator back into a state saved with getPackedStatus() and getStateVersion(),
+   * for example when a building is restored from a checkpoint. The elevator carries on from
+   * there exactly like the elevator the state was taken from.
+   *
+   * @param status       the packed status, for a building with the floors of this elevator.
+   * @param stateVersion the state version.
+   * @throws IllegalArgumentException if the status is not valid or is for another number of
+   *                                  floors.
+   */
+  public void restoreStatus(long status, long stateVersion) throws IllegalArgumentException {
+    if (!PackedElevatorStatus.isValid(status)
+        || PackedElevatorStatus.getNumFloors(status) != this.maxFloor) {
+      throw new IllegalArgumentException("The status is not the status of an elevator with "
+          + this.maxFloor + " floors.");
+    }
+    this.currentFloor = PackedElevatorStatus.getCurrentFloor(status);
+    this.direction = PackedElevatorStatus.getDirection(status);
+    this.doorClosed = PackedElevatorStatus.isDoorClosed(status);
+    this.floorRequests = PackedElevatorStatus.getFloorRequestMask(status);
+    this.doorOpenTimeLeft = PackedElevatorStatus.getDoorOpenTimer(status);
+    this.stopWaitTimeLeft = PackedElevatorStatus.getEndWaitTimer(status);
+    this.outOfService = PackedElevatorStatus.isOutOfService(status);
+    this.takingRequests = PackedElevatorStatus.isTakingRequests(status);
+    this.stateVersion = stateVersion;
+  }
 
   /**
    * Generate a report for the elevator in ElevatorReport format.
@@ -463,16 +701,17 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public ElevatorReport getElevatorStatus() {
-    return new ElevatorReport(
-        this.id,
-        this.currentFloor,
-        this.direction,
-        this.doorClosed,
-        this.floorRequests,
-        this.doorOpenTimeLeft,
-        this.stopWaitTimeLeft,
-        this.outOfService,
-        this.takingRequests);
+    return new ElevatorReport(this.id, getPackedStatus());
+  }
+
+  /**
+   * Fill a buffer with the status of the elevator.
+   *
+   * @param out the buffer to fill.
+   */
+  @Override
+  public void getElevatorStatus(ElevatorReportBuffer out) {
+    out.set(this.id, getPackedStatus());
   }
 
 }
@@ -0,0 +1,503 @@
+package elevator;
+
+import building.enums.Direction;
+import java.util.List;
+import scanerzus.Request;
+
+
+/**
+ * A structure-of-arrays implementation of a whole fleet of elevators.
+ * <p></p>
+ * Every car in the bank behaves exactly like an {@link Elevator}, but instead of one object per
+ * car the state of all cars is kept in parallel primitive arrays indexed by the car number.
+ * This lets the building step the whole fleet in one tight loop over contiguous memory
+ * instead of chasing a pointer to every car.
+ */
+public class ElevatorBank {
+
+  /************************************************************************
+   * The direction codes stored in the direction array.
+   ************************************************************************/
+  private static final byte UP = 0;
+  private static final byte DOWN = 1;
+  private static final byte STOPPED = 2;
+
+  /************************************************************************
+   * The number of elevators in the bank.
+   ************************************************************************/
+  private final int numElevators;
+
+  /************************************************************************
+   * The total number of floors in the building.
+   ************************************************************************/
+  private final int maxFloor;
+
+  /************************************************************************
+   * The maximum number of people that can fit in each elevator.
+   ************************************************************************/
+  private final int maxOccupancy;
+
+  /************************************************************************
+   * The number of steps that the door is open for.
+   ************************************************************************/
+  private final int doorOpenTimeTotal = 3;
+
+  /************************************************************************
+   * The number of steps that an elevator will wait at the top or bottom.
+   ************************************************************************/
+  private final int stopWaitTimeTotal = 5;
+
+  /************************************************************************
+   * The per car state. Element i of every array belongs to car i.
+   ************************************************************************/
+  private final int[] currentFloor;
+  private final byte[] direction;
+  private final int[] doorOpenTimeLeft;
+  private final int[] stopWaitTimeLeft;
+  private final boolean[] doorClosed;
+  private final boolean[] takingRequests;
+  private final boolean[] outOfService;
+
+  /************************************************************************
+   * The requests for the floors of each car as a bitmask, see FloorMask.
+   ************************************************************************/
+  private final int[] floorRequests;
+
+  /************************************************************************
+   * The state version of each car, see Elevator#getStateVersion().
+   ************************************************************************/
+  private final long[] stateVersions;
+
+
+  /**
+   * The constructor for the bank.
+   * All elevators are initially at the ground floor, out of service and not moving.
+   *
+   * @param numElevators the number of elevators in the bank
+   *                     must be greater than 0
+   * @param maxFloor     the total number of floors in the building
+   *                     must be between 3 and 30
+   * @param maxOccupancy the maximum number of people that can fit in each elevator
+   *                     must be between 3 and 20
+   * @throws IllegalArgumentException if any of the parameters is out of range
+   */
+  public ElevatorBank(int numElevators, int maxFloor, int maxOccupancy) {
+    if (numElevators < 1) {
+      throw new IllegalArgumentException("numElevators must be greater than 0");
+    }
+    if (maxFloor < 3 || maxFloor > 30) {
+      throw new IllegalArgumentException("maxFloor must be between 3 and 30");
+    }
+    if (maxOccupancy < 3 || maxOccupancy > 20) {
+      throw new IllegalArgumentException("maxOccupancy must be between 3 and 20");
+    }
+
+    this.numElevators = numElevators;
+    this.maxFloor = maxFloor;
+    this.maxOccupancy = maxOccupancy;
+    this.currentFloor = new int[numElevators];
+    this.direction = new byte[numElevators];
+    this.doorOpenTimeLeft = new int[numElevators];
+    this.stopWaitTimeLeft = new int[numElevators];
+    this.doorClosed = new boolean[numElevators];
+    this.takingRequests = new boolean[numElevators];
+    this.outOfService = new boolean[numElevators];
+    this.floorRequests = new int[numElevators];
+    this.stateVersions = new long[numElevators];
+
+    for (int i = 0; i < numElevators; i++) {
+      this.direction[i] = STOPPED;
+      this.doorClosed[i] = true;
+      this.outOfService[i] = true;
+    }
+  }
+
+  /* ***********************************************************************
+   * The following methods are the getters for the bank and its elevators.
+   * **********************************************************************/
+
+  /**
+   * Get the number of elevators in the bank.
+   *
+   * @return the number of elevators in the bank.
+   */
+  public int getNumElevators() {
+    return this.numElevators;
+  }
+
+  /**
+   * maxFloor getter.
+   *
+   * @return the total number of floors in the building
+   */
+  public int getMaxFloor() {
+    return this.maxFloor;
+  }
+
+  /**
+   * maxOccupancy getter.
+   *
+   * @return the maximum number of people that can fit in each elevator.
+   */
+  public int getMaxOccupancy() {
+    return this.maxOccupancy;
+  }
+
+  /**
+   * Get the id of an elevator. The elevators of a bank are numbered from 0.
+   *
+   * @param elevator the index of the elevator.
+   * @return the id of the elevator.
+   */
+  public int getElevatorId(int elevator) {
+    return elevator;
+  }
+
+  /**
+   * Get the current floor of an elevator.
+   *
+   * @param elevator the index of the elevator.
+   * @return the current floor of the elevator.
+   */
+  public int getCurrentFloor(int elevator) {
+    return this.currentFloor[elevator];
+  }
+
+  /**
+   * Get the direction an elevator is moving.
+   *
+   * @param elevator the index of the elevator.
+   * @return the direction the elevator is moving.
+   */
+  public Direction getDirection(int elevator) {
+    return toDirection(this.direction[elevator]);
+  }
+
+  /**
+   * Get the door status of an elevator.
+   *
+   * @param elevator the index of the elevator.
+   * @return the door status of the elevator.
+   */
+  public boolean isDoorClosed(int elevator) {
+    return this.doorClosed[elevator];
+  }
+
+  /**
+   * isTakingRequests.
+   * This will return true if the elevator is taking requests.
+   *
+   * @param elevator the index of the elevator.
+   * @return true if the elevator is taking requests, false otherwise.
+   */
+  public boolean isTakingRequests(int elevator) {
+    return this.takingRequests[elevator];
+  }
+
+  /**
+   * Return a copy of the current stop requests of an elevator.
+   *
+   * @param elevator the index of the elevator.
+   * @return the current stop requests.
+   */
+  public boolean[] getFloorRequests(int elevator) {
+    return FloorMask.toArray(this.floorRequests[elevator], this.maxFloor);
+  }
+
+  /**
+   * Return the current stop requests of an elevator as a bitmask.
+   *
+   * @param elevator the index of the elevator.
+   * @return the current stop requests, bit f is set if there is a request for floor f.
+   */
+  public int getFloorRequestMask(int elevator) {
+    return this.floorRequests[elevator];
+  }
+
+  /**
+   * Get the next requested floor in the direction an elevator is moving.
+   *
+   * @param elevator the index of the elevator.
+   * @return the next requested floor, or -1 if there is none or the elevator is stopped.
+   */
+  public int getNextStop(int elevator) {
+    if (this.direction[elevator] == UP) {
+      return FloorMask.nextAbove(this.floorRequests[elevator], this.currentFloor[elevator]);
+    } else if (this.direction[elevator] == DOWN) {
+      return FloorMask.nextBelow(this.floorRequests[elevator], this.currentFloor[elevator]);
+    }
+    return -1;
+  }
+
+  /* ***********************************************************************
+   * The following methods mirror the methods of the Elevator class.
+   * **********************************************************************/
+
+  /**
+   * Start an elevator.
+   *
+   * @param elevator the index of the elevator.
+   */
+  public void start(int elevator) {
+    this.stateVersions[elevator]++;
+    this.outOfService[elevator] = false;
+    this.takingRequests[elevator] = true;
+    clearStopRequests(elevator);
+    this.doorClosed[elevator] = true;
+    this.doorOpenTimeLeft[elevator] = 0;
+    this.stopWaitTimeLeft[elevator] = this.stopWaitTimeTotal;
+    this.direction[elevator] = UP;
+  }
+
+  /**
+   * Take an elevator out of service.
+   *
+   * @param elevator the index of the elevator.
+   */
+  public void takeOutOfService(int elevator) {
+    this.stateVersions[elevator]++;
+    clearStopRequests(elevator);
+    this.takingRequests[elevator] = false;
+    this.direction[elevator] = DOWN;
+
+    this.outOfService[elevator] = true;
+    this.stopWaitTimeLeft[elevator] = 0;
+  }
+
+  /**
+   * Process the requests for an elevator. This follows the same rules as
+   * {@link Elevator#processRequests(List)}.
+   *
+   * @param elevator the index of the elevator.
+   * @param requests the requests to process.
+   * @throws IllegalStateException if the elevator is not at the bottom or top floor.
+   */
+  public void processRequests(int elevator, List<Request> requests)
+      throws IllegalStateException {
+    int floor = this.currentFloor[elevator];
+    if (floor != 0 && floor != this.maxFloor - 1) {
+      throw new IllegalStateException("Elevator cannot process requests "
+          + "unless it is at the bottom or top floor.");
+    }
+
+    if (requests.isEmpty()) {
+      return;
+    }
+
+    int mask = 0;
+    for (int r = 0; r < requests.size(); r++) {
+      Request request = requests.get(r);
+      mask |= (1 << request.getStartFloor()) | (1 << request.getEndFloor());
+    }
+    this.floorRequests[elevator] = mask;
+    this.stopWaitTimeLeft[elevator] = 0;
+    this.stateVersions[elevator]++;
+
+    if (floor == 0) {
+      this.direction[elevator] = UP;
+    } else {
+      this.direction[elevator] = DOWN;
+    }
+    this.takingRequests[elevator] = false;
+  }
+
+  /**
+   * Step every elevator in the bank by one step. Each elevator goes through exactly the
+   * same transitions as {@link Elevator#step()}.
+   */
+  public void stepAll() {
+    for (int i = 0; i < this.numElevators; i++) {
+      step(i);
+    }
+  }
+
+  /**
+   * Step a single elevator. See {@link Elevator#step()} for the order of the checks.
+   *
+   * @param i the index of the elevator.
+   */
+  private void step(int i) {
+    if (this.outOfService[i]) {
+      stepOutOfService(i);
+      return;
+    }
+
+    this.stateVersions[i]++;
+    if (!this.doorClosed[i]) {
+      stepDoorOpen(i);
+      return;
+    }
+
+    if (this.stopWaitTimeLeft[i] > 0) {
+      stepTopOrBottom(i);
+      return;
+    }
+
+    int floor = this.currentFloor[i];
+    if (FloorMask.contains(this.floorRequests[i], floor)) {
+      this.doorClosed[i] = false;
+      this.doorOpenTimeLeft[i] = this.doorOpenTimeTotal;
+      this.floorRequests[i] &= ~(1 << floor);
+      return;
+    }
+
+    byte dir = this.direction[i];
+    if ((floor == 0 && dir == DOWN) || (floor == this.maxFloor - 1 && dir == UP)) {
+      this.direction[i] = STOPPED;
+      this.stopWaitTimeLeft[i] = this.stopWaitTimeTotal;
+      this.takingRequests[i] = true;
+      return;
+    }
+
+    if (dir == UP) {
+      this.currentFloor[i] = floor + 1;
+    } else if (dir == DOWN) {
+      this.currentFloor[i] = floor - 1;
+    }
+  }
+
+  /**
+   * Step an elevator when out of service. See {@link Elevator} for the details.
+   *
+   * @param i the index of the elevator.
+   */
+  private void stepOutOfService(int i) {
+    if (this.currentFloor[i] == 0 && !this.doorClosed[i]) {
+      return;
+    }
+
+    this.stateVersions[i]++;
+    if (this.currentFloor[i] == 0) {
+      this.doorClosed[i] = false;
+      this.floorRequests[i] &= ~1;
+      this.direction[i] = STOPPED;
+      return;
+    }
+
+    if (!this.doorClosed[i]) {
+      stepDoorOpen(i);
+      return;
+    }
+
+    this.direction[i] = DOWN;
+    this.currentFloor[i]--;
+  }
+
+  /**
+   * Process the door open step for an elevator.
+   *
+   * @param i the index of the elevator.
+   */
+  private void stepDoorOpen(int i) {
+    this.doorOpenTimeLeft[i]--;
+    if (this.doorOpenTimeLeft[i] == 0) {
+      this.doorClosed[i] = true;
+    }
+  }
+
+  /**
+   * Process the top or bottom step for an elevator.
+   *
+   * @param i the index of the elevator.
+   */
+  private void stepTopOrBottom(int i) {
+    this.stopWaitTimeLeft[i]--;
+    if (this.stopWaitTimeLeft[i] == 0) {
+      this.takingRequests[i] = false;
+      if (this.currentFloor[i] == 0) {
+        this.direction[i] = UP;
+      } else if (this.currentFloor[i] == this.maxFloor - 1) {
+        this.direction[i] = DOWN;
+      }
+    }
+  }
+
+  /**
+   * Clear the floor requests of an elevator.
+   *
+   * @param i the index of the elevator.
+   */
+  private void clearStopRequests(int i) {
+    this.floorRequests[i] = 0;
+  }
+
+  /**
+   * Convert a direction code to a Direction.
+   *
+   * @param code the direction code.
+   * @return the matching Direction.
+   */
+  private static Direction toDirection(byte code) {
+    if (code == UP) {
+      return Direction.UP;
+    } else if (code == DOWN) {
+      return Direction.DOWN;
+    }
+    return Direction.STOPPED;
+  }
+
+  /**
+   * Get the state version of an elevator. It goes up every time the state of the elevator
+   * changes.
+   *
+   * @param elevator the index of the elevator.
+   * @return the state version of the elevator.
+   */
+  public long getStateVersion(int elevator) {
+    return this.stateVersions[elevator];
+  }
+
+  /**
+   * Generate a report for an elevator in ElevatorReport format.
+   *
+   * @param elevator the index of the elevator.
+   * @return an ElevatorReport object.
+   */
+  public ElevatorReport getElevatorStatus(int elevator) {
+    return new ElevatorReport(getElevatorId(elevator), getPackedStatus(elevator));
+  }
+
+  /**
+   * Fill a buffer with the status of an elevator.
+   *
+   * @param elevator the elevator index.
+   * @param out      the buffer to fill.
+   */
+  public void getElevatorStatus(int elevator, ElevatorReportBuffer out) {
+    out.set(getElevatorId(elevator), getPackedStatus(elevator));
+  }
+
+  /**
+   * Pack the status of an elevator into a long, see PackedElevatorStatus.
+   *
+   * @param elevator the elevator index.
+   * @return the packed status of the elevator.
+   */
+  public long getPackedStatus(int elevator) {
+    return PackedElevatorStatus.pack(
+        this.currentFloor[elevator],
+        toDirection(this.direction[elevator]),
+        this.doorClosed[elevator],
+        this.floorRequests[elevator],
+        this.maxFloor,
+        this.doorOpenTimeLeft[elevator],
+        this.stopWaitTimeLeft[elevator],
+        this.outOfService[elevator],
+        this.takingRequests[elevator]);
+  }
+
+  /**
+   * Pack the status of every elevator into an array, element i for car i.
+   *
+   * @param into the array to fill, at least as long as the number of elevators.
+   * @throws IllegalArgumentException if the array is too short.
+   */
+  public void getPackedStatus(long[] into) throws IllegalArgumentException {
+    if (into.length < numElevators) {
+      throw new IllegalArgumentException("The array must hold a status for every elevator.");
+    }
+    for (int i = 0; i < numElevators; i++) {
+      into[i] = getPackedStatus(i);
+    }
+  }
+}
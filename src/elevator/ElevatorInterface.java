@@ -64,6 +64,20 @@ public interface ElevatorInterface {
    */
   boolean[] getFloorRequests();
 
+  /**
+   * Return the current stop requests as a bitmask.
+   *
+   * @return the current stop requests, bit f is set if there is a request for floor f.
+   */
+  int getFloorRequestMask();
+
+  /**
+   * Return the next requested floor in the direction the elevator is moving.
+   *
+   * @return the next requested floor, or -1 if there is none.
+   */
+  int getNextStop();
+
   /**
    * start elevator.
    * This will start the elevator if the elevator is on the ground floor.
@@ -89,6 +103,25 @@ public interface ElevatorInterface {
    */
   void step();
 
+  /**
+   * Returns the number of steps before the next event of the elevator.
+   * Until then stepping the elevator only moves it or counts down a timer.
+   * The door closing, the end of the wait at the top or bottom, and the arrival at a
+   * requested floor or at the end of the run are all events.
+   *
+   * @return the number of steps until the next event, Integer.MAX_VALUE if stepping
+   *         the elevator changes nothing.
+   */
+  int ticksUntilNextEvent();
+
+  /**
+   * Advances the elevator by a number of steps.
+   * The elevator ends up in the same state as if step() was called that many times.
+   *
+   * @param ticks the number of steps to take.
+   */
+  void advance(int ticks);
+
   /**
    * processUpRequests.
    * This will tell the elevator to process these upRequests on the next run.
@@ -98,6 +131,17 @@ public interface ElevatorInterface {
    */
   void processRequests(List<Request> requests) throws IllegalArgumentException;
 
+  /**
+   * pickUp.
+   * This will tell a moving elevator to also stop for these requests on its way.
+   * Every request must go in the direction of the elevator and start at or ahead of its
+   * current floor, so the elevator never has to turn around early.
+   *
+   * @param requests the requests to pick up.
+   * @throws IllegalStateException if the elevator is not moving or a request is not on its way.
+   */
+  void pickUp(List<Request> requests) throws IllegalStateException;
+
 
   /**
    * isTakingRequests.
@@ -107,6 +151,13 @@ public interface ElevatorInterface {
    */
   boolean isTakingRequests();
 
+  /**
+   * This method is used to get the elevator status packed into a long, without allocating.
+   *
+   * @return the packed status, see PackedElevatorStatus.
+   */
+  long getPackedStatus();
+
   /**
    * This method is used to get the elevator status ElevatorReport.
    *
@@ -114,4 +165,20 @@ public interface ElevatorInterface {
    */
   ElevatorReport getElevatorStatus();
 
+  /**
+   * This method is used to fill a buffer with the elevator status, without allocating.
+   *
+   * @param out the buffer to fill.
+   */
+  void getElevatorStatus(ElevatorReportBuffer out);
+
+  /**
+   * This method is used to get the state version of the elevator. The version goes up every
+   * time the state of the elevator changes, and stays the same while it does not, so two equal
+   * versions mean the elevator status has not changed in between.
+   *
+   * @return the state version.
+   */
+  long getStateVersion();
+
 }
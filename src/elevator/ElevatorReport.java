@@ -4,21 +4,18 @@ import building.enums.Direction;
 
 /**
  * This class is used to represent the status of the elevators.
+ * <p></p>
+ * A report is immutable: apart from the id, the status is held as a single packed long, see
+ * {@link PackedElevatorStatus}, so a report never shares state with the elevator it describes
+ * and two reports compare by comparing that long.
  */
 public class ElevatorReport {
   private final int elevatorId;
-  private final int currentFloor;
-  private final boolean doorClosed;
-  private final boolean[] floorRequests;
-  private final Direction direction;
-
-  private final int doorOpenTimer;
-  private final int endWaitTimer;
-
-  private final boolean outOfService;
-
-  private final boolean isTakingRequests;
 
+  /**
+   * Everything else about the elevator, see PackedElevatorStatus.
+   */
+  private final long status;
 
   /**
    * This constructor is used to create a new ElevatorReport object.
@@ -26,12 +23,14 @@ public class ElevatorReport {
    * @param elevatorId       The id of the elevator.
    * @param currentFloor     The current floor of the elevator.
    * @param doorClosed       The status of the door.
-   * @param floorRequests    The requests for the floors.
+   * @param floorRequests    The requests for the floors, at most 32.
    * @param direction        The direction of the elevator.
-   * @param doorOpenTimer    The timer for the door.
-   * @param endWaitTimer     The timer for the end of the run.
+   * @param doorOpenTimer    The timer for the door, between 0 and 15.
+   * @param endWaitTimer     The timer for the end of the run, between 0 and 15.
    * @param outOfService     The status of the elevator.
    * @param isTakingRequests Is the elevator taking requests.
+   * @throws IllegalArgumentException if a value does not fit the packed status, see
+   *                                  {@link PackedElevatorStatus#pack}.
    */
   public ElevatorReport(int elevatorId,
                         int currentFloor,
@@ -42,16 +41,51 @@ public class ElevatorReport {
                         int doorOpenTimer,
                         int endWaitTimer,
                         boolean outOfService,
-                        boolean isTakingRequests) {
+                        boolean isTakingRequests) throws IllegalArgumentException {
+    this(elevatorId, currentFloor, direction, doorClosed,
+        FloorMask.fromArray(floorRequests), floorRequests.length,
+        doorOpenTimer, endWaitTimer, outOfService, isTakingRequests);
+  }
+
+  /**
+   * This constructor is used to create a new ElevatorReport object from a floor request mask.
+   *
+   * @param elevatorId       The id of the elevator.
+   * @param currentFloor     The current floor of the elevator.
+   * @param direction        The direction of the elevator.
+   * @param doorClosed       The status of the door.
+   * @param floorRequests    The requests for the floors, bit f is set for floor f.
+   * @param numFloors        The number of floors in the building, at most 32.
+   * @param doorOpenTimer    The timer for the door, between 0 and 15.
+   * @param endWaitTimer     The timer for the end of the run, between 0 and 15.
+   * @param outOfService     The status of the elevator.
+   * @param isTakingRequests Is the elevator taking requests.
+   * @throws IllegalArgumentException if a value does not fit the packed status, see
+   *                                  {@link PackedElevatorStatus#pack}.
+   */
+  public ElevatorReport(int elevatorId,
+                        int currentFloor,
+                        Direction direction,
+                        boolean doorClosed,
+                        int floorRequests,
+                        int numFloors,
+                        int doorOpenTimer,
+                        int endWaitTimer,
+                        boolean outOfService,
+                        boolean isTakingRequests) throws IllegalArgumentException {
+    this(elevatorId, PackedElevatorStatus.pack(currentFloor, direction, doorClosed,
+        floorRequests, numFloors, doorOpenTimer, endWaitTimer, outOfService, isTakingRequests));
+  }
+
+  /**
+   * This constructor is used to create a new ElevatorReport object from a packed status.
+   *
+   * @param elevatorId The id of the elevator.
+   * @param status     The packed status of the elevator, see PackedElevatorStatus.
+   */
+  public ElevatorReport(int elevatorId, long status) {
     this.elevatorId = elevatorId;
-    this.currentFloor = currentFloor;
-    this.doorClosed = doorClosed;
-    this.floorRequests = floorRequests;
-    this.direction = direction;
-    this.doorOpenTimer = doorOpenTimer;
-    this.endWaitTimer = endWaitTimer;
-    this.outOfService = outOfService;
-    this.isTakingRequests = isTakingRequests;
+    this.status = status;
   }
 
 
@@ -72,7 +106,7 @@ public class ElevatorReport {
    * @return The current floor of the elevator.
    */
   public int getCurrentFloor() {
-    return currentFloor;
+    return PackedElevatorStatus.getCurrentFloor(status);
   }
 
   /**
@@ -81,7 +115,7 @@ public class ElevatorReport {
    * @return The status of the door.
    */
   public boolean isDoorClosed() {
-    return doorClosed;
+    return PackedElevatorStatus.isDoorClosed(status);
   }
 
   /**
@@ -90,7 +124,26 @@ public class ElevatorReport {
    * @return The requests for the floors.
    */
   public boolean[] getFloorRequests() {
-    return floorRequests;
+    return FloorMask.toArray(PackedElevatorStatus.getFloorRequestMask(status),
+        PackedElevatorStatus.getNumFloors(status));
+  }
+
+  /**
+   * This method is used to get the requests for the floors as a bitmask.
+   *
+   * @return The requests for the floors, bit f is set if there is a request for floor f.
+   */
+  public int getFloorRequestMask() {
+    return PackedElevatorStatus.getFloorRequestMask(status);
+  }
+
+  /**
+   * This method is used to get the status of the elevator packed into a long.
+   *
+   * @return The packed status of the elevator, see PackedElevatorStatus.
+   */
+  public long getPackedStatus() {
+    return status;
   }
 
   /**
@@ -99,7 +152,7 @@ public class ElevatorReport {
    * @return The direction of the elevator.
    */
   public Direction getDirection() {
-    return direction;
+    return PackedElevatorStatus.getDirection(status);
   }
 
   /**
@@ -108,7 +161,7 @@ public class ElevatorReport {
    * @return The timer for the door.
    */
   public int getDoorOpenTimer() {
-    return doorOpenTimer;
+    return PackedElevatorStatus.getDoorOpenTimer(status);
   }
 
   /**
@@ -117,7 +170,7 @@ public class ElevatorReport {
    * @return The timer for the end of the run.
    */
   public int getEndWaitTimer() {
-    return endWaitTimer;
+    return PackedElevatorStatus.getEndWaitTimer(status);
   }
 
   /**
@@ -126,7 +179,7 @@ public class ElevatorReport {
    * @return The status of the elevator.
    */
   public boolean isOutOfService() {
-    return outOfService;
+    return PackedElevatorStatus.isOutOfService(status);
   }
 
 
@@ -136,7 +189,7 @@ public class ElevatorReport {
    * @return is the elevator taking requests.
    */
   public boolean isTakingRequests() {
-    return isTakingRequests;
+    return PackedElevatorStatus.isTakingRequests(status);
   }
 
   /**
@@ -147,30 +200,33 @@ public class ElevatorReport {
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
+    int currentFloor = getCurrentFloor();
 
     // if the elevator is out of service and on the ground floor
-    if (this.outOfService && this.currentFloor == 0) {
-      sb.append(String.format("Out of Service[Floor %d]", this.currentFloor));
+    if (isOutOfService() && currentFloor == 0) {
+      sb.append(String.format("Out of Service[Floor %d]", currentFloor));
       return sb.toString();
     }
 
-    if (this.endWaitTimer > 0) {
-      sb.append(String.format("Waiting[Floor %d, Time %d]", this.currentFloor, this.endWaitTimer));
+    if (getEndWaitTimer() > 0) {
+      sb.append(String.format("Waiting[Floor %d, Time %d]", currentFloor, getEndWaitTimer()));
       return sb.toString();
     }
 
     sb.append(String.format("[%d|%s|",
-        this.currentFloor,
-        this.direction));
+        currentFloor,
+        getDirection()));
 
-    if (this.doorClosed) {
+    if (isDoorClosed()) {
       sb.append("C  ]<");
     } else {
-      sb.append(String.format("O %d]<", this.doorOpenTimer));
+      sb.append(String.format("O %d]<", getDoorOpenTimer()));
     }
 
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i]) {
+    int floorRequests = getFloorRequestMask();
+    int numFloors = PackedElevatorStatus.getNumFloors(status);
+    for (int i = 0; i < numFloors; i++) {
+      if (FloorMask.contains(floorRequests, i)) {
         sb.append(String.format(" %2d", i));
       } else {
         sb.append(" --");
@@ -196,36 +252,7 @@ public class ElevatorReport {
       return false;
     }
     ElevatorReport that = (ElevatorReport) o;
-    if (this.elevatorId != that.elevatorId) {
-      return false;
-    }
-    if (this.currentFloor != that.currentFloor) {
-      return false;
-    }
-    if (this.doorClosed != that.doorClosed) {
-      return false;
-    }
-    if (this.doorOpenTimer != that.doorOpenTimer) {
-      return false;
-    }
-    if (this.endWaitTimer != that.endWaitTimer) {
-      return false;
-    }
-    if (this.outOfService != that.outOfService) {
-      return false;
-    }
-    if (this.direction != that.direction) {
-      return false;
-    }
-    if (this.isTakingRequests != that.isTakingRequests) {
-      return false;
-    }
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i] != that.floorRequests[i]) {
-        return false;
-      }
-    }
-    return true;
+    return this.status == that.status && this.elevatorId == that.elevatorId;
   }
 
   /**
@@ -233,18 +260,6 @@ public class ElevatorReport {
    */
   @Override
   public int hashCode() {
-    int result = 17;
-    result = 31 * result + this.elevatorId;
-    result = 31 * result + this.currentFloor;
-    result = 31 * result + (this.doorClosed ? 1 : 0);
-    result = 31 * result + this.doorOpenTimer;
-    result = 31 * result + this.endWaitTimer;
-    result = 31 * result + (this.outOfService ? 1 : 0);
-    result = 31 * result + (this.isTakingRequests ? 1 : 0);
-    result = 31 * result + this.direction.hashCode();
-    for (boolean floorRequest : this.floorRequests) {
-      result = 31 * result + (floorRequest ? 1 : 0);
-    }
-    return result;
+    return 31 * Long.hashCode(this.status) + this.elevatorId;
   }
 }
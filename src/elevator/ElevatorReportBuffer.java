@@ -0,0 +1,138 @@
+package elevator;
+
+import building.enums.Direction;
+
+/**
+ * A reusable holder for the status of one elevator.
+ * <p></p>
+ * It answers the same questions as an {@link ElevatorReport}, but is filled in by the elevator
+ * instead of being created by it, so a caller that reads the status of its elevators over and
+ * over can keep one buffer and allocate nothing. Unlike a report, a buffer changes every time
+ * it is filled, so it should not be kept as a record of a past state; use toReport() for that.
+ */
+public class ElevatorReportBuffer {
+  private int elevatorId;
+  private long status;
+
+  /**
+   * This constructor is used to create an empty buffer.
+   */
+  public ElevatorReportBuffer() {
+    this.elevatorId = -1;
+  }
+
+  /**
+   * Fill the buffer with the status of an elevator.
+   *
+   * @param elevatorId The id of the elevator.
+   * @param status     The packed status of the elevator, see PackedElevatorStatus.
+   */
+  public void set(int elevatorId, long status) {
+    this.elevatorId = elevatorId;
+    this.status = status;
+  }
+
+  /**
+   * This method is used to get the id of the elevator.
+   *
+   * @return The id of the elevator, or -1 if the buffer was never filled.
+   */
+  public int getElevatorId() {
+    return elevatorId;
+  }
+
+  /**
+   * This method is used to get the status of the elevator packed into a long.
+   *
+   * @return The packed status of the elevator, see PackedElevatorStatus.
+   */
+  public long getPackedStatus() {
+    return status;
+  }
+
+  /**
+   * This method is used to get the current floor of the elevator.
+   *
+   * @return The current floor of the elevator.
+   */
+  public int getCurrentFloor() {
+    return PackedElevatorStatus.getCurrentFloor(status);
+  }
+
+  /**
+   * This method is used to get the direction of the elevator.
+   *
+   * @return The direction of the elevator.
+   */
+  public Direction getDirection() {
+    return PackedElevatorStatus.getDirection(status);
+  }
+
+  /**
+   * This method is used to get the status of the door.
+   *
+   * @return The status of the door.
+   */
+  public boolean isDoorClosed() {
+    return PackedElevatorStatus.isDoorClosed(status);
+  }
+
+  /**
+   * This method is used to get the requests for the floors as a bitmask.
+   *
+   * @return The requests for the floors, bit f is set if there is a request for floor f.
+   */
+  public int getFloorRequestMask() {
+    return PackedElevatorStatus.getFloorRequestMask(status);
+  }
+
+  /**
+   * This method is used to get the timer for the door.
+   *
+   * @return The timer for the door.
+   */
+  public int getDoorOpenTimer() {
+    return PackedElevatorStatus.getDoorOpenTimer(status);
+  }
+
+  /**
+   * This method is used to get the timer for the end of the run.
+   *
+   * @return The timer for the end of the run.
+   */
+  public int getEndWaitTimer() {
+    return PackedElevatorStatus.getEndWaitTimer(status);
+  }
+
+  /**
+   * This method is used to get the status of the elevator.
+   *
+   * @return The status of the elevator.
+   */
+  public boolean isOutOfService() {
+    return PackedElevatorStatus.isOutOfService(status);
+  }
+
+  /**
+   * Is the elevator taking requests.
+   *
+   * @return is the elevator taking requests.
+   */
+  public boolean isTakingRequests() {
+    return PackedElevatorStatus.isTakingRequests(status);
+  }
+
+  /**
+   * Copy the buffer into an immutable report.
+   *
+   * @return a new report with the status in the buffer.
+   */
+  public ElevatorReport toReport() {
+    return new ElevatorReport(elevatorId, status);
+  }
+
+  @Override
+  public String toString() {
+    return toReport().toString();
+  }
+}
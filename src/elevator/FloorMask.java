@@ -0,0 +1,89 @@
+package elevator;
+
+/**
+ * Helpers for floor request sets stored as a bitmask.
+ * <p></p>
+ * Bit f of the mask is set when there is a request for floor f. Because a building has at most
+ * 30 floors the whole set fits in one int, and looking up the next stop above or below a floor
+ * is a single bit operation instead of a loop over the floors.
+ */
+public final class FloorMask {
+
+  /**
+   * This class only has static helpers.
+   */
+  private FloorMask() {
+  }
+
+  /**
+   * Check if there is a request for a floor.
+   *
+   * @param mask  the floor request mask.
+   * @param floor the floor to check.
+   * @return true if the floor is requested, false otherwise.
+   */
+  public static boolean contains(int mask, int floor) {
+    return (mask & (1 << floor)) != 0;
+  }
+
+  /**
+   * Find the lowest requested floor strictly above the given floor.
+   *
+   * @param mask  the floor request mask.
+   * @param floor the floor to search from.
+   * @return the next requested floor above, or -1 if there is none.
+   */
+  public static int nextAbove(int mask, int floor) {
+    int above = mask & (-2 << floor);
+    if (above == 0) {
+      return -1;
+    }
+    return Integer.numberOfTrailingZeros(above);
+  }
+
+  /**
+   * Find the highest requested floor strictly below the given floor.
+   *
+   * @param mask  the floor request mask.
+   * @param floor the floor to search from.
+   * @return the next requested floor below, or -1 if there is none.
+   */
+  public static int nextBelow(int mask, int floor) {
+    int below = mask & ((1 << floor) - 1);
+    if (below == 0) {
+      return -1;
+    }
+    return Integer.numberOfTrailingZeros(Integer.highestOneBit(below));
+  }
+
+  /**
+   * Build the mask for an array of floor requests.
+   *
+   * @param floorRequests the floor requests, true if there is a request for the floor.
+   * @return the floor request mask.
+   */
+  public static int fromArray(boolean[] floorRequests) {
+    int mask = 0;
+    for (int i = 0; i < floorRequests.length; i++) {
+      if (floorRequests[i]) {
+        mask |= 1 << i;
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Expand a mask into an array of floor requests.
+   *
+   * @param mask      the floor request mask.
+   * @param numFloors the number of floors in the building.
+   * @return a new array, true if there is a request for the floor.
+   */
+  public static boolean[] toArray(int mask, int numFloors) {
+    boolean[] floorRequests = new boolean[numFloors];
+    for (int rest = mask; rest != 0; rest &= rest - 1) {
+      floorRequests[Integer.numberOfTrailingZeros(rest)] = true;
+    }
+    return floorRequests;
+  }
+}
@@ -0,0 +1,208 @@
+package elevator;
+
+import building.enums.Direction;
+
+/**
+ * Helpers for the status of an elevator packed into a single long.
+ * <p></p>
+ * Everything an {@link ElevatorReport} says about a car except its id fits in 56 bits, so a
+ * status can be taken, kept and compared without allocating anything, and the status of a
+ * whole fleet is a plain long array indexed by car. The layout, from the lowest bit, is:
+ * <ul>
+ *   <li>bits 0-31: the floor request mask, see FloorMask.</li>
+ *   <li>bits 32-36: the current floor.</li>
+ *   <li>bits 37-42: the number of floors in the building.</li>
+ *   <li>bits 43-44: the direction, in the order of {@link Direction}.</li>
+ *   <li>bit 45: set if the door is closed.</li>
+ *   <li>bits 46-49: the door open timer.</li>
+ *   <li>bits 50-53: the end wait timer.</li>
+ *   <li>bit 54: set if the elevator is out of service.</li>
+ *   <li>bit 55: set if the elevator is taking requests.</li>
+ * </ul>
+ * Two statuses are equal exactly when their longs are equal.
+ */
+public final class PackedElevatorStatus {
+
+  private static final int FLOOR_SHIFT = 32;
+  private static final int NUM_FLOORS_SHIFT = 37;
+  private static final int DIRECTION_SHIFT = 43;
+  private static final int DOOR_CLOSED_SHIFT = 45;
+  private static final int DOOR_OPEN_TIMER_SHIFT = 46;
+  private static final int END_WAIT_TIMER_SHIFT = 50;
+  private static final int OUT_OF_SERVICE_SHIFT = 54;
+  private static final int TAKING_REQUESTS_SHIFT = 55;
+
+  private static final int FLOOR_BITS = 0x1f;
+  private static final int NUM_FLOORS_BITS = 0x3f;
+  private static final int DIRECTION_BITS = 0x3;
+  private static final int TIMER_BITS = 0xf;
+
+  /**
+   * The largest number of floors the floor request mask can hold.
+   */
+  public static final int MAX_FLOORS = 32;
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  /**
+   * This class only has static helpers.
+   */
+  private PackedElevatorStatus() {
+  }
+
+  /**
+   * Pack the status of an elevator into a long.
+   *
+   * @param currentFloor     the current floor of the elevator.
+   * @param direction        the direction of the elevator.
+   * @param doorClosed       the status of the door.
+   * @param floorRequests    the requests for the floors, bit f is set for floor f.
+   * @param numFloors        the number of floors in the building, at most 32.
+   * @param doorOpenTimer    the timer for the door, between 0 and 15.
+   * @param endWaitTimer     the timer for the end of the run, between 0 and 15.
+   * @param outOfService     the status of the elevator.
+   * @param isTakingRequests is the elevator taking requests.
+   * @return the packed status.
+   * @throws IllegalArgumentException if a value does not fit its field.
+   */
+  public static long pack(int currentFloor,
+                          Direction direction,
+                          boolean doorClosed,
+                          int floorRequests,
+                          int numFloors,
+                          int doorOpenTimer,
+                          int endWaitTimer,
+                          boolean outOfService,
+                          boolean isTakingRequests) throws IllegalArgumentException {
+    if (numFloors < 0 || numFloors > MAX_FLOORS) {
+      throw new IllegalArgumentException("The number of floors must be between 0 and 32.");
+    }
+    if (currentFloor < 0 || currentFloor > FLOOR_BITS) {
+      throw new IllegalArgumentException("The current floor must be between 0 and 31.");
+    }
+    if (doorOpenTimer < 0 || doorOpenTimer > TIMER_BITS
+        || endWaitTimer < 0 || endWaitTimer > TIMER_BITS) {
+      throw new IllegalArgumentException("The timers must be between 0 and 15.");
+    }
+    return (floorRequests & 0xffffffffL)
+        | (long) currentFloor << FLOOR_SHIFT
+        | (long) numFloors << NUM_FLOORS_SHIFT
+        | (long) direction.ordinal() << DIRECTION_SHIFT
+        | (doorClosed ? 1L : 0L) << DOOR_CLOSED_SHIFT
+        | (long) doorOpenTimer << DOOR_OPEN_TIMER_SHIFT
+        | (long) endWaitTimer << END_WAIT_TIMER_SHIFT
+        | (outOfService ? 1L : 0L) << OUT_OF_SERVICE_SHIFT
+        | (isTakingRequests ? 1L : 0L) << TAKING_REQUESTS_SHIFT;
+  }
+
+  /**
+   * Check that a long is a status pack() could have made: the number of floors fits the floor
+   * request mask, the current floor and the requested floors are inside the building, the
+   * direction is one of the directions and the unused bits are clear.
+   *
+   * @param status the packed status.
+   * @return true if the status is valid, false otherwise.
+   */
+  public static boolean isValid(long status) {
+    int numFloors = getNumFloors(status);
+    if (status >>> (TAKING_REQUESTS_SHIFT + 1) != 0 || numFloors > MAX_FLOORS) {
+      return false;
+    }
+    if (((int) (status >>> DIRECTION_SHIFT) & DIRECTION_BITS) >= DIRECTIONS.length) {
+      return false;
+    }
+    int outside = numFloors == MAX_FLOORS ? 0 : -1 << numFloors;
+    return getCurrentFloor(status) < Math.max(numFloors, 1)
+        && (getFloorRequestMask(status) & outside) == 0;
+  }
+
+  /**
+   * Get the floor request mask of a packed status.
+   *
+   * @param status the packed status.
+   * @return the requests for the floors, bit f is set if there is a request for floor f.
+   */
+  public static int getFloorRequestMask(long status) {
+    return (int) status;
+  }
+
+  /**
+   * Get the current floor of a packed status.
+   *
+   * @param status the packed status.
+   * @return the current floor of the elevator.
+   */
+  public static int getCurrentFloor(long status) {
+    return (int) (status >>> FLOOR_SHIFT) & FLOOR_BITS;
+  }
+
+  /**
+   * Get the number of floors of a packed status.
+   *
+   * @param status the packed status.
+   * @return the number of floors in the building.
+   */
+  public static int getNumFloors(long status) {
+    return (int) (status >>> NUM_FLOORS_SHIFT) & NUM_FLOORS_BITS;
+  }
+
+  /**
+   * Get the direction of a packed status.
+   *
+   * @param status the packed status.
+   * @return the direction of the elevator.
+   */
+  public static Direction getDirection(long status) {
+    return DIRECTIONS[(int) (status >>> DIRECTION_SHIFT) & DIRECTION_BITS];
+  }
+
+  /**
+   * Get the status of the door of a packed status.
+   *
+   * @param status the packed status.
+   * @return true if the door is closed.
+   */
+  public static boolean isDoorClosed(long status) {
+    return (status & (1L << DOOR_CLOSED_SHIFT)) != 0;
+  }
+
+  /**
+   * Get the door open timer of a packed status.
+   *
+   * @param status the packed status.
+   * @return the timer for the door.
+   */
+  public static int getDoorOpenTimer(long status) {
+    return (int) (status >>> DOOR_OPEN_TIMER_SHIFT) & TIMER_BITS;
+  }
+
+  /**
+   * Get the end wait timer of a packed status.
+   *
+   * @param status the packed status.
+   * @return the timer for the end of the run.
+   */
+  public static int getEndWaitTimer(long status) {
+    return (int) (status >>> END_WAIT_TIMER_SHIFT) & TIMER_BITS;
+  }
+
+  /**
+   * Get the service status of a packed status.
+   *
+   * @param status the packed status.
+   * @return true if the elevator is out of service.
+   */
+  public static boolean isOutOfService(long status) {
+    return (status & (1L << OUT_OF_SERVICE_SHIFT)) != 0;
+  }
+
+  /**
+   * Get the taking requests flag of a packed status.
+   *
+   * @param status the packed status.
+   * @return true if the elevator is taking requests.
+   */
+  public static boolean isTakingRequests(long status) {
+    return (status & (1L << TAKING_REQUESTS_SHIFT)) != 0;
+  }
+}
@@ -6,6 +6,22 @@ package scanerzus;
  * All requests have a startFloor and endFloor
  */
 public class Request implements RequestInterface {
+  /**
+   * The number of floors covered by the shared request table.
+   * A building has at most 30 floors, so every real request is in the table.
+   */
+  public static final int CACHED_FLOORS = 30;
+
+  private static final Request[] CACHE = new Request[CACHED_FLOORS * CACHED_FLOORS];
+
+  static {
+    for (int start = 0; start < CACHED_FLOORS; start++) {
+      for (int end = 0; end < CACHED_FLOORS; end++) {
+        CACHE[start * CACHED_FLOORS + end] = new Request(start, end);
+      }
+    }
+  }
+
   private final int startFloor;
   private final int endFloor;
 
@@ -27,6 +43,24 @@ public class Request implements RequestInterface {
     this.endFloor = endFloor;
   }
 
+  /**
+   * Returns the request for a pair of floors.
+   * Requests are immutable, so every pair of floors below CACHED_FLOORS is served from a table
+   * built once, and asking for a request does not allocate anything. Floors outside the table
+   * get a new request.
+   *
+   * @param startFloor the start floor.
+   * @param endFloor   the end floor.
+   * @return the request from startFloor to endFloor.
+   */
+  public static Request of(int startFloor, int endFloor) {
+    if (startFloor >= 0 && startFloor < CACHED_FLOORS
+        && endFloor >= 0 && endFloor < CACHED_FLOORS) {
+      return CACHE[startFloor * CACHED_FLOORS + endFloor];
+    }
+    return new Request(startFloor, endFloor);
+  }
+
   /**
    * Gets the start floor of the request.
    *
@@ -55,6 +89,35 @@ public class Request implements RequestInterface {
   public String toString() {
     return startFloor + "->" + endFloor;
   }
+
+  /**
+   * Two requests are equal if they have the same start and end floor,
+   * whether they come from the shared table or not.
+   *
+   * @param o the object to compare to.
+   * @return true if the requests are equal, false otherwise.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Request)) {
+      return false;
+    }
+    Request that = (Request) o;
+    return this.startFloor == that.startFloor && this.endFloor == that.endFloor;
+  }
+
+  /**
+   * The hashcode method for the request.
+   *
+   * @return the hashcode of the request.
+   */
+  @Override
+  public int hashCode() {
+    return 31 * startFloor + endFloor;
+  }
 }
 
 
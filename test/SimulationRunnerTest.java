@@ -0,0 +1,228 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+import org.junit.After;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the SimulationRunner class. It needs no display, only the event
+ * dispatch thread.
+ */
+public class SimulationRunnerTest {
+
+  private final List<SimulationFrame> frames = new CopyOnWriteArrayList<>();
+  private final AtomicBoolean framesOnEventThread = new AtomicBoolean(true);
+  private final CountDownLatch failed = new CountDownLatch(1);
+  private final AtomicReference<RuntimeException> error = new AtomicReference<>();
+  private final AtomicBoolean errorOnEventThread = new AtomicBoolean();
+  private final CountDownLatch releaseEventThread = new CountDownLatch(1);
+  private SimulationRunner runner;
+
+  @After
+  public void tearDown() throws Exception {
+    releaseEventThread.countDown();
+    if (runner != null) {
+      runner.stop();
+    }
+  }
+
+  /**
+   * Create a runner for a started building that records its frames and its error.
+   */
+  private SimulationRunner runnerFor(Building model, int ticksPerSecond) {
+    model.startElevatorSystem();
+    runner = new SimulationRunner(model, ticksPerSecond,
+        frame -> {
+          framesOnEventThread.compareAndSet(true, SwingUtilities.isEventDispatchThread());
+          frames.add(frame);
+        },
+        e -> {
+          errorOnEventThread.set(SwingUtilities.isEventDispatchThread());
+          error.set(e);
+          failed.countDown();
+        });
+    return runner;
+  }
+
+  /**
+   * Keep the event dispatch thread busy until the test releases it.
+   */
+  private void blockEventThread() throws InterruptedException {
+    CountDownLatch blocked = new CountDownLatch(1);
+    SwingUtilities.invokeLater(() -> {
+      blocked.countDown();
+      try {
+        releaseEventThread.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    blocked.await();
+  }
+
+  /**
+   * Wait until every task queued on the event dispatch thread so far has run.
+   */
+  private static void flushEventThread() throws Exception {
+    SwingUtilities.invokeAndWait(() -> { });
+  }
+
+  @Test
+  public void stepsAtTheTickRate() throws Exception {
+    Building model = new Building(10, 2, 5);
+    SimulationRunner runner = runnerFor(model, 100);
+    assertEquals(100, runner.getTickRate());
+    runner.start();
+    assertTrue(runner.isRunning());
+    Thread.sleep(500);
+    runner.stop();
+    assertFalse(runner.isRunning());
+
+    // 50 ticks are due, leave room for a slow machine
+    long ticks = runner.getTicks();
+    assertTrue("ticks " + ticks, ticks >= 20 && ticks <= 60);
+    assertEquals(ticks, model.getCurrentTick());
+  }
+
+  @Test
+  public void stepsAsFastAsPossibleAtRateZero() throws Exception {
+    Building model = new Building(10, 2, 5);
+    SimulationRunner runner = runnerFor(model, 100);
+    runner.setTickRate(0);
+    runner.start();
+    Thread.sleep(200);
+    runner.stop();
+    assertTrue("ticks " + runner.getTicks(), runner.getTicks() > 1000);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsNegativeTickRate() {
+    runnerFor(new Building(10, 2, 5), 10).setTickRate(-1);
+  }
+
+  @Test
+  public void coalescesFramesWhileTheEventThreadIsBusy() throws Exception {
+    Building model = new Building(10, 2, 5);
+    SimulationRunner runner = runnerFor(model, 0);
+    blockEventThread();
+    runner.start();
+    Thread.sleep(300);
+
+    // hold the runner between two steps so no frame is published after the release
+    CountDownLatch held = new CountDownLatch(1);
+    CountDownLatch resume = new CountDownLatch(1);
+    runner.submit(() -> {
+      held.countDown();
+      try {
+        resume.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    assertTrue(held.await(5, TimeUnit.SECONDS));
+    assertTrue("dropped " + runner.getFramesDropped(), runner.getFramesDropped() > 0);
+    assertEquals(0, frames.size());
+
+    releaseEventThread.countDown();
+    flushEventThread();
+    assertEquals(1, frames.size());
+    assertTrue(framesOnEventThread.get());
+
+    resume.countDown();
+    runner.stop();
+  }
+
+  @Test
+  public void dropsThePendingFrameOnStop() throws Exception {
+    Building model = new Building(10, 2, 5);
+    SimulationRunner runner = runnerFor(model, 0);
+    blockEventThread();
+    runner.start();
+    Thread.sleep(100);
+    runner.stop();
+
+    releaseEventThread.countDown();
+    flushEventThread();
+    assertTrue(runner.getTicks() > 0);
+    assertEquals(0, frames.size());
+  }
+
+  @Test
+  public void runsCommandsOnTheRunnerThread() throws Exception {
+    Building model = new Building(10, 2, 5);
+    SimulationRunner runner = runnerFor(model, 50);
+    runner.start();
+    AtomicReference<Thread> ranOn = new AtomicReference<>();
+    CountDownLatch ran = new CountDownLatch(1);
+    runner.submit(() -> {
+      ranOn.set(Thread.currentThread());
+      model.addRequest(Request.of(0, 5));
+      ran.countDown();
+    });
+    assertTrue(ran.await(5, TimeUnit.SECONDS));
+    runner.stop();
+    assertEquals("elevator-simulation", ranOn.get().getName());
+    assertFalse(model.allRequestsServed());
+  }
+
+  @Test
+  public void stopsAndReportsWhenACommandThrows() throws Exception {
+    Building model = new Building(10, 2, 5);
+    SimulationRunner runner = runnerFor(model, 0);
+    runner.start();
+    IllegalStateException boom = new IllegalStateException("boom");
+    runner.submit(() -> {
+      throw boom;
+    });
+
+    assertTrue(failed.await(5, TimeUnit.SECONDS));
+    assertSame(boom, error.get());
+    assertTrue(errorOnEventThread.get());
+    assertFalse(runner.isRunning());
+    assertSame(boom, runner.getFailure());
+
+    // the building is handed back and the runner can start again
+    runner.stop();
+    long tick = model.getCurrentTick();
+    model.stepElevatorSystem();
+    assertEquals(tick + 1, model.getCurrentTick());
+    runner.start();
+    assertTrue(runner.isRunning());
+    assertNull(runner.getFailure());
+    runner.stop();
+  }
+
+  @Test
+  public void stopsAndReportsWhenAStepThrows() throws Exception {
+    Building model = new Building(10, 2, 5) {
+      @Override
+      public void stepElevatorSystem() {
+        if (getCurrentTick() == 10) {
+          throw new IllegalStateException("step " + getCurrentTick());
+        }
+        super.stepElevatorSystem();
+      }
+    };
+    SimulationRunner runner = runnerFor(model, 0);
+    runner.start();
+
+    assertTrue(failed.await(5, TimeUnit.SECONDS));
+    assertEquals("step 10", error.get().getMessage());
+    assertFalse(runner.isRunning());
+    assertEquals(10, runner.getTicks());
+    runner.stop();
+    assertEquals(10, model.getCurrentTick());
+  }
+}
@@ -0,0 +1,124 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the getChangesSince() method of the buildings.
+ */
+public class BuildingChangesTest {
+
+  /**
+   * Count the waiting requests per start floor in a list of requests.
+   *
+   * @param requests  the requests.
+   * @param numFloors the number of floors.
+   * @return the number of requests per floor.
+   */
+  private static int[] depths(Iterable<Request> requests, int numFloors) {
+    int[] depths = new int[numFloors];
+    for (Request request : requests) {
+      depths[request.getStartFloor()]++;
+    }
+    return depths;
+  }
+
+  /**
+   * Keep a copy of a building up to date from its changes only, and check it against the full
+   * report of the building.
+   *
+   * @param building the building.
+   */
+  private static void assertChangesRebuildState(BuildingInterface building) {
+    int floors = building.getNumFloors();
+    ElevatorReport[] elevators = new ElevatorReport[building.getNumElevators()];
+    int[] up = new int[floors];
+    int[] down = new int[floors];
+    long version = -1;
+    Random random = new Random(3);
+
+    for (int round = 0; round < 400; round++) {
+      BuildingChanges changes = building.getChangesSince(version);
+      assertEquals(version, changes.getFromVersion());
+      for (ElevatorReport report : changes.getElevatorReports()) {
+        elevators[report.getElevatorId()] = report;
+      }
+      for (int i = 0; i < changes.getUpFloors().length; i++) {
+        up[changes.getUpFloors()[i]] = changes.getUpDepths()[i];
+      }
+      for (int i = 0; i < changes.getDownFloors().length; i++) {
+        down[changes.getDownFloors()[i]] = changes.getDownDepths()[i];
+      }
+      version = changes.getToVersion();
+      assertEquals(building.getStateVersion(), version);
+
+      BuildingReport report = building.getElevatorSystemStatus();
+      for (int i = 0; i < elevators.length; i++) {
+        assertEquals(report.getElevatorReports()[i], elevators[i]);
+      }
+      assertEquals(Arrays.toString(depths(report.getUpRequests(), floors)),
+          Arrays.toString(up));
+      assertEquals(Arrays.toString(depths(report.getDownRequests(), floors)),
+          Arrays.toString(down));
+      assertEquals(report.getSystemStatus(), changes.getSystemStatus());
+
+      if (round % 100 == 0) {
+        if (building.getSystemStatus() == ElevatorSystemStatus.running) {
+          building.stopElevatorSystem();
+        } else if (building.getSystemStatus()
+            == ElevatorSystemStatus.outOfService) {
+          building.startElevatorSystem();
+        }
+      }
+      for (int i = random.nextInt(4); i > 0; i--) {
+        building.addRequest(Request.of(random.nextInt(floors), random.nextInt(floors)));
+      }
+      if (building.getSystemStatus() != ElevatorSystemStatus.outOfService) {
+        building.stepElevatorSystem(1 + random.nextInt(5));
+      }
+    }
+  }
+
+  @Test
+  public void changesRebuildBuildingState() {
+    assertChangesRebuildState(new Building(12, 6, 4));
+  }
+
+  @Test
+  public void changesRebuildElevatorBankBuildingState() {
+    assertChangesRebuildState(new ElevatorBankBuilding(12, 6, 4));
+  }
+
+  @Test
+  public void noChangesWhileIdle() {
+    Building building = new Building(10, 3, 3);
+    building.startElevatorSystem();
+    building.stepElevatorSystem(3);
+    building.stopElevatorSystem();
+    building.runUntil(b -> false, 1000);
+
+    long version = building.getStateVersion();
+    assertTrue(building.getChangesSince(version).isEmpty());
+
+    assertTrue(building.startElevatorSystem());
+    building.addRequest(new Request(4, 2));
+    BuildingChanges changes = building.getChangesSince(version);
+    assertEquals(3, changes.getElevatorReports().length);
+    assertEquals(0, changes.getUpFloors().length);
+    assertEquals(4, changes.getDownFloors()[0]);
+    assertEquals(1, changes.getDownDepths()[0]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void versionFromTheFuture() {
+    Building building = new Building(10, 3, 3);
+    building.getChangesSince(building.getStateVersion() + 1);
+  }
+}
@@ -0,0 +1,203 @@
+package building;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import building.enums.ElevatorSystemStatus;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the checkpoints of the Building class.
+ */
+public class BuildingCheckpointTest {
+
+  private static byte[] checkpoint(Building building) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      building.writeCheckpoint(out);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Building restore(byte[] checkpoint, DispatchStrategy strategy)
+      throws IOException {
+    return Building.readCheckpoint(
+        new DataInputStream(new ByteArrayInputStream(checkpoint)), strategy);
+  }
+
+  private static void addRandomRequests(Building building, Random random) {
+    int floors = building.getNumFloors();
+    for (int i = random.nextInt(4); i > 0; i--) {
+      building.addRequest(Request.of(random.nextInt(floors), random.nextInt(floors)));
+    }
+  }
+
+  private static void assertSameState(Building expected, Building actual) {
+    assertEquals(expected.getElevatorSystemStatus().toString(),
+        actual.getElevatorSystemStatus().toString());
+    assertArrayEquals(expected.getPackedElevatorStatus(null),
+        actual.getPackedElevatorStatus(null));
+    assertEquals(expected.getCurrentTick(), actual.getCurrentTick());
+    assertEquals(expected.getStateVersion(), actual.getStateVersion());
+    assertEquals(expected.getRequestsDistributed(), actual.getRequestsDistributed());
+  }
+
+  /**
+   * Run a building, checkpoint it halfway, and run the original and the restored building side
+   * by side with the same requests.
+   */
+  private static void continuesIdentically(DispatchStrategy original, DispatchStrategy fresh)
+      throws IOException {
+    Building building = new Building(15, 6, 4, original);
+    building.startElevatorSystem();
+    Random random = new Random(3);
+    for (int tick = 0; tick < 1500; tick++) {
+      addRandomRequests(building, random);
+      building.stepElevatorSystem();
+    }
+    // Leave requests waiting, so the order of the queues matters.
+    addRandomRequests(building, random);
+    building.addRequests(new int[] {2, 9, 7, 1, 2, 11, 14, 0});
+
+    byte[] saved = checkpoint(building);
+    Building restored = restore(saved, fresh);
+    assertSameState(building, restored);
+    assertArrayEquals(saved, checkpoint(restored));
+
+    Random forOriginal = new Random(4);
+    Random forRestored = new Random(4);
+    for (int tick = 0; tick < 3000; tick++) {
+      if (tick == 2500) {
+        building.stopElevatorSystem();
+        restored.stopElevatorSystem();
+      }
+      if (building.getSystemStatus() == ElevatorSystemStatus.outOfService) {
+        break;
+      }
+      addRandomRequests(building, forOriginal);
+      addRandomRequests(restored, forRestored);
+      building.stepElevatorSystem();
+      restored.stepElevatorSystem();
+      assertSameState(building, restored);
+    }
+    assertEquals(ElevatorSystemStatus.outOfService, restored.getSystemStatus());
+  }
+
+  @Test
+  public void terminalDispatchContinuesIdentically() throws IOException {
+    continuesIdentically(new TerminalDispatch(), new TerminalDispatch());
+  }
+
+  @Test
+  public void collectiveDispatchContinuesIdentically() throws IOException {
+    continuesIdentically(new CollectiveDispatch(), new CollectiveDispatch());
+  }
+
+  @Test
+  public void newBuilding() throws IOException {
+    Building building = new Building(8, 3, 5, new CollectiveDispatch());
+    Building restored = restore(checkpoint(building), new CollectiveDispatch());
+    assertSameState(building, restored);
+
+    building.startElevatorSystem();
+    restored.startElevatorSystem();
+    building.addRequest(Request.of(0, 5));
+    restored.addRequest(Request.of(0, 5));
+    building.stepElevatorSystem(40);
+    restored.stepElevatorSystem(40);
+    assertSameState(building, restored);
+  }
+
+  @Test
+  public void changesAfterRestore() throws IOException {
+    Building building = new Building(10, 4, 3);
+    building.startElevatorSystem();
+    building.addRequest(Request.of(3, 1));
+    building.stepElevatorSystem(12);
+    Building restored = restore(checkpoint(building), new TerminalDispatch());
+
+    BuildingChanges changes = restored.getChangesSince(-1);
+    assertEquals(restored.getStateVersion(), changes.getToVersion());
+    assertEquals(4, changes.getElevatorReports().length);
+    int floor = Arrays.binarySearch(changes.getDownFloors(), 3);
+    assertEquals(1, changes.getDownDepths()[floor]);
+    assertTrue(restored.getChangesSince(restored.getStateVersion()).isEmpty());
+  }
+
+  @Test
+  public void largeBuilding() throws IOException {
+    Building building = new Building(30, 10_000, 10);
+    building.startElevatorSystem();
+    Random random = new Random(9);
+    for (int tick = 0; tick < 50; tick++) {
+      for (int i = 0; i < 500; i++) {
+        building.addRequest(Request.of(random.nextInt(30), random.nextInt(30)));
+      }
+      building.stepElevatorSystem();
+    }
+
+    byte[] saved = checkpoint(building);
+    // 16 bytes per elevator, plus the waiting requests.
+    assertTrue(saved.length < 16 * 10_000 + 8 * 30_000);
+    Building restored = restore(saved, new TerminalDispatch());
+    assertSameState(building, restored);
+    building.stepElevatorSystem(100);
+    restored.stepElevatorSystem(100);
+    assertSameState(building, restored);
+  }
+
+  @Test
+  public void notACheckpoint() {
+    try {
+      restore(new byte[] {1, 2, 3, 4, 0, 0, 0, 1}, new TerminalDispatch());
+      fail("Expected an IOException.");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().startsWith("Not a building checkpoint"));
+    }
+  }
+
+  @Test
+  public void truncatedCheckpoint() throws IOException {
+    Building building = new Building(10, 4, 3);
+    building.startElevatorSystem();
+    byte[] saved = checkpoint(building);
+    try {
+      restore(Arrays.copyOf(saved, saved.length - 3), new TerminalDispatch());
+      fail("Expected an IOException.");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void corruptElevator() throws IOException {
+    Building building = new Building(10, 4, 3);
+    byte[] saved = checkpoint(building);
+    // The top byte of the packed status of the first elevator, after the header, the size,
+    // the strategy class and the building state.
+    int statusOffset = 4 * 5 + 2 + TerminalDispatch.class.getName().length() + 1 + 3 * 8;
+    saved[statusOffset] = (byte) 0xff;
+    try {
+      restore(saved, new TerminalDispatch());
+      fail("Expected an IOException.");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().startsWith("Invalid elevator 0"));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void otherStrategy() throws IOException {
+    Building building = new Building(10, 4, 3, new CollectiveDispatch());
+    restore(checkpoint(building), new TerminalDispatch());
+  }
+}
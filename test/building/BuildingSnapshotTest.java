@@ -0,0 +1,150 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import elevator.ElevatorReport;
+import elevator.ElevatorReportBuffer;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the snapshotInto() method of the buildings.
+ */
+public class BuildingSnapshotTest {
+
+  /**
+   * Run a building for a while with requests coming in.
+   *
+   * @param building the building.
+   */
+  private static void runWithRequests(BuildingInterface building) {
+    building.startElevatorSystem();
+    for (int tick = 0; tick < 40; tick++) {
+      building.addRequest(Request.of(tick % 7, (tick * 5) % 10));
+      building.stepElevatorSystem();
+    }
+  }
+
+  /**
+   * Count the requests starting at a floor.
+   *
+   * @param requests the requests.
+   * @param floor    the floor.
+   * @return the number of requests starting at the floor.
+   */
+  private static int depth(List<Request> requests, int floor) {
+    int depth = 0;
+    for (Request request : requests) {
+      if (request.getStartFloor() == floor) {
+        depth++;
+      }
+    }
+    return depth;
+  }
+
+  /**
+   * Check that a snapshot says the same as the full report of a building.
+   *
+   * @param building the building.
+   */
+  private static void assertSnapshotMatchesReport(BuildingInterface building) {
+    BuildingSnapshot snapshot = new BuildingSnapshot(10, 4);
+    building.snapshotInto(snapshot);
+    BuildingReport report = building.getElevatorSystemStatus();
+
+    assertEquals(building.getStateVersion(), snapshot.getStateVersion());
+    assertEquals(report.getSystemStatus(), snapshot.getSystemStatus());
+    ElevatorReportBuffer buffer = new ElevatorReportBuffer();
+    for (int i = 0; i < 4; i++) {
+      ElevatorReport expected = report.getElevatorReports()[i];
+      assertEquals(expected, snapshot.getElevatorReport(i));
+      snapshot.getElevatorStatus(i, buffer);
+      assertEquals(expected, buffer.toReport());
+      assertEquals(expected.getCurrentFloor(), buffer.getCurrentFloor());
+      assertEquals(expected.getDirection(), buffer.getDirection());
+    }
+    for (int floor = 0; floor < 10; floor++) {
+      assertEquals(depth(report.getUpRequests(), floor), snapshot.getUpDepth(floor));
+      assertEquals(depth(report.getDownRequests(), floor), snapshot.getDownDepth(floor));
+    }
+  }
+
+  /**
+   * Returns the number of bytes allocated by taking a thousand snapshots of a building.
+   *
+   * @param building the building.
+   * @return the number of bytes allocated by the current thread.
+   */
+  private static long bytesPerThousandSnapshots(BuildingInterface building) {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    BuildingSnapshot snapshot =
+        new BuildingSnapshot(building.getNumFloors(), building.getNumElevators());
+    ElevatorReportBuffer buffer = new ElevatorReportBuffer();
+    // Warm up, so class loading and compilation are not counted.
+    for (int i = 0; i < 20000; i++) {
+      building.snapshotInto(snapshot);
+      snapshot.getElevatorStatus(i % building.getNumElevators(), buffer);
+    }
+
+    long before = threads.getCurrentThreadAllocatedBytes();
+    for (int i = 0; i < 1000; i++) {
+      building.snapshotInto(snapshot);
+      snapshot.getElevatorStatus(i % building.getNumElevators(), buffer);
+    }
+    return threads.getCurrentThreadAllocatedBytes() - before;
+  }
+
+  @Test
+  public void buildingSnapshotMatchesReport() {
+    Building building = new Building(10, 4, 5);
+    runWithRequests(building);
+    assertSnapshotMatchesReport(building);
+  }
+
+  @Test
+  public void elevatorBankBuildingSnapshotMatchesReport() {
+    ElevatorBankBuilding building = new ElevatorBankBuilding(10, 4, 5);
+    runWithRequests(building);
+    assertSnapshotMatchesReport(building);
+  }
+
+  @Test
+  public void snapshotIsReused() {
+    Building building = new Building(10, 4, 5);
+    BuildingSnapshot snapshot = new BuildingSnapshot(10, 4);
+    assertEquals(-1, snapshot.getStateVersion());
+    building.snapshotInto(snapshot);
+    assertTrue(snapshot.getElevatorReport(0).isOutOfService());
+
+    runWithRequests(building);
+    building.snapshotInto(snapshot);
+    assertEquals(building.getStateVersion(), snapshot.getStateVersion());
+    assertEquals(building.getElevatorSystemStatus().getElevatorReports()[0],
+        snapshot.getElevatorReport(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void snapshotForAnotherBuilding() {
+    new Building(10, 4, 5).snapshotInto(new BuildingSnapshot(10, 5));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void emptySnapshot() {
+    new BuildingSnapshot(10, 0);
+  }
+
+  @Test
+  public void snapshotsAllocateNothing() {
+    Building building = new Building(30, 500, 10);
+    runWithRequests(building);
+    assertEquals(0, bytesPerThousandSnapshots(building));
+
+    ElevatorBankBuilding bank = new ElevatorBankBuilding(30, 500, 10);
+    runWithRequests(bank);
+    assertEquals(0, bytesPerThousandSnapshots(bank));
+  }
+}
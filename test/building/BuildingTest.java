@@ -3,8 +3,15 @@ package building;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import building.enums.Direction;
 import building.enums.ElevatorSystemStatus;
+import elevator.Elevator;
+import elevator.ElevatorReport;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 import scanerzus.Request;
 
@@ -216,4 +223,352 @@ public class BuildingTest {
     building.stopElevatorSystem();
     building.stopElevatorSystem();
   }
-}
\ No newline at end of file
+
+  /**
+   * Check that two buildings are in the same state, ignoring the elevator ids.
+   */
+  private static void assertSameState(Building want, Building got) {
+    BuildingReport wantReport = want.getElevatorSystemStatus();
+    BuildingReport gotReport = got.getElevatorSystemStatus();
+    assertEquals(want.getCurrentTick(), got.getCurrentTick());
+    assertEquals(wantReport.toString(), gotReport.toString());
+    ElevatorReport[] wantElevators = wantReport.getElevatorReports();
+    ElevatorReport[] gotElevators = gotReport.getElevatorReports();
+    for (int i = 0; i < wantElevators.length; i++) {
+      assertEquals(wantElevators[i].getDirection(), gotElevators[i].getDirection());
+      assertEquals(wantElevators[i].getDoorOpenTimer(), gotElevators[i].getDoorOpenTimer());
+      assertEquals(wantElevators[i].getEndWaitTimer(), gotElevators[i].getEndWaitTimer());
+      assertEquals(wantElevators[i].isTakingRequests(), gotElevators[i].isTakingRequests());
+      assertEquals(wantElevators[i].getFloorRequestMask(),
+          gotElevators[i].getFloorRequestMask());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void fastForwardWhenOutOfService() {
+    Building building = new Building(4, 1, 3);
+    building.fastForward(10);
+  }
+
+  @Test
+  public void fastForwardMatchesStepping() {
+    int floors = 20;
+    Building stepped = new Building(floors, 5, 3);
+    Building skipped = new Building(floors, 5, 3);
+    Random random = new Random(11);
+
+    for (int run = 0; run < 3; run++) {
+      stepped.startElevatorSystem();
+      skipped.startElevatorSystem();
+      for (int round = 0; round < 300; round++) {
+        int arrivals = random.nextInt(3);
+        for (int i = 0; i < arrivals; i++) {
+          Request request = new Request(random.nextInt(floors), random.nextInt(floors));
+          stepped.addRequest(request);
+          skipped.addRequest(request);
+        }
+        int ticks = 1 + random.nextInt(40);
+        for (int i = 0; i < ticks; i++) {
+          stepped.stepElevatorSystem();
+        }
+        assertEquals(ticks, skipped.fastForward(ticks));
+        assertSameState(stepped, skipped);
+      }
+
+      stepped.stopElevatorSystem();
+      skipped.stopElevatorSystem();
+      long taken = 0;
+      while (stepped.getElevatorSystemStatus().getSystemStatus()
+          != ElevatorSystemStatus.outOfService) {
+        stepped.stepElevatorSystem();
+        taken++;
+      }
+      assertEquals(taken, skipped.fastForward(taken + 100));
+      assertSameState(stepped, skipped);
+    }
+  }
+
+  @Test
+  public void fastForwardIdleBuilding() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    assertEquals(10_000_000L, building.fastForward(10_000_000L));
+    assertEquals(10_000_000L, building.getCurrentTick());
+    assertEquals(ElevatorSystemStatus.running,
+        building.getElevatorSystemStatus().getSystemStatus());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void parallelSteppingInvalidGrainSize() {
+    new Building(4, 1, 3).setParallelStepping(ForkJoinPool.commonPool(), 0);
+  }
+
+  @Test
+  public void parallelSteppingMatchesSequential() {
+    int floors = 12;
+    Building sequential = new Building(floors, 64, 4);
+    Building parallel = new Building(floors, 64, 4);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    parallel.setParallelStepping(pool, 5);
+    Random random = new Random(5);
+
+    try {
+      sequential.startElevatorSystem();
+      parallel.startElevatorSystem();
+      for (int tick = 0; tick < 2000; tick++) {
+        for (int i = random.nextInt(8); i > 0; i--) {
+          Request request = new Request(random.nextInt(floors), random.nextInt(floors));
+          sequential.addRequest(request);
+          parallel.addRequest(request);
+        }
+        sequential.stepElevatorSystem();
+        parallel.stepElevatorSystem();
+        assertSameState(sequential, parallel);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void stepElevatorSystemManyTicksMatchesSingleSteps() {
+    Building single = new Building(10, 3, 3);
+    Building bulk = new Building(10, 3, 3);
+    single.startElevatorSystem();
+    bulk.startElevatorSystem();
+    for (int i = 0; i < 8; i++) {
+      single.addRequest(new Request(i, 9 - i));
+      bulk.addRequest(new Request(i, 9 - i));
+    }
+    for (int i = 0; i < 137; i++) {
+      single.stepElevatorSystem();
+    }
+    assertEquals(137, bulk.stepElevatorSystem(137));
+    assertSameState(single, bulk);
+  }
+
+  @Test
+  public void stepElevatorSystemManyTicksStopsWhenOutOfService() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.stepElevatorSystem(12);
+    building.stopElevatorSystem();
+    int taken = building.stepElevatorSystem(100);
+    assertTrue(taken < 100);
+    assertEquals(ElevatorSystemStatus.outOfService, building.getSystemStatus());
+    assertEquals(12 + taken, building.getCurrentTick());
+  }
+
+  @Test
+  public void stepElevatorSystemManyTicksKeepsTickWhenAStepThrows() {
+    // A strategy that fails on the fifth step, after four full steps.
+    DispatchStrategy failing = new TerminalDispatch() {
+      private int calls;
+
+      @Override
+      public int dispatch(Elevator[] elevators, ElevatorIndex index,
+                          HallCallQueue upRequests, HallCallQueue downRequests) {
+        if (++calls == 5) {
+          throw new IllegalStateException("Dispatch failed.");
+        }
+        return super.dispatch(elevators, index, upRequests, downRequests);
+      }
+    };
+    Building building = new Building(10, 3, 3, failing);
+    Building reference = new Building(10, 3, 3);
+    building.startElevatorSystem();
+    reference.startElevatorSystem();
+    building.addRequest(new Request(0, 6));
+    reference.addRequest(new Request(0, 6));
+    String before = building.getElevatorSystemStatus().toString();
+    long version = building.getStateVersion();
+
+    try {
+      building.stepElevatorSystem(10);
+      fail("Expected an IllegalStateException.");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    reference.stepElevatorSystem(4);
+    assertEquals(5, building.getCurrentTick());
+    assertEquals(version + 5, building.getStateVersion());
+    assertFalse(before.equals(building.getElevatorSystemStatus().toString()));
+    assertEquals(reference.getElevatorSystemStatus().getElevatorReports()[0].toString(),
+        building.getElevatorSystemStatus().getElevatorReports()[0].toString());
+    assertFalse(building.getChangesSince(version).isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void stepElevatorSystemNegativeTicks() {
+    Building building = new Building(4, 1, 3);
+    building.startElevatorSystem();
+    building.stepElevatorSystem(-1);
+  }
+
+  @Test
+  public void runUntilAllRequestsServed() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    assertTrue(building.allRequestsServed());
+    assertEquals(0, building.runUntil(BuildingInterface::allRequestsServed, 1000));
+    building.addRequest(new Request(2, 7));
+    building.addRequest(new Request(8, 1));
+    assertFalse(building.allRequestsServed());
+    long taken = building.runUntil(BuildingInterface::allRequestsServed, 1000);
+    assertTrue(taken > 0 && taken < 1000);
+    assertTrue(building.allRequestsServed());
+    assertEquals(2, building.getRequestsDistributed());
+  }
+
+  @Test
+  public void runUntilOutOfService() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.stepElevatorSystem(20);
+    building.stopElevatorSystem();
+    building.runUntil(b -> false, 1000);
+    assertEquals(ElevatorSystemStatus.outOfService, building.getSystemStatus());
+  }
+
+  @Test
+  public void addRequestsPartitionsAndValidates() {
+    Building building = new Building(5, 1, 3);
+    building.startElevatorSystem();
+    RequestBatchResult result = building.addRequests(Arrays.asList(
+        Request.of(0, 4), Request.of(3, 1), Request.of(5, 1), Request.of(2, 2),
+        new Request(-1, 2)));
+    assertEquals(3, result.getAccepted());
+    assertEquals(2, result.getRejected());
+    assertFalse(result.isRejected(0));
+    assertTrue(result.isRejected(2));
+    assertTrue(result.isRejected(4));
+    assertEquals("[0->4]", building.getElevatorSystemStatus().getUpRequests().toString());
+    assertEquals("[3->1, 2->2]",
+        building.getElevatorSystemStatus().getDownRequests().toString());
+  }
+
+  @Test
+  public void addRequestsFloorPairs() {
+    Building building = new Building(5, 1, 3);
+    building.startElevatorSystem();
+    RequestBatchResult result = building.addRequests(new int[] {1, 2, 4, 0, 9, 1});
+    assertEquals(2, result.getAccepted());
+    assertEquals(1, result.getRejected());
+    assertTrue(result.isRejected(2));
+    assertEquals(1, building.getNumUpRequests());
+    assertEquals(1, building.getNumDownRequests());
+  }
+
+  @Test
+  public void addRequestsNotRunning() {
+    Building building = new Building(5, 1, 3);
+    RequestBatchResult result = building.addRequests(new int[] {1, 2, 4, 0});
+    assertEquals(0, result.getAccepted());
+    assertEquals(2, result.getRejected());
+    assertTrue(result.isRejected(1));
+    assertEquals(0, building.getNumUpRequests() + building.getNumDownRequests());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void addRequestsOddFloorPairs() {
+    Building building = new Building(5, 1, 3);
+    building.startElevatorSystem();
+    building.addRequests(new int[] {1, 2, 3});
+  }
+
+  @Test
+  public void addRequestOutsideBuilding() {
+    Building building = new Building(5, 1, 3);
+    building.startElevatorSystem();
+    assertFalse(building.addRequest(new Request(1, 7)));
+    assertFalse(building.addRequest(new Request(-1, 2)));
+    assertEquals(0, building.getNumUpRequests() + building.getNumDownRequests());
+  }
+
+  @Test
+  public void waitingRequestsPerFloor() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.addRequests(new int[] {2, 5, 2, 8, 6, 9, 7, 1, 4, 0});
+
+    assertEquals(2, building.getNumWaitingAt(2, Direction.UP));
+    assertEquals(0, building.getNumWaitingAt(2, Direction.DOWN));
+    assertEquals(1, building.getNumWaitingAt(7, Direction.DOWN));
+    assertEquals((1 << 2) | (1 << 6), building.getWaitingFloorMask(Direction.UP));
+    assertEquals((1 << 4) | (1 << 7), building.getWaitingFloorMask(Direction.DOWN));
+
+    assertEquals(2, building.getNearestWaitingFloor(0, Direction.UP));
+    assertEquals(6, building.getNearestWaitingFloor(3, Direction.UP));
+    assertEquals(-1, building.getNearestWaitingFloor(7, Direction.UP));
+    assertEquals(4, building.getNearestWaitingFloor(6, Direction.DOWN));
+    assertEquals(-1, building.getNearestWaitingFloor(3, Direction.DOWN));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void waitingRequestsStoppedDirection() {
+    Building building = new Building(10, 1, 3);
+    building.getWaitingFloorMask(Direction.STOPPED);
+  }
+
+  @Test
+  public void reportCachedUntilStateChanges() {
+    Building building = new Building(10, 3, 3);
+    BuildingReport first = building.getElevatorSystemStatus();
+    assertTrue(first == building.getElevatorSystemStatus());
+
+    long version = building.getStateVersion();
+    building.startElevatorSystem();
+    assertTrue(building.getStateVersion() > version);
+    BuildingReport started = building.getElevatorSystemStatus();
+    assertTrue(started != first);
+    assertTrue(started == building.getElevatorSystemStatus());
+
+    version = building.getStateVersion();
+    assertFalse(building.addRequest(new Request(1, 12)));
+    assertEquals(version, building.getStateVersion());
+    assertTrue(building.addRequest(new Request(1, 2)));
+    assertTrue(building.getStateVersion() > version);
+    assertEquals("[1->2]", building.getElevatorSystemStatus().getUpRequests().toString());
+  }
+
+  @Test
+  public void packedElevatorStatusMatchesReports() {
+    Building building = new Building(10, 3, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 4));
+    building.stepElevatorSystem(9);
+
+    long[] statuses = building.getPackedElevatorStatus(null);
+    assertEquals(3, statuses.length);
+    assertTrue(statuses == building.getPackedElevatorStatus(statuses));
+    ElevatorReport[] reports = building.getElevatorSystemStatus().getElevatorReports();
+    for (int i = 0; i < statuses.length; i++) {
+      assertEquals(reports[i].getPackedStatus(), statuses[i]);
+      assertEquals(reports[i], new ElevatorReport(reports[i].getElevatorId(), statuses[i]));
+    }
+    assertEquals(3, building.getPackedElevatorStatus(new long[1]).length);
+  }
+
+  @Test
+  public void reportRebuildsOnlyChangedElevators() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 2));
+    building.stepElevatorSystem(10);
+    building.stopElevatorSystem();
+    // Step until the first elevator is back and idle on the ground floor
+    // while the second still comes down.
+    while (building.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor() != 0
+        || building.getElevatorSystemStatus().getElevatorReports()[0].isDoorClosed()) {
+      building.stepElevatorSystem();
+    }
+    ElevatorReport[] before = building.getElevatorSystemStatus().getElevatorReports();
+    assertTrue(before[1].getCurrentFloor() > 0);
+
+    building.stepElevatorSystem();
+    ElevatorReport[] after = building.getElevatorSystemStatus().getElevatorReports();
+    assertTrue(before != after);
+    assertTrue(before[0] == after[0]);
+    assertTrue(before[1] != after[1]);
+  }
+}
@@ -0,0 +1,140 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+
+import building.enums.ElevatorSystemStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the Campus class.
+ */
+public class CampusTest {
+
+  private ExecutorService executor;
+
+  /**
+   * Set up the executor for the test.
+   */
+  @Before
+  public void setUp() {
+    executor = Executors.newWorkStealingPool(4);
+  }
+
+  /**
+   * Shut the executor down after the test.
+   */
+  @After
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  private static List<Building> newBuildings(int count) {
+    List<Building> buildings = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      buildings.add(new Building(10, 3, 4));
+    }
+    return buildings;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructorNoBuildings() {
+    new Campus(new ArrayList<>(), executor, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructorInvalidGroupSize() {
+    new Campus(newBuildings(1), executor, 0);
+  }
+
+  @Test
+  public void elevatorIdsArePerBuilding() {
+    Campus campus = new Campus(newBuildings(3), executor, 1);
+    for (Building building : campus.getBuildings()) {
+      for (int i = 0; i < 3; i++) {
+        assertEquals(i, building.getElevatorSystemStatus().getElevatorReports()[i]
+            .getElevatorId());
+      }
+    }
+  }
+
+  @Test
+  public void concurrentStepsMatchSequentialSteps() {
+    int numBuildings = 50;
+    List<Building> expected = newBuildings(numBuildings);
+    Campus campus = new Campus(newBuildings(numBuildings), executor, 7);
+    Random random = new Random(9);
+
+    campus.startAll();
+    for (Building building : expected) {
+      building.startElevatorSystem();
+    }
+
+    for (int round = 0; round < 100; round++) {
+      for (int b = 0; b < numBuildings; b++) {
+        if (random.nextBoolean()) {
+          Request request = new Request(random.nextInt(10), random.nextInt(10));
+          expected.get(b).addRequest(request);
+          campus.getBuilding(b).addRequest(request);
+        }
+      }
+      int ticks = 1 + random.nextInt(5);
+      campus.step(ticks);
+      for (Building building : expected) {
+        for (int i = 0; i < ticks; i++) {
+          building.stepElevatorSystem();
+        }
+      }
+    }
+
+    long distributed = 0;
+    long waiting = 0;
+    for (int b = 0; b < numBuildings; b++) {
+      assertEquals(expected.get(b).getElevatorSystemStatus().toString(),
+          campus.getBuilding(b).getElevatorSystemStatus().toString());
+      distributed += expected.get(b).getRequestsDistributed();
+      waiting += expected.get(b).getNumUpRequests() + expected.get(b).getNumDownRequests();
+    }
+
+    CampusReport report = campus.getCampusReport();
+    assertEquals(numBuildings, report.getNumBuildings());
+    assertEquals(numBuildings, report.getNumRunning());
+    assertEquals(campus.getCurrentTick(), report.getCurrentTick());
+    assertEquals(distributed, report.getRequestsDistributed());
+    assertEquals(waiting, report.getUpRequestsWaiting() + report.getDownRequestsWaiting());
+    assertEquals((double) distributed / campus.getCurrentTick(), report.getThroughput(), 1e-9);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void stepNegativeTicks() {
+    Campus campus = new Campus(newBuildings(1), executor, 1);
+    campus.step(-1);
+  }
+
+  @Test
+  public void stepZeroTicksDoesNothing() {
+    Campus campus = new Campus(newBuildings(2), executor, 1);
+    campus.getBuilding(0).startElevatorSystem();
+    campus.step(0);
+    assertEquals(0, campus.getCurrentTick());
+    assertEquals(0, campus.getBuilding(0).getCurrentTick());
+  }
+
+  @Test
+  public void outOfServiceBuildingsAreSkipped() {
+    Campus campus = new Campus(newBuildings(2), executor, 1);
+    campus.getBuilding(0).startElevatorSystem();
+    campus.step(10);
+    assertEquals(10, campus.getBuilding(0).getCurrentTick());
+    assertEquals(0, campus.getBuilding(1).getCurrentTick());
+    assertEquals(ElevatorSystemStatus.outOfService, campus.getBuilding(1).getSystemStatus());
+    assertEquals(1, campus.getCampusReport().getNumRunning());
+  }
+}
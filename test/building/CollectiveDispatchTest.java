@@ -0,0 +1,121 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.Direction;
+import elevator.ElevatorReport;
+import java.util.Random;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the dispatch strategies of the Building class.
+ */
+public class CollectiveDispatchTest {
+
+  @Test
+  public void defaultIsTerminalDispatch() {
+    Building building = new Building(10, 2, 3);
+    assertTrue(building.getDispatchStrategy() instanceof TerminalDispatch);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullStrategy() {
+    new Building(10, 2, 3, null);
+  }
+
+  @Test
+  public void movingElevatorPicksUpOnTheWay() {
+    Building building = new Building(10, 1, 3, new CollectiveDispatch());
+    building.startElevatorSystem();
+    // Let the empty elevator leave the ground floor.
+    building.stepElevatorSystem(6);
+    ElevatorReport elevator = building.getElevatorSystemStatus().getElevatorReports()[0];
+    assertEquals(Direction.UP, elevator.getDirection());
+    assertEquals(1, elevator.getCurrentFloor());
+
+    assertTrue(building.addRequest(Request.of(4, 6)));
+    assertTrue(building.addRequest(Request.of(0, 2)));
+    building.stepElevatorSystem();
+    elevator = building.getElevatorSystemStatus().getElevatorReports()[0];
+    assertEquals((1 << 4) | (1 << 6), elevator.getFloorRequestMask());
+    assertEquals(1, building.getNumUpRequests());
+    assertEquals(0, building.getNumWaitingAt(4, Direction.UP));
+  }
+
+  @Test
+  public void pickUpsRespectCapacity() {
+    CollectiveDispatch strategy = new CollectiveDispatch();
+    Building building = new Building(20, 3, 3, strategy);
+    building.startElevatorSystem();
+    Random random = new Random(5);
+    for (int tick = 0; tick < 3000; tick++) {
+      for (int i = random.nextInt(3); i > 0; i--) {
+        building.addRequest(Request.of(random.nextInt(20), random.nextInt(20)));
+      }
+      building.stepElevatorSystem();
+      for (int i = 0; i < 3; i++) {
+        assertTrue(strategy.getLoad(i) >= 0 && strategy.getLoad(i) <= 3);
+      }
+    }
+  }
+
+  /**
+   * Feed the same requests to a building and run it until every request is served.
+   *
+   * @param building the building.
+   * @param seed     the seed of the requests.
+   * @return the number of steps until every request was served.
+   */
+  private static long serveLoad(Building building, long seed) {
+    Random random = new Random(seed);
+    building.startElevatorSystem();
+    for (int tick = 0; tick < 500; tick++) {
+      for (int i = random.nextInt(4); i > 0; i--) {
+        int start = random.nextInt(building.getNumFloors());
+        int end = random.nextInt(building.getNumFloors());
+        if (start != end) {
+          building.addRequest(Request.of(start, end));
+        }
+      }
+      building.stepElevatorSystem();
+    }
+    return 500 + building.runUntil(BuildingInterface::allRequestsServed, 1_000_000);
+  }
+
+  @Test
+  public void collectiveServesSameLoadFaster() {
+    long terminal = serveLoad(new Building(20, 4, 8), 3);
+    long collective = serveLoad(new Building(20, 4, 8, new CollectiveDispatch()), 3);
+    assertTrue("terminal " + terminal + ", collective " + collective, collective < terminal);
+  }
+
+  @Test
+  public void fastForwardMatchesStepping() {
+    int floors = 20;
+    Building stepped = new Building(floors, 5, 3, new CollectiveDispatch());
+    Building skipped = new Building(floors, 5, 3, new CollectiveDispatch());
+    Random random = new Random(17);
+
+    stepped.startElevatorSystem();
+    skipped.startElevatorSystem();
+    for (int round = 0; round < 500; round++) {
+      for (int i = random.nextInt(3); i > 0; i--) {
+        Request request = Request.of(random.nextInt(floors), random.nextInt(floors));
+        stepped.addRequest(request);
+        skipped.addRequest(request);
+      }
+      int ticks = 1 + random.nextInt(40);
+      stepped.stepElevatorSystem(ticks);
+      assertEquals(ticks, skipped.fastForward(ticks));
+      assertEquals(stepped.getCurrentTick(), skipped.getCurrentTick());
+      assertEquals(stepped.getRequestsDistributed(), skipped.getRequestsDistributed());
+      ElevatorReport[] want = stepped.getElevatorSystemStatus().getElevatorReports();
+      ElevatorReport[] got = skipped.getElevatorSystemStatus().getElevatorReports();
+      for (int i = 0; i < want.length; i++) {
+        assertEquals(want[i], got[i]);
+      }
+    }
+  }
+}
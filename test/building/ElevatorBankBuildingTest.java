@@ -0,0 +1,91 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+import java.util.Random;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the ElevatorBankBuilding class.
+ */
+public class ElevatorBankBuildingTest {
+
+  /**
+   * Check that two building reports describe the same state, ignoring the elevator ids.
+   */
+  private static void assertSameReport(BuildingReport want, BuildingReport got) {
+    assertEquals(want.getSystemStatus(), got.getSystemStatus());
+    assertEquals(want.getUpRequests().toString(), got.getUpRequests().toString());
+    assertEquals(want.getDownRequests().toString(), got.getDownRequests().toString());
+    ElevatorReport[] wantReports = want.getElevatorReports();
+    ElevatorReport[] gotReports = got.getElevatorReports();
+    assertEquals(wantReports.length, gotReports.length);
+    for (int i = 0; i < wantReports.length; i++) {
+      assertEquals(wantReports[i].toString(), gotReports[i].toString());
+      assertEquals(wantReports[i].getDirection(), gotReports[i].getDirection());
+      assertEquals(wantReports[i].isTakingRequests(), gotReports[i].isTakingRequests());
+      assertEquals(wantReports[i].isOutOfService(), gotReports[i].isOutOfService());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorInvalidElevators() {
+    new ElevatorBankBuilding(4, 0, 3);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void stepElevatorsWhenOutOfService() {
+    new ElevatorBankBuilding(4, 1, 3).stepElevatorSystem();
+  }
+
+  @Test
+  public void addRequestOnlyWhenRunning() {
+    ElevatorBankBuilding building = new ElevatorBankBuilding(4, 1, 3);
+    assertFalse(building.addRequest(new Request(1, 2)));
+    building.startElevatorSystem();
+    assertTrue(building.addRequest(new Request(1, 2)));
+    assertTrue(building.addRequest(new Request(2, 1)));
+    assertEquals(1, building.getElevatorSystemStatus().getUpRequests().size());
+    assertEquals(1, building.getElevatorSystemStatus().getDownRequests().size());
+  }
+
+  @Test
+  public void matchesBuildingUnderRandomLoad() {
+    int floors = 15;
+    Building building = new Building(floors, 6, 4);
+    ElevatorBankBuilding bankBuilding = new ElevatorBankBuilding(floors, 6, 4);
+    Random random = new Random(7);
+
+    for (int run = 0; run < 3; run++) {
+      building.startElevatorSystem();
+      bankBuilding.startElevatorSystem();
+      for (int tick = 0; tick < 2000; tick++) {
+        if (random.nextInt(2) == 0) {
+          Request request = new Request(random.nextInt(floors), random.nextInt(floors));
+          assertEquals(building.addRequest(request), bankBuilding.addRequest(request));
+        }
+        building.stepElevatorSystem();
+        bankBuilding.stepElevatorSystem();
+        assertSameReport(building.getElevatorSystemStatus(),
+            bankBuilding.getElevatorSystemStatus());
+      }
+
+      building.stopElevatorSystem();
+      bankBuilding.stopElevatorSystem();
+      while (building.getElevatorSystemStatus().getSystemStatus()
+          != ElevatorSystemStatus.outOfService) {
+        building.stepElevatorSystem();
+        bankBuilding.stepElevatorSystem();
+        assertSameReport(building.getElevatorSystemStatus(),
+            bankBuilding.getElevatorSystemStatus());
+      }
+      assertEquals(ElevatorSystemStatus.outOfService,
+          bankBuilding.getElevatorSystemStatus().getSystemStatus());
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+
+import building.enums.Direction;
+import elevator.ElevatorReport;
+import java.util.Random;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the ElevatorIndex class.
+ */
+public class ElevatorIndexTest {
+
+  /**
+   * Find the nearest elevator moving in a direction on its way to a floor by looking at every
+   * elevator.
+   *
+   * @param elevators the reports of the elevators.
+   * @param floor     the floor to reach.
+   * @param direction the direction.
+   * @return the index of the elevator, or -1 if there is none.
+   */
+  private static int bruteForceNearest(ElevatorReport[] elevators, int floor,
+                                       Direction direction) {
+    int best = -1;
+    for (int i = 0; i < elevators.length; i++) {
+      ElevatorReport elevator = elevators[i];
+      if (elevator.isTakingRequests() || elevator.getDirection() != direction) {
+        continue;
+      }
+      int at = elevator.getCurrentFloor();
+      boolean onTheWay = direction == Direction.UP ? at <= floor : at >= floor;
+      if (!onTheWay) {
+        continue;
+      }
+      if (best == -1
+          || Math.abs(floor - at) < Math.abs(floor - elevators[best].getCurrentFloor())) {
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  @Test
+  public void matchesBruteForceScan() {
+    int floors = 15;
+    int numElevators = 40;
+    Building building = new Building(floors, numElevators, 5, new CollectiveDispatch());
+    building.startElevatorSystem();
+    ElevatorIndex index = building.getElevatorIndex();
+    Random random = new Random(23);
+
+    for (int tick = 0; tick < 1500; tick++) {
+      for (int i = random.nextInt(6); i > 0; i--) {
+        building.addRequest(Request.of(random.nextInt(floors), random.nextInt(floors)));
+      }
+      building.stepElevatorSystem();
+
+      ElevatorReport[] elevators = building.getElevatorSystemStatus().getElevatorReports();
+      for (int floor = 0; floor < floors; floor++) {
+        assertEquals(bruteForceNearest(elevators, floor, Direction.UP),
+            index.nearestMovingTowards(floor, Direction.UP));
+        assertEquals(bruteForceNearest(elevators, floor, Direction.DOWN),
+            index.nearestMovingTowards(floor, Direction.DOWN));
+
+        int taking = 0;
+        int next = index.nextTakingRequests(floor, 0);
+        for (int i = 0; i < numElevators; i++) {
+          if (elevators[i].isTakingRequests() && elevators[i].getCurrentFloor() == floor) {
+            assertEquals(i, next);
+            next = index.nextTakingRequests(floor, i + 1);
+            taking++;
+          }
+        }
+        assertEquals(-1, next);
+        assertEquals(taking > 0, (index.getTakingRequestsFloorMask() & (1 << floor)) != 0);
+      }
+    }
+  }
+
+  @Test
+  public void updateMovesElevatorBetweenGroups() {
+    Building building = new Building(10, 2, 3);
+    ElevatorIndex index = building.getElevatorIndex();
+    assertEquals(0, index.getTakingRequestsFloorMask());
+
+    building.startElevatorSystem();
+    assertEquals(0, index.nextTakingRequests(0, 0));
+    assertEquals(1, index.nextTakingRequests(0, 1));
+    assertEquals(1, index.getTakingRequestsFloorMask());
+
+    // After the wait at the bottom both elevators leave going up.
+    building.stepElevatorSystem(6);
+    assertEquals(0, index.getTakingRequestsFloorMask());
+    assertEquals(2, index.getNumMoving(1, Direction.UP));
+    assertEquals(1 << 1, index.getMovingFloorMask(Direction.UP));
+    assertEquals(0, index.nearestMovingTowards(5, Direction.UP));
+    assertEquals(-1, index.nearestMovingTowards(0, Direction.UP));
+    assertEquals(-1, index.nearestMovingTowards(5, Direction.DOWN));
+  }
+}
@@ -0,0 +1,135 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the HallCallQueue class.
+ */
+public class HallCallQueueTest {
+
+  @Test
+  public void indexesRequestsByFloor() {
+    HallCallQueue queue = new HallCallQueue(10);
+    assertTrue(queue.isEmpty());
+    assertEquals(-1, queue.nearestAtOrAbove(0));
+    queue.add(3, 7);
+    queue.add(6, 9);
+    queue.add(3, 5);
+
+    assertEquals(3, queue.size());
+    assertEquals(2, queue.getDepth(3));
+    assertEquals(1, queue.getDepth(6));
+    assertEquals(0, queue.getDepth(4));
+    assertEquals((1 << 3) | (1 << 6), queue.getFloorMask());
+
+    assertEquals(3, queue.nearestAtOrAbove(0));
+    assertEquals(3, queue.nearestAtOrAbove(3));
+    assertEquals(6, queue.nearestAtOrAbove(4));
+    assertEquals(-1, queue.nearestAtOrAbove(7));
+    assertEquals(6, queue.nearestAtOrBelow(9));
+    assertEquals(3, queue.nearestAtOrBelow(5));
+    assertEquals(-1, queue.nearestAtOrBelow(2));
+  }
+
+  @Test
+  public void drainOldestKeepsArrivalOrderAcrossFloors() {
+    HallCallQueue queue = new HallCallQueue(10);
+    queue.add(3, 7);
+    queue.add(1, 2);
+    queue.add(3, 4);
+    queue.add(0, 9);
+    assertEquals("[3->7, 1->2, 3->4, 0->9]", queue.toString());
+    assertEquals(Request.of(3, 4), queue.asList().get(2));
+
+    List<Request> taken = new ArrayList<>();
+    assertEquals(3, queue.drainOldest(3, taken));
+    assertEquals("[3->7, 1->2, 3->4]", taken.toString());
+    assertEquals("[0->9]", queue.toString());
+    assertEquals(1 << 0, queue.getFloorMask());
+  }
+
+  @Test
+  public void drainFloorTakesOnlyThatFloor() {
+    HallCallQueue queue = new HallCallQueue(10);
+    queue.add(3, 7);
+    queue.add(1, 2);
+    queue.add(3, 4);
+
+    List<Request> taken = new ArrayList<>();
+    assertEquals(2, queue.drainFloor(3, 5, taken));
+    assertEquals("[3->7, 3->4]", taken.toString());
+    assertEquals(0, queue.getDepth(3));
+    assertEquals(1 << 1, queue.getFloorMask());
+    assertEquals("[1->2]", queue.toString());
+
+    queue.clear();
+    assertTrue(queue.isEmpty());
+    assertEquals(0, queue.getFloorMask());
+  }
+
+  @Test
+  public void matchesFifoQueue() {
+    // A random mix of adds and drains must hand out requests in the same
+    // order as a plain first-in first-out queue, and index them the same.
+    Random random = new Random(11);
+    HallCallQueue queue = new HallCallQueue(30);
+    Deque<Request> fifo = new ArrayDeque<>();
+    List<Request> taken = new ArrayList<>();
+    List<Request> expected = new ArrayList<>();
+    for (int round = 0; round < 2000; round++) {
+      int adds = random.nextInt(20);
+      for (int i = 0; i < adds; i++) {
+        int start = random.nextInt(29);
+        int end = start + 1 + random.nextInt(29 - start);
+        queue.add(start, end);
+        fifo.add(Request.of(start, end));
+      }
+      List<Request> inOrder = new ArrayList<>(fifo);
+      assertEquals(inOrder, queue.asList());
+      for (int i = 0; i < inOrder.size(); i++) {
+        assertEquals(inOrder.get(i), queue.asList().get(i));
+      }
+
+      int count = random.nextInt(20);
+      taken.clear();
+      expected.clear();
+      while (expected.size() < count && !fifo.isEmpty()) {
+        expected.add(fifo.poll());
+      }
+      assertEquals(expected.size(), queue.drainOldest(count, taken));
+      assertEquals(expected, taken);
+
+      // Taking a floor leaves gaps in the arrival numbers of the other floors.
+      int drained = random.nextInt(29);
+      count = random.nextInt(3);
+      taken.clear();
+      expected.clear();
+      for (Iterator<Request> waiting = fifo.iterator(); waiting.hasNext(); ) {
+        Request request = waiting.next();
+        if (expected.size() < count && request.getStartFloor() == drained) {
+          expected.add(request);
+          waiting.remove();
+        }
+      }
+      assertEquals(expected.size(), queue.drainFloor(drained, count, taken));
+      assertEquals(expected, taken);
+
+      int depthSum = 0;
+      for (int floor = 0; floor < 30; floor++) {
+        depthSum += queue.getDepth(floor);
+        assertEquals(queue.getDepth(floor) > 0, (queue.getFloorMask() & (1 << floor)) != 0);
+      }
+      assertEquals(queue.size(), depthSum);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the concurrent request ingestion of the Building class.
+ */
+public class RequestInboxTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void drainPartitionsInSubmitOrder() {
+    RequestInbox inbox = new RequestInbox();
+    HallCallQueue up = new HallCallQueue(10);
+    HallCallQueue down = new HallCallQueue(10);
+    assertTrue(inbox.isEmpty());
+    inbox.submit(0, 3);
+    inbox.submit(5, 1);
+    inbox.submit(2, 4);
+    inbox.submit(12, 4);
+    assertEquals(3, inbox.drainTo(up, down, 10));
+    assertTrue(inbox.isEmpty());
+    assertEquals("[0->3, 2->4]", up.toString());
+    assertEquals("[5->1]", down.toString());
+    assertEquals(0, inbox.drainTo(up, down, 10));
+
+    IngestionMetrics metrics = inbox.getMetrics();
+    assertEquals(3, metrics.getRequestsDrained());
+    assertEquals(1, metrics.getRequestsRejected());
+    assertEquals(1, metrics.getDrains());
+    assertEquals(3, metrics.getMaxBatchSize());
+    assertEquals(3.0, metrics.getMeanBatchSize(), 1e-9);
+    assertTrue(metrics.getMaxLatencyNanos() >= 0);
+
+    // A batch of rejected requests is not a drain.
+    inbox.submit(-1, 4);
+    assertEquals(0, inbox.drainTo(up, down, 10));
+    metrics = inbox.getMetrics();
+    assertEquals(2, metrics.getRequestsRejected());
+    assertEquals(1, metrics.getDrains());
+    assertEquals(3.0, metrics.getMeanBatchSize(), 1e-9);
+  }
+
+  @Test
+  public void failingRecorderKeepsInboxConsistent() throws IOException {
+    RequestInbox inbox = new RequestInbox();
+    HallCallQueue up = new HallCallQueue(10);
+    HallCallQueue down = new HallCallQueue(10);
+    inbox.submit(0, 3);
+    inbox.submit(12, 4);
+    inbox.submit(5, 1);
+    try (RequestTraceRecorder recorder =
+             new RequestTraceRecorder(folder.newFile("failing.bin").toPath())) {
+      recorder.record(100, 1, 2);
+      try {
+        inbox.drainTo(up, down, 10, recorder, 5);
+        fail("Expected an IllegalArgumentException.");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+    // The first request was taken before the recorder failed, the rest still wait.
+    assertEquals("[0->3]", up.toString());
+    assertEquals(1, inbox.getMetrics().getRequestsDrained());
+    assertEquals(1, inbox.getMetrics().getDrains());
+
+    assertEquals(1, inbox.drainTo(up, down, 10));
+    assertTrue(inbox.isEmpty());
+    assertEquals("[5->1]", down.toString());
+    IngestionMetrics metrics = inbox.getMetrics();
+    assertEquals(2, metrics.getRequestsDrained());
+    assertEquals(1, metrics.getRequestsRejected());
+    assertEquals(2, metrics.getDrains());
+    assertEquals(1, metrics.getMaxBatchSize());
+  }
+
+  @Test
+  public void submittedRequestsArriveOnNextStep() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.submitRequest(Request.of(1, 2));
+    building.submitRequest(Request.of(8, 3));
+    assertEquals(0, building.getNumUpRequests() + building.getNumDownRequests());
+    building.stepElevatorSystem();
+    assertEquals(2, building.getIngestionMetrics().getRequestsDrained());
+    assertEquals(2, building.getNumUpRequests() + building.getNumDownRequests()
+        + building.getRequestsDistributed());
+  }
+
+  @Test
+  public void submittedRequestsDroppedWhenStopping() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.stepElevatorSystem(3);
+    building.stopElevatorSystem();
+    building.submitRequest(Request.of(1, 2));
+    building.stepElevatorSystem();
+    assertEquals(1, building.getIngestionMetrics().getRequestsRejected());
+    assertEquals(0, building.getIngestionMetrics().getRequestsDrained());
+    assertEquals(0, building.getNumUpRequests());
+  }
+
+  @Test
+  public void manyProducersWhileStepping() throws InterruptedException {
+    Building building = new Building(20, 8, 10);
+    building.startElevatorSystem();
+    int producers = 6;
+    int perProducer = 20000;
+    CountDownLatch done = new CountDownLatch(producers);
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      int offset = p;
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          building.submitRequest(Request.of((i + offset) % 20, (i * 7 + 3) % 20));
+        }
+        done.countDown();
+      });
+      threads.add(thread);
+      thread.start();
+    }
+
+    // A monitor reading the metrics while the building steps sees counters that belong together.
+    AtomicBoolean stepping = new AtomicBoolean(true);
+    AtomicBoolean consistent = new AtomicBoolean(true);
+    Thread monitor = new Thread(() -> {
+      while (stepping.get()) {
+        IngestionMetrics seen = building.getIngestionMetrics();
+        if (seen.getRequestsDrained() < seen.getDrains()
+            || seen.getRequestsDrained() > seen.getDrains() * seen.getMaxBatchSize()) {
+          consistent.set(false);
+        }
+      }
+    });
+    monitor.start();
+
+    while (done.getCount() > 0) {
+      building.stepElevatorSystem();
+    }
+    building.stepElevatorSystem();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    stepping.set(false);
+    monitor.join();
+    assertTrue(consistent.get());
+
+    IngestionMetrics metrics = building.getIngestionMetrics();
+    assertEquals((long) producers * perProducer, metrics.getRequestsDrained());
+    assertEquals(0, metrics.getRequestsRejected());
+    assertTrue(metrics.getMaxBatchSize() >= metrics.getMeanBatchSize());
+    assertEquals((long) producers * perProducer, building.getNumUpRequests()
+        + building.getNumDownRequests() + building.getRequestsDistributed());
+  }
+}
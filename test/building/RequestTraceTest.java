@@ -0,0 +1,212 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the RequestTraceRecorder and RequestTraceReplayer classes.
+ */
+public class RequestTraceTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void replayGoesThroughTheRecordedStates() throws IOException {
+    Path trace = folder.newFile("trace.bin").toPath();
+    Building recorded = new Building(12, 5, 4);
+    List<String> checkpoints = new ArrayList<>();
+    Random random = new Random(5);
+    try (RequestTraceRecorder recorder = new RequestTraceRecorder(trace)) {
+      recorded.setRequestRecorder(recorder);
+      recorded.startElevatorSystem();
+      for (int tick = 0; tick < 3000; tick++) {
+        // Quiet stretches, so the replay fast forwards through them.
+        boolean quiet = (tick / 200) % 3 == 2;
+        if (!quiet) {
+          switch (random.nextInt(4)) {
+            case 0:
+              recorded.addRequest(new Request(random.nextInt(14), random.nextInt(12)));
+              break;
+            case 1:
+              recorded.addRequests(new int[] {random.nextInt(12), random.nextInt(12),
+                  random.nextInt(12), random.nextInt(12)});
+              break;
+            case 2:
+              recorded.submitRequest(new Request(random.nextInt(12), random.nextInt(13)));
+              break;
+            default:
+              break;
+          }
+        }
+        recorded.stepElevatorSystem();
+        if (tick % 100 == 99) {
+          checkpoints.add(recorded.getElevatorSystemStatus().toString());
+        }
+      }
+      recorded.setRequestRecorder(null);
+      assertTrue(recorder.getRecords() > 1000);
+    }
+
+    Building replayed = new Building(12, 5, 4);
+    replayed.startElevatorSystem();
+    try (RequestTraceReplayer replayer = new RequestTraceReplayer(trace)) {
+      long fed = 0;
+      for (String checkpoint : checkpoints) {
+        fed += replayer.replay(replayed, 100);
+        assertEquals(checkpoint, replayed.getElevatorSystemStatus().toString());
+      }
+      assertEquals(replayer.size(), fed);
+      assertFalse(replayer.hasNext());
+    }
+    assertEquals(recorded.getCurrentTick(), replayed.getCurrentTick());
+    assertEquals(recorded.getRequestsDistributed(), replayed.getRequestsDistributed());
+  }
+
+  @Test
+  public void feedAcrossMappedWindows() throws IOException {
+    Path trace = folder.newFile("windows.bin").toPath();
+    try (RequestTraceRecorder recorder = new RequestTraceRecorder(trace)) {
+      // More records than fit in the write buffer.
+      for (int i = 0; i < 20000; i++) {
+        recorder.record(i / 3, i % 10, (i + 1) % 10);
+      }
+    }
+
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    try (RequestTraceReplayer replayer = new RequestTraceReplayer(trace, 16)) {
+      assertEquals(20000, replayer.size());
+      assertEquals(0, replayer.peekTick());
+      assertEquals(3, replayer.feed(building, 0));
+      assertEquals(1, replayer.peekTick());
+      assertEquals(6, replayer.feed(building, 2));
+      assertEquals(20000 - 9, replayer.feed(building, Long.MAX_VALUE));
+      assertEquals(-1, replayer.peekTick());
+    }
+    assertEquals(20000, building.getNumUpRequests() + building.getNumDownRequests());
+  }
+
+  @Test
+  public void recorderNotMovedBackInTime() throws IOException {
+    Building building = new Building(10, 3, 4);
+    building.startElevatorSystem();
+    building.stepElevatorSystem(50);
+    ByteArrayOutputStream saved = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(saved)) {
+      building.writeCheckpoint(out);
+    }
+
+    try (RequestTraceRecorder recorder =
+             new RequestTraceRecorder(folder.newFile("restore.bin").toPath())) {
+      building.setRequestRecorder(recorder);
+      building.stepElevatorSystem(50);
+      building.addRequest(Request.of(2, 7));
+      assertEquals(100, recorder.getLastTick());
+
+      Building restored = Building.readCheckpoint(
+          new DataInputStream(new ByteArrayInputStream(saved.toByteArray())),
+          new TerminalDispatch());
+      try {
+        restored.setRequestRecorder(recorder);
+        fail("Expected an IllegalArgumentException.");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+      // The restored building does not record, and still takes requests.
+      restored.addRequest(Request.of(3, 8));
+      assertEquals(1, restored.getNumUpRequests());
+      assertEquals(1, recorder.getRecords());
+
+      // Once it has caught up with the recorder it can record again.
+      restored.stepElevatorSystem(50);
+      restored.setRequestRecorder(recorder);
+      restored.addRequest(Request.of(4, 9));
+      assertEquals(2, recorder.getRecords());
+    }
+  }
+
+  @Test
+  public void failingRecorderKeepsRequestsOnBothPaths() throws IOException {
+    Building building = new Building(10, 2, 4);
+    building.startElevatorSystem();
+    try (RequestTraceRecorder recorder =
+             new RequestTraceRecorder(folder.newFile("failing.bin").toPath())) {
+      building.setRequestRecorder(recorder);
+      // Move the recorder past the building, so every request it is given fails.
+      recorder.record(1000, 1, 2);
+
+      try {
+        building.addRequest(Request.of(2, 7));
+        fail("Expected an IllegalArgumentException.");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+      assertEquals(1, building.getNumUpRequests());
+
+      building.submitRequest(Request.of(8, 3));
+      try {
+        building.stepElevatorSystem();
+        fail("Expected an IllegalArgumentException.");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+      assertEquals(1, building.getNumDownRequests());
+      assertEquals(1, building.getIngestionMetrics().getRequestsDrained());
+      assertEquals(1, recorder.getRecords());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void ticksOutOfOrder() throws IOException {
+    try (RequestTraceRecorder recorder =
+             new RequestTraceRecorder(folder.newFile("order.bin").toPath())) {
+      recorder.record(5, 1, 2);
+      recorder.record(4, 1, 2);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void floorOutOfRange() throws IOException {
+    try (RequestTraceRecorder recorder =
+             new RequestTraceRecorder(folder.newFile("floor.bin").toPath())) {
+      recorder.record(0, 32, 2);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void notATrace() throws IOException {
+    Path file = folder.newFile("other.bin").toPath();
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    new RequestTraceReplayer(file).close();
+  }
+
+  @Test(expected = IOException.class)
+  public void truncatedTrace() throws IOException {
+    Path file = folder.newFile("truncated.bin").toPath();
+    try (RequestTraceRecorder recorder = new RequestTraceRecorder(file)) {
+      recorder.record(0, 1, 2);
+    }
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+    new RequestTraceReplayer(file).close();
+  }
+}
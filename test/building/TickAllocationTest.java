@@ -0,0 +1,105 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class that checks that a running building allocates nothing per step.
+ * <p></p>
+ * The steps are measured in a separate JVM running in interpreted mode. A compiled loop can
+ * have its iterators and temporary lists removed by escape analysis, which would hide them
+ * here while the same code allocates in a colder or larger run, so only the interpreter shows
+ * every allocation the code asks for.
+ */
+public class TickAllocationTest {
+
+  private static final int WARM_UP_TICKS = 2000;
+  private static final int MEASURED_TICKS = 2000;
+
+  /**
+   * Step a building with one request coming in on every step.
+   *
+   * @param building the building.
+   * @param from     the first tick, used to vary the requests.
+   * @param ticks    the number of steps.
+   */
+  private static void runSteadyFlow(BuildingInterface building, int from, int ticks) {
+    int floors = building.getNumFloors();
+    for (int tick = from; tick < from + ticks; tick++) {
+      building.addRequest(Request.of(tick % floors, (tick * 7) % floors));
+      building.stepElevatorSystem();
+    }
+  }
+
+  /**
+   * Returns the number of bytes a running building allocates while stepping with a steady
+   * flow of requests, once its queues have grown to their steady size.
+   *
+   * @param building the building.
+   * @return the number of bytes allocated by the current thread.
+   */
+  private static long bytesAllocatedWhileStepping(BuildingInterface building) {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    building.startElevatorSystem();
+    runSteadyFlow(building, 0, WARM_UP_TICKS);
+
+    long before = threads.getCurrentThreadAllocatedBytes();
+    runSteadyFlow(building, WARM_UP_TICKS, MEASURED_TICKS);
+    return threads.getCurrentThreadAllocatedBytes() - before;
+  }
+
+  /**
+   * Measure the buildings and print the bytes allocated by each on its own line. This is run
+   * in the interpreted JVM.
+   *
+   * @param args not used.
+   */
+  public static void main(String[] args) {
+    System.out.println(bytesAllocatedWhileStepping(new Building(20, 50, 10)));
+    System.out.println(bytesAllocatedWhileStepping(
+        new Building(20, 50, 10, new CollectiveDispatch())));
+    System.out.println(bytesAllocatedWhileStepping(new ElevatorBankBuilding(20, 50, 10)));
+  }
+
+  /**
+   * Run main() in an interpreted JVM with the same class path.
+   *
+   * @return the bytes allocated by each building.
+   * @throws IOException          if the JVM cannot be started.
+   * @throws InterruptedException if the test is interrupted.
+   */
+  private static long[] measureInterpreted() throws IOException, InterruptedException {
+    String java = System.getProperty("java.home") + File.separator + "bin" + File.separator
+        + "java";
+    Process process = new ProcessBuilder(java, "-Xint", "-cp",
+        System.getProperty("java.class.path"), TickAllocationTest.class.getName())
+        .redirectErrorStream(true)
+        .start();
+    long[] bytes = new long[3];
+    try (BufferedReader output = new BufferedReader(
+        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = Long.parseLong(output.readLine().trim());
+      }
+    }
+    assertEquals(0, process.waitFor());
+    return bytes;
+  }
+
+  @Test
+  public void steppingAllocatesNothing() throws IOException, InterruptedException {
+    long[] bytes = measureInterpreted();
+    assertEquals("Building with terminal dispatch", 0, bytes[0]);
+    assertEquals("Building with collective dispatch", 0, bytes[1]);
+    assertEquals("ElevatorBankBuilding", 0, bytes[2]);
+  }
+}
@@ -0,0 +1,194 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.TrafficPattern;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the TrafficGenerator class.
+ */
+public class TrafficGeneratorTest {
+
+  private static List<Request> generate(TrafficGenerator traffic, int ticks) {
+    List<Request> requests = new ArrayList<>();
+    for (int tick = 0; tick < ticks; tick++) {
+      traffic.nextTick(requests);
+    }
+    return requests;
+  }
+
+  @Test
+  public void sameSeedSameTraffic() {
+    List<Request> first = generate(new TrafficGenerator(20, TrafficPattern.LUNCH, 3, 7), 1000);
+    List<Request> second = generate(new TrafficGenerator(20, TrafficPattern.LUNCH, 3, 7), 1000);
+    assertEquals(first, second);
+    assertNotEquals(first,
+        generate(new TrafficGenerator(20, TrafficPattern.LUNCH, 3, 8), 1000));
+  }
+
+  @Test
+  public void splitIsReproducible() {
+    TrafficGenerator parent = new TrafficGenerator(12, TrafficPattern.UP_PEAK, 2, 1);
+    TrafficGenerator child = parent.split();
+    TrafficGenerator sameParent = new TrafficGenerator(12, TrafficPattern.UP_PEAK, 2, 1);
+    TrafficGenerator sameChild = sameParent.split();
+
+    assertEquals(generate(child, 500), generate(sameChild, 500));
+    assertEquals(generate(parent, 500), generate(sameParent, 500));
+    assertEquals(TrafficPattern.UP_PEAK, child.getPattern());
+    assertEquals(2.0, child.getArrivalRate(), 0.0);
+    assertEquals(500, child.getTick());
+  }
+
+  @Test
+  public void poissonArrivals() {
+    for (double rate : new double[] {0.3, 4, 1000}) {
+      TrafficGenerator traffic = new TrafficGenerator(10, TrafficPattern.INTER_FLOOR, rate, 3);
+      List<Request> requests = new ArrayList<>();
+      int ticks = 20_000;
+      double sum = 0;
+      double sumOfSquares = 0;
+      for (int tick = 0; tick < ticks; tick++) {
+        requests.clear();
+        int arrivals = traffic.nextTick(requests);
+        assertEquals(arrivals, requests.size());
+        sum += arrivals;
+        sumOfSquares += (double) arrivals * arrivals;
+      }
+      double mean = sum / ticks;
+      double variance = sumOfSquares / ticks - mean * mean;
+      // The mean and the variance of a Poisson distribution are both the rate.
+      assertEquals(rate, mean, 0.05 * rate);
+      assertEquals(rate, variance, 0.1 * rate);
+      assertEquals((long) sum, traffic.getGenerated());
+    }
+  }
+
+  @Test
+  public void noArrivals() {
+    TrafficGenerator traffic = new TrafficGenerator(5, TrafficPattern.UP_PEAK, 0, 3);
+    assertEquals(0, generate(traffic, 1000).size());
+    assertEquals(1000, traffic.getTick());
+  }
+
+  @Test
+  public void patternShares() {
+    for (TrafficPattern pattern : TrafficPattern.values()) {
+      List<Request> requests =
+          generate(new TrafficGenerator(15, pattern, 10, 11), 10_000);
+      int incoming = 0;
+      int outgoing = 0;
+      for (Request request : requests) {
+        assertNotEquals(request.getStartFloor(), request.getEndFloor());
+        if (request.getStartFloor() == 0) {
+          incoming++;
+        } else if (request.getEndFloor() == 0) {
+          outgoing++;
+        }
+      }
+      assertEquals(pattern.getIncomingShare(), (double) incoming / requests.size(), 0.01);
+      assertEquals(pattern.getOutgoingShare(), (double) outgoing / requests.size(), 0.01);
+    }
+  }
+
+  @Test
+  public void floorWeights() {
+    TrafficGenerator traffic = new TrafficGenerator(6, TrafficPattern.UP_PEAK, 5, 2);
+    traffic.setShares(1.0, 0.0);
+    assertNull(traffic.getPattern());
+    traffic.setFloorWeights(new double[] {100, 1, 0, 3, 0, 0});
+
+    int[] destinations = new int[6];
+    for (Request request : generate(traffic, 20_000)) {
+      assertEquals(0, request.getStartFloor());
+      destinations[request.getEndFloor()]++;
+    }
+    assertEquals(0, destinations[0]);
+    assertEquals(0, destinations[2]);
+    assertEquals(0, destinations[4]);
+    assertEquals(0, destinations[5]);
+    assertEquals(3.0, (double) destinations[3] / destinations[1], 0.15);
+  }
+
+  @Test
+  public void switchPattern() {
+    TrafficGenerator traffic = new TrafficGenerator(10, TrafficPattern.UP_PEAK, 2, 5);
+    generate(traffic, 100);
+    traffic.setPattern(TrafficPattern.DOWN_PEAK);
+    traffic.setArrivalRate(4);
+    List<Request> requests = new ArrayList<>();
+    for (int tick = 0; tick < 5000; tick++) {
+      traffic.nextTick(requests);
+    }
+    long outgoing = requests.stream().filter(request -> request.getEndFloor() == 0).count();
+    assertEquals(0.85, (double) outgoing / requests.size(), 0.02);
+    assertEquals(4.0, (double) requests.size() / 5000, 0.2);
+  }
+
+  @Test
+  public void feedsABuilding() {
+    Building building = new Building(12, 4, 5, new CollectiveDispatch());
+    TrafficGenerator traffic = new TrafficGenerator(12, TrafficPattern.LUNCH, 0.5, 4);
+    building.startElevatorSystem();
+    List<Request> batch = new ArrayList<>();
+    long accepted = 0;
+    for (int tick = 0; tick < 2000; tick++) {
+      batch.clear();
+      traffic.nextTick(batch);
+      accepted += building.addRequests(batch).getAccepted();
+      building.stepElevatorSystem();
+    }
+    assertEquals(traffic.getGenerated(), accepted);
+    assertTrue(building.getRequestsDistributed() > 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooFewFloors() {
+    new TrafficGenerator(2, TrafficPattern.UP_PEAK, 1, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void interFloorTripsNeedTwoUpperFloors() {
+    TrafficGenerator traffic = new TrafficGenerator(4, TrafficPattern.LUNCH, 1, 0);
+    traffic.setFloorWeights(new double[] {0, 0, 1, 0});
+  }
+
+  @Test
+  public void lobbyTripsWithOneUpperFloor() {
+    TrafficGenerator traffic = new TrafficGenerator(4, TrafficPattern.LUNCH, 1, 0);
+    traffic.setShares(0.5, 0.5);
+    traffic.setFloorWeights(new double[] {0, 0, 1, 0});
+    for (Request request : generate(traffic, 100)) {
+      assertEquals(2, request.getStartFloor() + request.getEndFloor());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeRate() {
+    new TrafficGenerator(5, TrafficPattern.UP_PEAK, -1, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void sharesAboveOne() {
+    new TrafficGenerator(5, TrafficPattern.UP_PEAK, 1, 0).setShares(0.7, 0.4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noWeightedUpperFloor() {
+    TrafficGenerator traffic = new TrafficGenerator(4, TrafficPattern.UP_PEAK, 1, 0);
+    traffic.setShares(1.0, 0.0);
+    traffic.setFloorWeights(new double[] {1, 0, 0, 0});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void wrongNumberOfWeights() {
+    new TrafficGenerator(4, TrafficPattern.UP_PEAK, 1, 0).setFloorWeights(new double[] {1, 1});
+  }
+}
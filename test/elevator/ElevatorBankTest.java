@@ -0,0 +1,156 @@
+package elevator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.Direction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the ElevatorBank class.
+ */
+public class ElevatorBankTest {
+
+  /**
+   * Check that a car of the bank is in the same state as the elevator.
+   */
+  private static void assertSameState(Elevator expected, ElevatorBank bank, int car) {
+    ElevatorReport want = expected.getElevatorStatus();
+    ElevatorReport got = bank.getElevatorStatus(car);
+    assertEquals(want.getCurrentFloor(), got.getCurrentFloor());
+    assertEquals(want.getDirection(), got.getDirection());
+    assertEquals(want.isDoorClosed(), got.isDoorClosed());
+    assertEquals(want.getDoorOpenTimer(), got.getDoorOpenTimer());
+    assertEquals(want.getEndWaitTimer(), got.getEndWaitTimer());
+    assertEquals(want.isOutOfService(), got.isOutOfService());
+    assertEquals(want.isTakingRequests(), got.isTakingRequests());
+    assertArrayEquals(want.getFloorRequests(), got.getFloorRequests());
+    assertEquals(want.toString(), got.toString());
+    assertEquals(expected.getPackedStatus(), bank.getPackedStatus(car));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructorThrowsExceptionForNoElevators() {
+    new ElevatorBank(0, 10, 5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructorThrowsExceptionForTooManyFloors() {
+    new ElevatorBank(2, 31, 5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructorThrowsExceptionForSmallOccupancy() {
+    new ElevatorBank(2, 10, 2);
+  }
+
+  @Test
+  public void initialState() {
+    ElevatorBank bank = new ElevatorBank(3, 10, 5);
+    assertEquals(3, bank.getNumElevators());
+    assertEquals(10, bank.getMaxFloor());
+    assertEquals(5, bank.getMaxOccupancy());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(i, bank.getElevatorId(i));
+      assertEquals(0, bank.getCurrentFloor(i));
+      assertEquals(Direction.STOPPED, bank.getDirection(i));
+      assertTrue(bank.isDoorClosed(i));
+      assertFalse(bank.isTakingRequests(i));
+      assertTrue(bank.getElevatorStatus(i).isOutOfService());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void processRequestsMidRunThrows() {
+    ElevatorBank bank = new ElevatorBank(1, 10, 5);
+    bank.start(0);
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 3));
+    bank.processRequests(0, requests);
+    bank.stepAll();  // open door
+    bank.stepAll();
+    bank.stepAll();
+    bank.stepAll();  // door closed
+    bank.stepAll();  // floor 1
+    bank.processRequests(0, requests);
+  }
+
+  @Test
+  public void packedStatusOfTheWholeBank() {
+    ElevatorBank bank = new ElevatorBank(3, 10, 5);
+    bank.start(1);
+    bank.stepAll();
+    long[] statuses = new long[4];
+    bank.getPackedStatus(statuses);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(bank.getPackedStatus(i), statuses[i]);
+      assertEquals(bank.getElevatorStatus(i), new ElevatorReport(i, statuses[i]));
+    }
+    assertEquals(0L, statuses[3]);
+    assertTrue(PackedElevatorStatus.isOutOfService(statuses[0]));
+    assertFalse(PackedElevatorStatus.isOutOfService(statuses[1]));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void packedStatusArrayTooShort() {
+    new ElevatorBank(3, 10, 5).getPackedStatus(new long[2]);
+  }
+
+  @Test
+  public void matchesElevatorStepByStep() {
+    int numCars = 7;
+    int floors = 12;
+    Random random = new Random(42);
+    ElevatorBank bank = new ElevatorBank(numCars, floors, 5);
+    Elevator[] cars = new Elevator[numCars];
+    for (int i = 0; i < numCars; i++) {
+      cars[i] = new Elevator(floors, 5);
+      cars[i].start();
+      bank.start(i);
+    }
+
+    for (int tick = 0; tick < 5000; tick++) {
+      for (int i = 0; i < numCars; i++) {
+        int floor = cars[i].getCurrentFloor();
+        boolean atEnd = floor == 0 || floor == floors - 1;
+        if (cars[i].isTakingRequests() && atEnd && random.nextInt(3) == 0) {
+          List<Request> requests = new ArrayList<>();
+          int count = 1 + random.nextInt(4);
+          for (int r = 0; r < count; r++) {
+            int a = random.nextInt(floors);
+            int b = random.nextInt(floors);
+            if (floor == 0) {
+              requests.add(new Request(Math.min(a, b), Math.max(a, b)));
+            } else {
+              requests.add(new Request(Math.max(a, b), Math.min(a, b)));
+            }
+          }
+          cars[i].processRequests(requests);
+          bank.processRequests(i, requests);
+        }
+        if (random.nextInt(2000) == 0) {
+          cars[i].takeOutOfService();
+          bank.takeOutOfService(i);
+        } else if (random.nextInt(500) == 0) {
+          cars[i].start();
+          bank.start(i);
+        }
+      }
+
+      for (Elevator car : cars) {
+        car.step();
+      }
+      bank.stepAll();
+
+      for (int i = 0; i < numCars; i++) {
+        assertSameState(cars[i], bank, i);
+      }
+    }
+  }
+}
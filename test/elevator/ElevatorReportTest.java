@@ -254,6 +254,30 @@ public class ElevatorReportTest {
 
   }
 
+  @Test
+  public void timersUpToFifteen() {
+    ElevatorReport full = new ElevatorReport(1, 1, Direction.UP, false,
+        new boolean[]{false, true, true}, 15, 15, false, true);
+    assertEquals(15, full.getDoorOpenTimer());
+    assertEquals(15, full.getEndWaitTimer());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void doorOpenTimerAboveFifteen() {
+    new ElevatorReport(1, 1, Direction.UP, false,
+        new boolean[]{false, true, true}, 16, 0, false, true);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void endWaitTimerAboveFifteen() {
+    new ElevatorReport(1, 1, Direction.STOPPED, true, 0b110, 3, 0, 16, false, false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeTimer() {
+    new ElevatorReport(1, 1, Direction.STOPPED, true, 0b110, 3, -1, 0, false, false);
+  }
+
   @Test
   public void testOtherClassesNotEqual() {
     assertNotEquals(report, new Object());
@@ -7,6 +7,7 @@ import static org.junit.Assert.assertTrue;
 import building.enums.Direction;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -1047,4 +1048,154 @@ public class ElevatorTest {
 
   }
 
-}
\ No newline at end of file
+  /**
+   * Advancing the elevator by n steps must leave it exactly where n calls to step() do.
+   */
+  @Test
+  public void advanceMatchesStepping() {
+    System.out.println("Testing: advanceMatchesStepping");
+    Random random = new Random(3);
+    Elevator stepped = new Elevator(10, 5);
+    Elevator advanced = new Elevator(10, 5);
+    stepped.start();
+    advanced.start();
+
+    for (int round = 0; round < 2000; round++) {
+      int floor = stepped.getCurrentFloor();
+      if (stepped.isTakingRequests() && (floor == 0 || floor == 9) && random.nextBoolean()) {
+        List<Request> requests = new ArrayList<>();
+        int a = random.nextInt(10);
+        int b = random.nextInt(10);
+        if (floor == 0) {
+          requests.add(new Request(Math.min(a, b), Math.max(a, b)));
+        } else {
+          requests.add(new Request(Math.max(a, b), Math.min(a, b)));
+        }
+        stepped.processRequests(requests);
+        advanced.processRequests(requests);
+      }
+      if (random.nextInt(200) == 0) {
+        stepped.takeOutOfService();
+        advanced.takeOutOfService();
+      } else if (random.nextInt(100) == 0) {
+        stepped.start();
+        advanced.start();
+      }
+
+      int ticks = 1 + random.nextInt(12);
+      for (int i = 0; i < ticks; i++) {
+        stepped.step();
+      }
+      advanced.advance(ticks);
+
+      assertEquals(stepped.toString(), advanced.toString());
+      assertEquals(stepped.getCurrentFloor(), advanced.getCurrentFloor());
+      assertEquals(stepped.getDirection(), advanced.getDirection());
+      assertEquals(stepped.isDoorClosed(), advanced.isDoorClosed());
+      assertEquals(stepped.isTakingRequests(), advanced.isTakingRequests());
+      assertEquals(stepped.getFloorRequestMask(), advanced.getFloorRequestMask());
+      assertEquals(stepped.getElevatorStatus().getDoorOpenTimer(),
+          advanced.getElevatorStatus().getDoorOpenTimer());
+      assertEquals(stepped.getElevatorStatus().getEndWaitTimer(),
+          advanced.getElevatorStatus().getEndWaitTimer());
+    }
+  }
+
+  /**
+   * The next event of a running elevator is the arrival at its next requested floor.
+   */
+  @Test
+  public void ticksUntilNextEvent() {
+    System.out.println("Testing: ticksUntilNextEvent");
+    Elevator elevator = new Elevator(10, 5);
+    assertEquals(1, elevator.ticksUntilNextEvent());  // out of service with the door closed
+    elevator.step();
+    assertEquals(Integer.MAX_VALUE, elevator.ticksUntilNextEvent());
+    elevator.start();
+    assertEquals(5, elevator.ticksUntilNextEvent());
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(4, 7));
+    elevator.processRequests(requests);
+    assertEquals(4, elevator.ticksUntilNextEvent());
+    elevator.advance(4);
+    assertEquals(4, elevator.getCurrentFloor());
+    assertEquals(1, elevator.ticksUntilNextEvent());
+    elevator.step();
+    assertEquals(3, elevator.ticksUntilNextEvent());
+  }
+
+  @Test
+  public void pickUpOnTheWay() {
+    Elevator elevator = new Elevator(0, 10, 5);
+    elevator.start();
+    for (int i = 0; i < 6; i++) {
+      elevator.step();
+    }
+    assertEquals(Direction.UP, elevator.getDirection());
+    assertEquals(1, elevator.getCurrentFloor());
+
+    List<Request> requests = new ArrayList<>();
+    requests.add(Request.of(1, 3));
+    requests.add(Request.of(4, 8));
+    elevator.pickUp(requests);
+    assertEquals((1 << 1) | (1 << 3) | (1 << 4) | (1 << 8), elevator.getFloorRequestMask());
+    elevator.step();
+    assertFalse(elevator.isDoorClosed());
+    assertEquals(1, elevator.getCurrentFloor());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void pickUpBehind() {
+    Elevator elevator = new Elevator(0, 10, 5);
+    elevator.start();
+    for (int i = 0; i < 8; i++) {
+      elevator.step();
+    }
+    List<Request> requests = new ArrayList<>();
+    requests.add(Request.of(1, 3));
+    elevator.pickUp(requests);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void pickUpWhileTakingRequests() {
+    Elevator elevator = new Elevator(0, 10, 5);
+    elevator.start();
+    List<Request> requests = new ArrayList<>();
+    requests.add(Request.of(1, 3));
+    elevator.pickUp(requests);
+  }
+
+  @Test
+  public void elevatorStatusIntoBuffer() {
+    Elevator elevator = new Elevator(12, 5);
+    ElevatorReportBuffer buffer = new ElevatorReportBuffer();
+    assertEquals(-1, buffer.getElevatorId());
+
+    elevator.start();
+    for (int i = 0; i < 7; i++) {
+      elevator.step();
+    }
+    elevator.getElevatorStatus(buffer);
+    ElevatorReport report = elevator.getElevatorStatus();
+    assertEquals(report, buffer.toReport());
+    assertEquals(report.toString(), buffer.toString());
+    assertEquals(report.getCurrentFloor(), buffer.getCurrentFloor());
+    assertEquals(report.getEndWaitTimer(), buffer.getEndWaitTimer());
+    assertEquals(report.isTakingRequests(), buffer.isTakingRequests());
+  }
+
+  @Test
+  public void stateVersionOnlyChangesWithState() {
+    Elevator elevator = new Elevator(0, 10, 5);
+    elevator.step();
+    long idle = elevator.getStateVersion();
+    elevator.step();
+    assertEquals(idle, elevator.getStateVersion());
+
+    elevator.start();
+    assertTrue(elevator.getStateVersion() > idle);
+    long started = elevator.getStateVersion();
+    elevator.step();
+    assertTrue(elevator.getStateVersion() > started);
+  }
+}
@@ -0,0 +1,68 @@
+package elevator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.Direction;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the FloorMask helpers.
+ */
+public class FloorMaskTest {
+
+  @Test
+  public void contains() {
+    int mask = FloorMask.fromArray(new boolean[]{false, true, false, true});
+    assertFalse(FloorMask.contains(mask, 0));
+    assertTrue(FloorMask.contains(mask, 1));
+    assertFalse(FloorMask.contains(mask, 2));
+    assertTrue(FloorMask.contains(mask, 3));
+  }
+
+  @Test
+  public void nextAbove() {
+    int mask = (1 << 2) | (1 << 7) | (1 << 29);
+    assertEquals(2, FloorMask.nextAbove(mask, 0));
+    assertEquals(7, FloorMask.nextAbove(mask, 2));
+    assertEquals(29, FloorMask.nextAbove(mask, 7));
+    assertEquals(-1, FloorMask.nextAbove(mask, 29));
+    assertEquals(-1, FloorMask.nextAbove(0, 0));
+  }
+
+  @Test
+  public void nextBelow() {
+    int mask = 1 | (1 << 7) | (1 << 29);
+    assertEquals(7, FloorMask.nextBelow(mask, 29));
+    assertEquals(0, FloorMask.nextBelow(mask, 7));
+    assertEquals(-1, FloorMask.nextBelow(mask, 0));
+    assertEquals(-1, FloorMask.nextBelow(0, 29));
+  }
+
+  @Test
+  public void roundTrip() {
+    boolean[] floorRequests = {true, false, false, true, false, true, false, false, false, true};
+    int mask = FloorMask.fromArray(floorRequests);
+    assertEquals(1 | (1 << 3) | (1 << 5) | (1 << 9), mask);
+    assertArrayEquals(floorRequests, FloorMask.toArray(mask, floorRequests.length));
+  }
+
+  @Test
+  public void elevatorNextStop() {
+    Elevator elevator = new Elevator(10, 5);
+    elevator.start();
+    assertEquals(-1, elevator.getNextStop());
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 4));
+    requests.add(new Request(2, 8));
+    elevator.processRequests(requests);
+    assertEquals(Direction.UP, elevator.getDirection());
+    assertEquals(1 | (1 << 2) | (1 << 4) | (1 << 8), elevator.getFloorRequestMask());
+    assertEquals(2, elevator.getNextStop());
+  }
+}
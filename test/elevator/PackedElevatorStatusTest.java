@@ -0,0 +1,106 @@
+package elevator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.Direction;
+import org.junit.Test;
+
+/**
+ * A JUnit test class for the PackedElevatorStatus helpers.
+ */
+public class PackedElevatorStatusTest {
+
+  @Test
+  public void packAndUnpack() {
+    int mask = (1 << 3) | (1 << 17) | (1 << 29);
+    long status = PackedElevatorStatus.pack(12, Direction.DOWN, false, mask, 30, 2, 4, true,
+        false);
+
+    assertEquals(12, PackedElevatorStatus.getCurrentFloor(status));
+    assertEquals(Direction.DOWN, PackedElevatorStatus.getDirection(status));
+    assertFalse(PackedElevatorStatus.isDoorClosed(status));
+    assertEquals(mask, PackedElevatorStatus.getFloorRequestMask(status));
+    assertEquals(30, PackedElevatorStatus.getNumFloors(status));
+    assertEquals(2, PackedElevatorStatus.getDoorOpenTimer(status));
+    assertEquals(4, PackedElevatorStatus.getEndWaitTimer(status));
+    assertTrue(PackedElevatorStatus.isOutOfService(status));
+    assertFalse(PackedElevatorStatus.isTakingRequests(status));
+  }
+
+  @Test
+  public void fieldsDoNotOverlap() {
+    long status = PackedElevatorStatus.pack(31, Direction.STOPPED, true, -1, 32, 15, 15, true,
+        true);
+
+    assertEquals(31, PackedElevatorStatus.getCurrentFloor(status));
+    assertEquals(Direction.STOPPED, PackedElevatorStatus.getDirection(status));
+    assertTrue(PackedElevatorStatus.isDoorClosed(status));
+    assertEquals(-1, PackedElevatorStatus.getFloorRequestMask(status));
+    assertEquals(32, PackedElevatorStatus.getNumFloors(status));
+    assertEquals(15, PackedElevatorStatus.getDoorOpenTimer(status));
+    assertEquals(15, PackedElevatorStatus.getEndWaitTimer(status));
+    assertTrue(PackedElevatorStatus.isOutOfService(status));
+    assertTrue(PackedElevatorStatus.isTakingRequests(status));
+
+    long empty = PackedElevatorStatus.pack(0, Direction.UP, false, 0, 0, 0, 0, false, false);
+    assertEquals(0L, empty);
+  }
+
+  @Test
+  public void everyFieldChangesTheStatus() {
+    long status = PackedElevatorStatus.pack(1, Direction.UP, true, 6, 10, 0, 0, false, false);
+    assertNotEquals(status,
+        PackedElevatorStatus.pack(2, Direction.UP, true, 6, 10, 0, 0, false, false));
+    assertNotEquals(status,
+        PackedElevatorStatus.pack(1, Direction.DOWN, true, 6, 10, 0, 0, false, false));
+    assertNotEquals(status,
+        PackedElevatorStatus.pack(1, Direction.UP, false, 6, 10, 0, 0, false, false));
+    assertNotEquals(status,
+        PackedElevatorStatus.pack(1, Direction.UP, true, 7, 10, 0, 0, false, false));
+    assertNotEquals(status,
+        PackedElevatorStatus.pack(1, Direction.UP, true, 6, 11, 0, 0, false, false));
+    assertNotEquals(status,
+        PackedElevatorStatus.pack(1, Direction.UP, true, 6, 10, 1, 0, false, false));
+    assertNotEquals(status,
+        PackedElevatorStatus.pack(1, Direction.UP, true, 6, 10, 0, 1, false, false));
+    assertNotEquals(status,
+        PackedElevatorStatus.pack(1, Direction.UP, true, 6, 10, 0, 0, true, false));
+    assertNotEquals(status,
+        PackedElevatorStatus.pack(1, Direction.UP, true, 6, 10, 0, 0, false, true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooManyFloors() {
+    PackedElevatorStatus.pack(0, Direction.UP, true, 0, 33, 0, 0, false, false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void floorOutOfRange() {
+    PackedElevatorStatus.pack(32, Direction.UP, true, 0, 30, 0, 0, false, false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void timerOutOfRange() {
+    PackedElevatorStatus.pack(0, Direction.UP, true, 0, 30, 0, 16, false, false);
+  }
+
+  @Test
+  public void reportFromPackedStatus() {
+    Elevator elevator = new Elevator(7, 12, 5);
+    elevator.start();
+    for (int i = 0; i < 8; i++) {
+      elevator.step();
+    }
+
+    long status = elevator.getPackedStatus();
+    ElevatorReport report = new ElevatorReport(7, status);
+    assertEquals(elevator.getElevatorStatus(), report);
+    assertEquals(status, report.getPackedStatus());
+    assertEquals(elevator.getCurrentFloor(), report.getCurrentFloor());
+    assertEquals(elevator.getDirection(), report.getDirection());
+    assertEquals(12, report.getFloorRequests().length);
+  }
+}
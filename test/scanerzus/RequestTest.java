@@ -0,0 +1,51 @@
+package scanerzus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * A JUnit test class for the Request class.
+ */
+public class RequestTest {
+
+  @Test
+  public void getFloors() {
+    Request request = Request.of(2, 7);
+    assertEquals(2, request.getStartFloor());
+    assertEquals(7, request.getEndFloor());
+    assertEquals("2->7", request.toString());
+  }
+
+  @Test
+  public void ofReturnsSharedInstances() {
+    for (int start = 0; start < Request.CACHED_FLOORS; start++) {
+      for (int end = 0; end < Request.CACHED_FLOORS; end++) {
+        assertSame(Request.of(start, end), Request.of(start, end));
+      }
+    }
+  }
+
+  @Test
+  public void ofOutsideTheTable() {
+    Request request = Request.of(Request.CACHED_FLOORS, -1);
+    assertEquals(Request.CACHED_FLOORS, request.getStartFloor());
+    assertEquals(-1, request.getEndFloor());
+    assertNotSame(request, Request.of(Request.CACHED_FLOORS, -1));
+    assertEquals(request, Request.of(Request.CACHED_FLOORS, -1));
+  }
+
+  @Test
+  public void equalsAndHashCode() {
+    Request shared = Request.of(3, 1);
+    Request fresh = new Request(3, 1);
+    assertEquals(shared, fresh);
+    assertEquals(fresh, shared);
+    assertEquals(shared.hashCode(), fresh.hashCode());
+    assertNotEquals(shared, Request.of(1, 3));
+    assertNotEquals(shared, new Object());
+  }
+}